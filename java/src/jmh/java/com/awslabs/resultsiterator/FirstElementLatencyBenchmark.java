@@ -0,0 +1,51 @@
+package com.awslabs.resultsiterator;
+
+import com.awslabs.resultsiterator.stubs.StubV1IotClient;
+import com.awslabs.resultsiterator.stubs.StubV2IotClient;
+import com.awslabs.resultsiterator.v1.implementations.V1ResultsIterator;
+import com.awslabs.resultsiterator.v2.implementations.V2ResultsIterator;
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.services.iot.model.ListThingsRequest;
+import software.amazon.awssdk.services.iot.model.ThingAttribute;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time from creating an iterator to receiving its first element. This covers building the request,
+ * looking up the pagination methods, and fetching the first page but none of the pages after it.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FirstElementLatencyBenchmark {
+    @Param({"100", "10000"})
+    public int pageSize;
+
+    @Param({"0", "1000"})
+    public long latencyMicros;
+
+    private StubV2IotClient stubV2IotClient;
+    private StubV1IotClient stubV1IotClient;
+
+    @Setup
+    public void setup() {
+        stubV2IotClient = new StubV2IotClient(pageSize, 10, latencyMicros);
+        stubV1IotClient = new StubV1IotClient(pageSize, 10, latencyMicros);
+    }
+
+    @Benchmark
+    public Optional<ThingAttribute> v2ResultsIterator() {
+        return new V2ResultsIterator<ThingAttribute>(stubV2IotClient, ListThingsRequest.class).stream()
+                .findFirst();
+    }
+
+    @Benchmark
+    public Optional<com.amazonaws.services.iot.model.ThingAttribute> v1ResultsIterator() {
+        return new V1ResultsIterator<com.amazonaws.services.iot.model.ThingAttribute>(stubV1IotClient, com.amazonaws.services.iot.model.ListThingsRequest.class).stream()
+                .findFirst();
+    }
+}
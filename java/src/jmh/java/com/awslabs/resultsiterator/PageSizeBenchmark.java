@@ -0,0 +1,55 @@
+package com.awslabs.resultsiterator;
+
+import com.awslabs.resultsiterator.stubs.StubV1IotClient;
+import com.awslabs.resultsiterator.stubs.StubV2IotClient;
+import com.awslabs.resultsiterator.v1.implementations.V1ResultsIterator;
+import com.awslabs.resultsiterator.v2.implementations.V2ResultsIterator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import software.amazon.awssdk.services.iot.model.ListThingsRequest;
+import software.amazon.awssdk.services.iot.model.ThingAttribute;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost per element while the total number of elements stays fixed and the page size changes. The
+ * cost per element should stay flat as the page size grows, a cost that grows with the page size means the
+ * iterator is doing more than constant work to hand out each element.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PageSizeBenchmark {
+    private static final int TOTAL_ELEMENTS = 100_000;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int pageSize;
+
+    private StubV2IotClient stubV2IotClient;
+    private StubV1IotClient stubV1IotClient;
+
+    @Setup
+    public void setup() {
+        int pageCount = TOTAL_ELEMENTS / pageSize;
+
+        stubV2IotClient = new StubV2IotClient(pageSize, pageCount);
+        stubV1IotClient = new StubV1IotClient(pageSize, pageCount);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOTAL_ELEMENTS)
+    public void v2ResultsIterator(Blackhole blackhole) {
+        new V2ResultsIterator<ThingAttribute>(stubV2IotClient, ListThingsRequest.class).stream()
+                .forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOTAL_ELEMENTS)
+    public void v1ResultsIterator(Blackhole blackhole) {
+        new V1ResultsIterator<com.amazonaws.services.iot.model.ThingAttribute>(stubV1IotClient, com.amazonaws.services.iot.model.ListThingsRequest.class).stream()
+                .forEach(blackhole::consume);
+    }
+}
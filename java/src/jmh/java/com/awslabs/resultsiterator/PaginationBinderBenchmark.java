@@ -0,0 +1,84 @@
+package com.awslabs.resultsiterator;
+
+import com.awslabs.resultsiterator.stubs.StubV2IotClient;
+import com.awslabs.resultsiterator.v2.implementations.LambdaMetafactoryV2PaginationBinder;
+import com.awslabs.resultsiterator.v2.implementations.ReflectionV2PaginationBinder;
+import com.awslabs.resultsiterator.v2.implementations.V2ResultsIterator;
+import com.awslabs.resultsiterator.v2.interfaces.V2PaginationBinder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import software.amazon.awssdk.core.SdkClient;
+import software.amazon.awssdk.services.iot.IotClient;
+import software.amazon.awssdk.services.iot.model.ListThingsRequest;
+import software.amazon.awssdk.services.iot.model.ListThingsResponse;
+import software.amazon.awssdk.services.iot.model.ThingAttribute;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Compares the reflective invocation path with the LambdaMetafactory path, both for a single bound call and for a
+ * full stream where every page goes through the four pagination calls.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PaginationBinderBenchmark {
+    private static final int TOTAL_ELEMENTS = 10_000;
+    private static final V2PaginationBinder REFLECTION_BINDER = new ReflectionV2PaginationBinder();
+    private static final V2PaginationBinder LAMBDA_METAFACTORY_BINDER = new LambdaMetafactoryV2PaginationBinder();
+
+    @Param({"1", "100"})
+    public int pageSize;
+
+    private StubV2IotClient stubV2IotClient;
+    private ListThingsRequest listThingsRequest;
+    private BiFunction<SdkClient, ListThingsRequest, ListThingsResponse> reflectionListThings;
+    private BiFunction<SdkClient, ListThingsRequest, ListThingsResponse> lambdaMetafactoryListThings;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        stubV2IotClient = new StubV2IotClient(pageSize, TOTAL_ELEMENTS / pageSize);
+        listThingsRequest = ListThingsRequest.builder().build();
+
+        Method listThings = IotClient.class.getMethod("listThings", ListThingsRequest.class);
+        reflectionListThings = REFLECTION_BINDER.bindBiFunction(listThings);
+        lambdaMetafactoryListThings = LAMBDA_METAFACTORY_BINDER.bindBiFunction(listThings);
+    }
+
+    @Benchmark
+    public ListThingsResponse reflectionSingleCall() {
+        return reflectionListThings.apply(stubV2IotClient, listThingsRequest);
+    }
+
+    @Benchmark
+    public ListThingsResponse lambdaMetafactorySingleCall() {
+        return lambdaMetafactoryListThings.apply(stubV2IotClient, listThingsRequest);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOTAL_ELEMENTS)
+    public void reflectionStream(Blackhole blackhole) {
+        new V2ResultsIterator<ThingAttribute>(stubV2IotClient, ListThingsRequest.class) {
+            @Override
+            protected V2PaginationBinder getV2PaginationBinder() {
+                return REFLECTION_BINDER;
+            }
+        }.stream().forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOTAL_ELEMENTS)
+    public void lambdaMetafactoryStream(Blackhole blackhole) {
+        new V2ResultsIterator<ThingAttribute>(stubV2IotClient, ListThingsRequest.class) {
+            @Override
+            protected V2PaginationBinder getV2PaginationBinder() {
+                return LAMBDA_METAFACTORY_BINDER;
+            }
+        }.stream().forEach(blackhole::consume);
+    }
+}
@@ -0,0 +1,47 @@
+package com.awslabs.resultsiterator;
+
+import com.awslabs.resultsiterator.stubs.StubV2IotClient;
+import com.awslabs.resultsiterator.v2.implementations.BasicV2ReflectionHelper;
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.services.iot.model.ListThingsRequest;
+import software.amazon.awssdk.services.iot.model.ListThingsResponse;
+import software.amazon.awssdk.services.iot.model.ThingAttribute;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the uncached method lookups that the iterators perform once per client, request, and element type
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReflectionHelperBenchmark {
+    private BasicV2ReflectionHelper basicV2ReflectionHelper;
+
+    @Setup
+    public void setup() {
+        basicV2ReflectionHelper = new BasicV2ReflectionHelper();
+    }
+
+    @Benchmark
+    public Optional<Method> clientMethodLookup() {
+        // The IoT client has several hundred methods to scan
+        return basicV2ReflectionHelper.getMethodWithParameterAndReturnType(StubV2IotClient.class, ListThingsRequest.class, ListThingsResponse.class);
+    }
+
+    @Benchmark
+    public Optional<Method> listMethodLookup() {
+        return basicV2ReflectionHelper.getMethodWithParameterAndReturnType(ListThingsResponse.class, null, ThingAttribute.class);
+    }
+
+    @Benchmark
+    public AwsRequest newRequest() {
+        return basicV2ReflectionHelper.getNewRequest(ListThingsRequest.class);
+    }
+}
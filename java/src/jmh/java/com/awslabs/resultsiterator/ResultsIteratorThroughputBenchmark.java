@@ -0,0 +1,74 @@
+package com.awslabs.resultsiterator;
+
+import com.awslabs.resultsiterator.data.ImmutablePrefetchPolicy;
+import com.awslabs.resultsiterator.data.PrefetchPolicy;
+import com.awslabs.resultsiterator.stubs.StubV1IotClient;
+import com.awslabs.resultsiterator.stubs.StubV2IotClient;
+import com.awslabs.resultsiterator.v1.implementations.V1ResultsIterator;
+import com.awslabs.resultsiterator.v2.implementations.V2ResultsIterator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import software.amazon.awssdk.services.iot.model.ListThingsRequest;
+import software.amazon.awssdk.services.iot.model.ThingAttribute;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures elements per second for a full pass over every page. Each operation is one element so running with
+ * "-prof gc" reports gc.alloc.rate.norm as the bytes allocated per element.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ResultsIteratorThroughputBenchmark {
+    private static final int PAGE_COUNT = 100;
+    private static final int TOTAL_ELEMENTS_PER_PAGE_SIZE_100 = 100 * PAGE_COUNT;
+
+    // NOTE: OperationsPerInvocation must be a constant so the page size is fixed, PageSizeBenchmark covers other page sizes
+    @Param({"0", "100"})
+    public long latencyMicros;
+
+    private StubV2IotClient stubV2IotClient;
+    private StubV1IotClient stubV1IotClient;
+    private ExecutorService executorService;
+    private PrefetchPolicy prefetchPolicy;
+
+    @Setup
+    public void setup() {
+        stubV2IotClient = new StubV2IotClient(100, PAGE_COUNT, latencyMicros);
+        stubV1IotClient = new StubV1IotClient(100, PAGE_COUNT, latencyMicros);
+        executorService = Executors.newSingleThreadExecutor();
+        prefetchPolicy = ImmutablePrefetchPolicy.builder().executor(executorService).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOTAL_ELEMENTS_PER_PAGE_SIZE_100)
+    public void v2ResultsIterator(Blackhole blackhole) {
+        new V2ResultsIterator<ThingAttribute>(stubV2IotClient, ListThingsRequest.class).stream()
+                .forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOTAL_ELEMENTS_PER_PAGE_SIZE_100)
+    public void v2ResultsIteratorPrefetching(Blackhole blackhole) {
+        new V2ResultsIterator<ThingAttribute>(stubV2IotClient, ListThingsRequest.class).stream(prefetchPolicy)
+                .forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOTAL_ELEMENTS_PER_PAGE_SIZE_100)
+    public void v1ResultsIterator(Blackhole blackhole) {
+        new V1ResultsIterator<com.amazonaws.services.iot.model.ThingAttribute>(stubV1IotClient, com.amazonaws.services.iot.model.ListThingsRequest.class).stream()
+                .forEach(blackhole::consume);
+    }
+}
@@ -0,0 +1,74 @@
+package com.awslabs.resultsiterator;
+
+import com.awslabs.iot.data.ImmutableCaCertFilename;
+import com.awslabs.iot.data.ImmutableClientCertFilename;
+import com.awslabs.iot.data.ImmutableClientPrivateKeyFilename;
+import com.awslabs.resultsiterator.data.ImmutablePassword;
+import com.awslabs.resultsiterator.implementations.BasicSslContextHelper;
+import com.awslabs.resultsiterator.stubs.SelfSignedKeyMaterial;
+import org.openjdk.jmh.annotations.*;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures getting an SSLContext from BasicSslContextHelper. The cold case changes the client certificate's
+ * modification time before every call, like a certificate rotation, so every call parses the PEM files and builds a
+ * new context. The warm case gets the cached context.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SslContextBenchmark {
+    private Path directory;
+    private Path clientCertPath;
+    private BasicSslContextHelper basicSslContextHelper;
+    private ImmutableCaCertFilename caCertFilename;
+    private ImmutableClientCertFilename clientCertFilename;
+    private ImmutableClientPrivateKeyFilename clientPrivateKeyFilename;
+    private ImmutablePassword password;
+    private long modificationCounter = 0;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("ssl-context-benchmark");
+        SelfSignedKeyMaterial selfSignedKeyMaterial = new SelfSignedKeyMaterial(directory);
+        clientCertPath = selfSignedKeyMaterial.getClientCertPath();
+
+        basicSslContextHelper = new BasicSslContextHelper();
+        caCertFilename = ImmutableCaCertFilename.builder().caCertFilename(selfSignedKeyMaterial.getCaCertPath().toString()).build();
+        clientCertFilename = ImmutableClientCertFilename.builder().clientCertFilename(clientCertPath.toString()).build();
+        clientPrivateKeyFilename = ImmutableClientPrivateKeyFilename.builder().clientPrivateKeyFilename(selfSignedKeyMaterial.getClientPrivateKeyPath().toString()).build();
+        password = ImmutablePassword.builder().build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder())
+                    .forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public SSLContext cold() throws IOException {
+        // Every call sees a different version of the file
+        Files.setLastModifiedTime(clientCertPath, FileTime.fromMillis(++modificationCounter * 1000));
+
+        return basicSslContextHelper.getSslContext(caCertFilename, clientCertFilename, clientPrivateKeyFilename, password);
+    }
+
+    @Benchmark
+    public SSLContext warm() {
+        return basicSslContextHelper.getSslContext(caCertFilename, clientCertFilename, clientPrivateKeyFilename, password);
+    }
+}
@@ -0,0 +1,81 @@
+package com.awslabs.resultsiterator;
+
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.services.iot.AWSIot;
+import com.amazonaws.services.iot.AWSIotClientBuilder;
+import com.amazonaws.services.iot.model.ListThingsRequest;
+import com.awslabs.resultsiterator.data.ImmutableV1ClientConfigurationSettings;
+import com.awslabs.resultsiterator.stubs.LocalIotEndpoint;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building a V1 client for every call, which is what V1HelperModule does for every injection, with reusing
+ * one client like V1SingletonHelperModule does. The calls go to a local endpoint so no AWS credentials are needed.
+ * The connectionsOpened counter shows the connection churn per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class V1ClientChurnBenchmark {
+    private LocalIotEndpoint localIotEndpoint;
+    private AWSIot sharedAwsIot;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ConnectionCounters {
+        public long connectionsOpened;
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        localIotEndpoint = new LocalIotEndpoint();
+        sharedAwsIot = buildAwsIot();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sharedAwsIot.shutdown();
+        localIotEndpoint.close();
+    }
+
+    private AWSIot buildAwsIot() {
+        return AWSIotClientBuilder.standard()
+                .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials("benchmark", "benchmark")))
+                .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(localIotEndpoint.getEndpoint(), "us-east-1"))
+                .withClientConfiguration(ImmutableV1ClientConfigurationSettings.builder().build().toClientConfiguration())
+                .build();
+    }
+
+    @Benchmark
+    public Object clientPerCall(ConnectionCounters connectionCounters) {
+        long connectionsBefore = localIotEndpoint.getConnectionsOpened();
+        AWSIot awsIot = buildAwsIot();
+
+        try {
+            return awsIot.listThings(new ListThingsRequest());
+        } finally {
+            // V1HelperModule never shuts its clients down, this is the best case for that pattern
+            awsIot.shutdown();
+            connectionCounters.connectionsOpened += localIotEndpoint.getConnectionsOpened() - connectionsBefore;
+        }
+    }
+
+    @Benchmark
+    public Object sharedClient(ConnectionCounters connectionCounters) {
+        long connectionsBefore = localIotEndpoint.getConnectionsOpened();
+
+        try {
+            return sharedAwsIot.listThings(new ListThingsRequest());
+        } finally {
+            connectionCounters.connectionsOpened += localIotEndpoint.getConnectionsOpened() - connectionsBefore;
+        }
+    }
+}
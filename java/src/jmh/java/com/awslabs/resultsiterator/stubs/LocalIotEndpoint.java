@@ -0,0 +1,63 @@
+package com.awslabs.resultsiterator.stubs;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A local HTTP endpoint that answers every IoT ListThings call with an empty page. Each client connection arrives from
+ * a different ephemeral port so counting the remote addresses that have been seen counts the connections opened.
+ */
+public class LocalIotEndpoint implements AutoCloseable {
+    private static final byte[] EMPTY_LIST_THINGS_RESPONSE = "{\"things\":[]}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer httpServer;
+    private final ExecutorService executorService;
+    private final Set<InetSocketAddress> remoteAddresses = ConcurrentHashMap.newKeySet();
+
+    public LocalIotEndpoint() throws IOException {
+        // Without this the server's headers and body are written separately and Nagle's algorithm adds ~40ms to every
+        //   response on a reused connection, which would hide the cost being measured
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executorService = Executors.newCachedThreadPool();
+        httpServer.setExecutor(executorService);
+        httpServer.createContext("/", this::handle);
+        httpServer.start();
+    }
+
+    private void handle(HttpExchange httpExchange) throws IOException {
+        remoteAddresses.add(httpExchange.getRemoteAddress());
+
+        httpExchange.getResponseHeaders().add("Content-Type", "application/json");
+        httpExchange.sendResponseHeaders(200, EMPTY_LIST_THINGS_RESPONSE.length);
+
+        try (OutputStream outputStream = httpExchange.getResponseBody()) {
+            outputStream.write(EMPTY_LIST_THINGS_RESPONSE);
+        }
+    }
+
+    public String getEndpoint() {
+        return String.join("", "http://", httpServer.getAddress().getHostString(), ":", String.valueOf(httpServer.getAddress().getPort()));
+    }
+
+    public long getConnectionsOpened() {
+        return remoteAddresses.size();
+    }
+
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        executorService.shutdownNow();
+    }
+}
@@ -0,0 +1,75 @@
+package com.awslabs.resultsiterator.stubs;
+
+import io.vavr.control.Try;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.openssl.jcajce.JcaPEMWriter;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Writes a self-signed certificate and its private key as PEM files so SSLContexts can be built without real IoT
+ * credentials. The certificate is used as both the CA certificate and the client certificate.
+ */
+public class SelfSignedKeyMaterial {
+    private final Path caCertPath;
+    private final Path clientCertPath;
+    private final Path clientPrivateKeyPath;
+
+    public SelfSignedKeyMaterial(Path directory) {
+        KeyPair keyPair = Try.of(() -> KeyPairGenerator.getInstance("RSA"))
+                .peek(keyPairGenerator -> keyPairGenerator.initialize(2048))
+                .map(KeyPairGenerator::generateKeyPair)
+                .get();
+
+        X500Name subject = new X500Name("CN=benchmark");
+        Instant now = Instant.now();
+
+        X509CertificateHolder certificateHolder = Try.of(() -> new JcaX509v3CertificateBuilder(subject,
+                BigInteger.ONE,
+                Date.from(now.minus(Duration.ofDays(1))),
+                Date.from(now.plus(Duration.ofDays(1))),
+                subject,
+                keyPair.getPublic())
+                .build(new JcaContentSignerBuilder("SHA256withRSA").build(keyPair.getPrivate())))
+                .get();
+
+        caCertPath = directory.resolve("root.ca.pem");
+        clientCertPath = directory.resolve("certificate.pem");
+        clientPrivateKeyPath = directory.resolve("private.key");
+
+        writePem(caCertPath, certificateHolder);
+        writePem(clientCertPath, certificateHolder);
+        writePem(clientPrivateKeyPath, keyPair);
+    }
+
+    private void writePem(Path path, Object object) {
+        Try.withResources(() -> new JcaPEMWriter(Files.newBufferedWriter(path)))
+                .of(jcaPEMWriter -> {
+                    jcaPEMWriter.writeObject(object);
+                    return jcaPEMWriter;
+                })
+                .get();
+    }
+
+    public Path getCaCertPath() {
+        return caCertPath;
+    }
+
+    public Path getClientCertPath() {
+        return clientCertPath;
+    }
+
+    public Path getClientPrivateKeyPath() {
+        return clientPrivateKeyPath;
+    }
+}
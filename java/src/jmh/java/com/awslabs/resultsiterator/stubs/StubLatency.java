@@ -0,0 +1,19 @@
+package com.awslabs.resultsiterator.stubs;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Simulates the round trip to the service for each page
+class StubLatency {
+    private StubLatency() {
+    }
+
+    static void simulate(long latencyMicros) {
+        if (latencyMicros <= 0) {
+            return;
+        }
+
+        // parkNanos is more accurate than Thread.sleep for sub-millisecond latencies
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(latencyMicros));
+    }
+}
@@ -0,0 +1,52 @@
+package com.awslabs.resultsiterator.stubs;
+
+import com.amazonaws.AmazonWebServiceClient;
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.services.iot.model.ListThingsRequest;
+import com.amazonaws.services.iot.model.ListThingsResult;
+import com.amazonaws.services.iot.model.ThingAttribute;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class StubV1IotClient extends AmazonWebServiceClient {
+    private final Map<String, List<ThingAttribute>> pages = new HashMap<>();
+    private final int pageCount;
+    private final long latencyMicros;
+
+    public StubV1IotClient(int pageSize, int pageCount) {
+        this(pageSize, pageCount, 0);
+    }
+
+    public StubV1IotClient(int pageSize, int pageCount, long latencyMicros) {
+        super(new ClientConfiguration());
+        this.pageCount = pageCount;
+        this.latencyMicros = latencyMicros;
+
+        for (int pageNumber = 0; pageNumber < pageCount; pageNumber++) {
+            List<ThingAttribute> things = new ArrayList<>(pageSize);
+
+            for (int thingNumber = 0; thingNumber < pageSize; thingNumber++) {
+                things.add(new ThingAttribute()
+                        .withThingName(String.join("-", "thing", String.valueOf(pageNumber), String.valueOf(thingNumber))));
+            }
+
+            pages.put(String.valueOf(pageNumber), things);
+        }
+    }
+
+    public ListThingsResult listThings(ListThingsRequest listThingsRequest) {
+        StubLatency.simulate(latencyMicros);
+
+        String token = listThingsRequest.getNextToken();
+        int pageNumber = (token == null) ? 0 : Integer.parseInt(token);
+        String nextToken = (pageNumber + 1 < pageCount) ? String.valueOf(pageNumber + 1) : null;
+
+        // V1 results are mutable so a new result is returned for every call
+        return new ListThingsResult()
+                .withThings(pages.get(String.valueOf(pageNumber)))
+                .withNextToken(nextToken);
+    }
+}
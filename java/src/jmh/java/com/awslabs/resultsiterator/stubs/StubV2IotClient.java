@@ -0,0 +1,70 @@
+package com.awslabs.resultsiterator.stubs;
+
+import software.amazon.awssdk.services.iot.IotClient;
+import software.amazon.awssdk.services.iot.model.ListThingsRequest;
+import software.amazon.awssdk.services.iot.model.ListThingsResponse;
+import software.amazon.awssdk.services.iot.model.ThingAttribute;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class StubV2IotClient implements IotClient {
+    private final Map<String, ListThingsResponse> responses = new HashMap<>();
+    private final ListThingsResponse firstResponse;
+    private final long latencyMicros;
+
+    public StubV2IotClient(int pageSize, int pageCount) {
+        this(pageSize, pageCount, 0);
+    }
+
+    public StubV2IotClient(int pageSize, int pageCount, long latencyMicros) {
+        this.latencyMicros = latencyMicros;
+        ListThingsResponse nextResponse = null;
+
+        // Build the pages back to front so each page can point to the token of the page after it
+        for (int pageNumber = pageCount - 1; pageNumber >= 0; pageNumber--) {
+            List<ThingAttribute> things = new ArrayList<>(pageSize);
+
+            for (int thingNumber = 0; thingNumber < pageSize; thingNumber++) {
+                things.add(ThingAttribute.builder()
+                        .thingName(String.join("-", "thing", String.valueOf(pageNumber), String.valueOf(thingNumber)))
+                        .build());
+            }
+
+            String nextToken = (nextResponse == null) ? null : String.valueOf(pageNumber + 1);
+
+            nextResponse = ListThingsResponse.builder()
+                    .things(things)
+                    .nextToken(nextToken)
+                    .build();
+
+            responses.put(String.valueOf(pageNumber), nextResponse);
+        }
+
+        firstResponse = nextResponse;
+    }
+
+    @Override
+    public ListThingsResponse listThings(ListThingsRequest listThingsRequest) {
+        StubLatency.simulate(latencyMicros);
+
+        String nextToken = listThingsRequest.nextToken();
+
+        if (nextToken == null) {
+            return firstResponse;
+        }
+
+        return responses.get(nextToken);
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,43 @@
+package com.awslabs.general.helpers.data;
+
+import com.awslabs.data.NoToString;
+import org.immutables.value.Value;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Controls how the output of a process started with ProcessHelper.runProcess is handled. Lines are passed to the
+ * consumers as soon as they are read and only the last getMaxCapturedLines() lines of each stream are kept for the
+ * ProcessOutput.
+ */
+@Value.Immutable
+public abstract class ProcessOutputOptions extends NoToString {
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    // NOTE: The consumers are called on the thread that reads the output of every running process, they must not block
+    public abstract Optional<Consumer<String>> getStandardOutConsumer();
+
+    public abstract Optional<Consumer<String>> getStandardErrorConsumer();
+
+    // Zero captures nothing, which is useful when the consumers handle all of the output
+    @Value.Default
+    public int getMaxCapturedLines() {
+        return UNLIMITED;
+    }
+
+    // The process is destroyed and the result fails with a TimeoutException when it runs longer than this
+    public abstract Optional<Duration> getTimeout();
+
+    @Value.Check
+    protected void check() {
+        if (getMaxCapturedLines() < 0) {
+            throw new IllegalArgumentException("The maximum number of captured lines can not be negative");
+        }
+
+        if (getTimeout().map(timeout -> timeout.isNegative() || timeout.isZero()).orElse(false)) {
+            throw new IllegalArgumentException("The timeout must be positive");
+        }
+    }
+}
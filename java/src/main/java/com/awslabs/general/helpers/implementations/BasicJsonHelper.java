@@ -1,27 +1,31 @@
 package com.awslabs.general.helpers.implementations;
 
 import com.awslabs.general.helpers.interfaces.JsonHelper;
+import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.TypeAdapterFactory;
+import io.vavr.control.Try;
 
 import javax.inject.Inject;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.ServiceLoader;
 
 public class BasicJsonHelper implements JsonHelper {
+    // Gson instances are thread-safe, building them and loading the type adapter factories is only done once per JVM
+    private static final Gson PRETTY_GSON = getGsonBuilder()
+            .disableHtmlEscaping()
+            .setPrettyPrinting()
+            .create();
+    private static final Gson COMPACT_GSON = getGsonBuilder()
+            .disableHtmlEscaping()
+            .create();
+
     @Inject
     public BasicJsonHelper() {
     }
 
-    @Override
-    public String toJson(Object object) {
-        return getGsonBuilder()
-                .disableHtmlEscaping()
-                .setPrettyPrinting()
-                .create()
-                .toJson(object);
-    }
-
-    private GsonBuilder getGsonBuilder() {
+    private static GsonBuilder getGsonBuilder() {
         GsonBuilder gsonBuilder = new GsonBuilder();
 
         // This allows us to use GSON with Immutables - https://immutables.github.io/json.html#type-adapter-registration
@@ -32,9 +36,55 @@ public class BasicJsonHelper implements JsonHelper {
         return gsonBuilder;
     }
 
+    @Override
+    public String toJson(Object object) {
+        return PRETTY_GSON.toJson(object);
+    }
+
+    @Override
+    public void toJson(Object object, Writer writer) {
+        toJson(PRETTY_GSON, object, writer);
+    }
+
+    @Override
+    public void toJson(Object object, OutputStream outputStream) {
+        // Not closed since that would close the caller's output stream
+        Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+
+        toJson(PRETTY_GSON, object, writer);
+
+        // Push the encoded bytes out of the writer's buffer since the writer is discarded
+        Try.run(writer::flush).get();
+    }
+
+    @Override
+    public String toCompactJson(Object object) {
+        return COMPACT_GSON.toJson(object);
+    }
+
+    @Override
+    public void toCompactJson(Object object, Writer writer) {
+        toJson(COMPACT_GSON, object, writer);
+    }
+
+    private void toJson(Gson gson, Object object, Writer writer) {
+        // Write the JSON and rethrow all exceptions
+        Try.run(() -> gson.toJson(object, writer)).get();
+    }
+
     @Override
     public <T> T fromJson(Class<T> clazz, byte[] json) {
-        return getGsonBuilder().create()
-                .fromJson(new String(json), clazz);
+        // JSON is UTF-8 so it is decoded as UTF-8 instead of with the platform's default charset
+        return fromJson(clazz, new ByteArrayInputStream(json));
+    }
+
+    @Override
+    public <T> T fromJson(Class<T> clazz, Reader reader) {
+        return COMPACT_GSON.fromJson(reader, clazz);
+    }
+
+    @Override
+    public <T> T fromJson(Class<T> clazz, InputStream inputStream) {
+        return fromJson(clazz, new InputStreamReader(inputStream, StandardCharsets.UTF_8));
     }
 }
@@ -0,0 +1,98 @@
+package com.awslabs.general.helpers.implementations;
+
+import com.awslabs.general.helpers.interfaces.JsonHelper;
+import com.awslabs.general.helpers.interfaces.NdjsonHelper;
+import com.awslabs.resultsiterator.interfaces.ResultsIterator;
+import io.vavr.control.Try;
+
+import javax.inject.Inject;
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+public class BasicNdjsonHelper implements NdjsonHelper {
+    // Large enough that most writes to the file or the compressor cover many objects
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char NEWLINE = '\n';
+
+    @Inject
+    JsonHelper jsonHelper;
+
+    @Inject
+    public BasicNdjsonHelper() {
+    }
+
+    @Override
+    public <T> long export(ResultsIterator<T> resultsIterator, Path path) {
+        return export(resultsIterator.stream(), path);
+    }
+
+    @Override
+    public <T> long export(Stream<T> stream, Path path) {
+        return export(stream, path, path.toString().endsWith(GZIP_EXTENSION));
+    }
+
+    @Override
+    public <T> long export(Stream<T> stream, Path path, boolean gzip) {
+        return Try.withResources(() -> FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+                .of(fileChannel -> exportAndClose(stream, getOutputStream(fileChannel, gzip)))
+                .get();
+    }
+
+    private OutputStream getOutputStream(FileChannel fileChannel, boolean gzip) throws IOException {
+        OutputStream outputStream = Channels.newOutputStream(fileChannel);
+
+        if (gzip) {
+            return new GZIPOutputStream(outputStream, BUFFER_SIZE);
+        }
+
+        return outputStream;
+    }
+
+    private <T> long exportAndClose(Stream<T> stream, OutputStream outputStream) throws IOException {
+        // Closing the writer finishes the gzip trailer before the channel is closed
+        try (Writer writer = getWriter(outputStream)) {
+            return export(stream, writer);
+        }
+    }
+
+    @Override
+    public <T> long export(Stream<T> stream, OutputStream outputStream) {
+        // Not closed since that would close the caller's output stream
+        Writer writer = getWriter(outputStream);
+
+        long count = export(stream, writer);
+
+        Try.run(writer::flush).get();
+
+        return count;
+    }
+
+    private Writer getWriter(OutputStream outputStream) {
+        return new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private <T> long export(Stream<T> stream, Writer writer) {
+        long count = 0;
+
+        // Closing the stream stops any background page fetches if writing fails part way through
+        try (Stream<T> closeableStream = stream) {
+            Iterator<T> iterator = closeableStream.iterator();
+
+            // Each object is written and then released, only the current page is held in memory
+            while (iterator.hasNext()) {
+                jsonHelper.toCompactJson(iterator.next(), writer);
+                Try.run(() -> writer.write(NEWLINE)).get();
+                count++;
+            }
+        }
+
+        return count;
+    }
+}
@@ -1,7 +1,8 @@
 package com.awslabs.general.helpers.implementations;
 
-import com.awslabs.general.helpers.data.ImmutableProcessOutput;
+import com.awslabs.general.helpers.data.ImmutableProcessOutputOptions;
 import com.awslabs.general.helpers.data.ProcessOutput;
+import com.awslabs.general.helpers.data.ProcessOutputOptions;
 import com.awslabs.general.helpers.interfaces.ProcessHelper;
 import io.vavr.collection.List;
 import io.vavr.control.Try;
@@ -11,11 +12,11 @@ import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.auth.credentials.AwsCredentials;
 
 import javax.inject.Inject;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 public class BasicProcessHelper implements ProcessHelper {
     private final Logger log = LoggerFactory.getLogger(BasicProcessHelper.class);
@@ -23,6 +24,8 @@ public class BasicProcessHelper implements ProcessHelper {
     private static final String AWS_ACCESS_KEY_ID = "AWS_ACCESS_KEY_ID";
     private static final String AWS_SECRET_ACCESS_KEY = "AWS_SECRET_ACCESS_KEY";
     private static final String AWS_ACCESS_KEY = "AWS_ACCESS_KEY";
+    // One thread reads the output of every process started by any instance of this helper
+    private static final ProcessOutputPump PROCESS_OUTPUT_PUMP = new ProcessOutputPump();
 
     @Inject
     // Minor hack for integration tests
@@ -68,21 +71,30 @@ public class BasicProcessHelper implements ProcessHelper {
         return Optional.empty();
     }
 
-    private Optional<ProcessOutput> innerGetOutputFromProcess(ProcessBuilder processBuilder) throws IOException, InterruptedException {
-        Process process = processBuilder.start();
+    private Optional<ProcessOutput> innerGetOutputFromProcess(ProcessBuilder processBuilder) throws IOException, InterruptedException, ExecutionException {
+        // Capture all of the output like before but read it while the process runs so a full pipe can't stall it
+        ProcessOutputOptions processOutputOptions = ImmutableProcessOutputOptions.builder().build();
 
-        BufferedReader stdout = new BufferedReader(new InputStreamReader(process.getInputStream()));
-        BufferedReader stderr = new BufferedReader(new InputStreamReader(process.getErrorStream()));
+        return Optional.of(startProcess(processBuilder, processOutputOptions).get());
+    }
 
-        // Wait for the process to exit
-        process.waitFor();
+    @Override
+    public CompletableFuture<ProcessOutput> runProcess(ProcessBuilder processBuilder, ProcessOutputOptions processOutputOptions) {
+        return Try.of(() -> startProcess(processBuilder, processOutputOptions))
+                .recover(IOException.class, this::failedFuture)
+                .get();
+    }
+
+    private CompletableFuture<ProcessOutput> startProcess(ProcessBuilder processBuilder, ProcessOutputOptions processOutputOptions) throws IOException {
+        Process process = processBuilder.start();
+
+        return PROCESS_OUTPUT_PUMP.pump(process, processOutputOptions);
+    }
 
-        ProcessOutput processOutput = ImmutableProcessOutput.builder()
-                .exitCode(process.exitValue())
-                .standardErrorStrings(stderr.lines().collect(List.collector()))
-                .standardOutStrings(stdout.lines().collect(List.collector()))
-                .build();
+    private CompletableFuture<ProcessOutput> failedFuture(IOException ioException) {
+        CompletableFuture<ProcessOutput> completableFuture = new CompletableFuture<>();
+        completableFuture.completeExceptionally(ioException);
 
-        return Optional.of(processOutput);
+        return completableFuture;
     }
 }
@@ -0,0 +1,262 @@
+package com.awslabs.general.helpers.implementations;
+
+import com.awslabs.general.helpers.data.ImmutableProcessOutput;
+import com.awslabs.general.helpers.data.ProcessOutput;
+import com.awslabs.general.helpers.data.ProcessOutputOptions;
+import io.vavr.collection.List;
+import io.vavr.control.Try;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Reads the standard out and standard error of many processes on one thread. Process pipes can't be selected on in
+ * Java so each pass only reads the bytes that are already available, which never blocks, and the thread backs off
+ * while none of the processes are producing output. Reading while the processes run keeps them from stalling when a
+ * pipe buffer fills up.
+ */
+public class ProcessOutputPump {
+    private static final long MIN_IDLE_SLEEP_MILLIS = 1;
+    private static final long MAX_IDLE_SLEEP_MILLIS = 20;
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private final Logger log = LoggerFactory.getLogger(ProcessOutputPump.class);
+    private final BlockingQueue<PumpedProcess> newProcesses = new LinkedBlockingQueue<>();
+    private final ArrayList<PumpedProcess> activeProcesses = new ArrayList<>();
+    private final byte[] readBuffer = new byte[READ_BUFFER_SIZE];
+
+    public ProcessOutputPump() {
+        Thread pumpThread = new Thread(this::run, "process-output-pump");
+        // Never keep the JVM running just to read process output
+        pumpThread.setDaemon(true);
+        pumpThread.start();
+    }
+
+    public CompletableFuture<ProcessOutput> pump(Process process, ProcessOutputOptions processOutputOptions) {
+        CompletableFuture<ProcessOutput> result = new CompletableFuture<>();
+
+        result.whenComplete((processOutput, throwable) -> {
+            if (result.isCancelled()) {
+                // Cancelling the result stops the process, the pump thread drops it on its next pass
+                process.destroyForcibly();
+            }
+        });
+
+        newProcesses.add(new PumpedProcess(process, processOutputOptions, result));
+
+        return result;
+    }
+
+    private void run() {
+        long idleSleepMillis = MIN_IDLE_SLEEP_MILLIS;
+
+        while (true) {
+            if (activeProcesses.isEmpty()) {
+                // Nothing to read, wait for a process without polling
+                Try.of(newProcesses::take)
+                        .onSuccess(activeProcesses::add);
+            }
+
+            newProcesses.drainTo(activeProcesses);
+
+            boolean progressed = pumpActiveProcesses();
+
+            if (progressed) {
+                idleSleepMillis = MIN_IDLE_SLEEP_MILLIS;
+                continue;
+            }
+
+            long sleepMillis = idleSleepMillis;
+            Try.run(() -> Thread.sleep(sleepMillis));
+            idleSleepMillis = Math.min(idleSleepMillis * 2, MAX_IDLE_SLEEP_MILLIS);
+        }
+    }
+
+    private boolean pumpActiveProcesses() {
+        boolean progressed = false;
+        Iterator<PumpedProcess> iterator = activeProcesses.iterator();
+
+        while (iterator.hasNext()) {
+            PumpedProcess pumpedProcess = iterator.next();
+
+            try {
+                progressed |= pumpedProcess.pump();
+            } catch (Exception e) {
+                log.warn("Failed to read the output of a process", e);
+                pumpedProcess.process.destroyForcibly();
+                pumpedProcess.fail(e);
+            }
+
+            if (pumpedProcess.isDone()) {
+                iterator.remove();
+            }
+        }
+
+        return progressed;
+    }
+
+    private int readAvailable(InputStream inputStream, LineSplitter lineSplitter) throws IOException {
+        int available = inputStream.available();
+
+        if (available <= 0) {
+            return 0;
+        }
+
+        // Only read what is available so this never blocks
+        int bytesRead = inputStream.read(readBuffer, 0, Math.min(available, readBuffer.length));
+
+        if (bytesRead > 0) {
+            lineSplitter.accept(readBuffer, bytesRead);
+        }
+
+        return Math.max(bytesRead, 0);
+    }
+
+    private class PumpedProcess {
+        private final Process process;
+        private final CompletableFuture<ProcessOutput> result;
+        private final Optional<Long> deadlineNanos;
+        private final LineSplitter standardOut;
+        private final LineSplitter standardError;
+        // The result is completed on another thread so this tracks whether the pump is done with this process
+        private boolean done = false;
+
+        private PumpedProcess(Process process, ProcessOutputOptions processOutputOptions, CompletableFuture<ProcessOutput> result) {
+            this.process = process;
+            this.result = result;
+            this.deadlineNanos = processOutputOptions.getTimeout().map(timeout -> System.nanoTime() + timeout.toNanos());
+            this.standardOut = new LineSplitter(processOutputOptions.getStandardOutConsumer(), processOutputOptions.getMaxCapturedLines());
+            this.standardError = new LineSplitter(processOutputOptions.getStandardErrorConsumer(), processOutputOptions.getMaxCapturedLines());
+        }
+
+        private boolean isDone() {
+            return done || result.isDone();
+        }
+
+        private boolean pump() throws IOException {
+            if (isDone()) {
+                // Cancelled by the caller
+                return false;
+            }
+
+            // Check if the process exited before reading so nothing it wrote before exiting is missed
+            boolean exited = !process.isAlive();
+            int bytesRead = readAvailable(process.getInputStream(), standardOut) + readAvailable(process.getErrorStream(), standardError);
+
+            if (exited) {
+                finish();
+                return true;
+            }
+
+            if (deadlineNanos.isPresent() && (System.nanoTime() - deadlineNanos.get() > 0)) {
+                process.destroyForcibly();
+                fail(new TimeoutException("The process did not exit before the timeout"));
+                return true;
+            }
+
+            return bytesRead > 0;
+        }
+
+        private void finish() throws IOException {
+            int bytesRead;
+
+            do {
+                // Read whatever is left in the pipes
+                bytesRead = readAvailable(process.getInputStream(), standardOut) + readAvailable(process.getErrorStream(), standardError);
+            } while (bytesRead > 0);
+
+            ProcessOutput processOutput = ImmutableProcessOutput.builder()
+                    .exitCode(process.exitValue())
+                    .standardOutStrings(standardOut.finish())
+                    .standardErrorStrings(standardError.finish())
+                    .build();
+
+            done = true;
+
+            // Complete on another thread so dependent stages never run on the pump thread
+            ForkJoinPool.commonPool().execute(() -> result.complete(processOutput));
+        }
+
+        private void fail(Throwable throwable) {
+            done = true;
+            ForkJoinPool.commonPool().execute(() -> result.completeExceptionally(throwable));
+        }
+    }
+
+    private static class LineSplitter {
+        private static final byte NEWLINE = '\n';
+        private static final byte CARRIAGE_RETURN = '\r';
+
+        private final ByteArrayOutputStream currentLine = new ByteArrayOutputStream();
+        private final Optional<Consumer<String>> lineConsumer;
+        private final int maxCapturedLines;
+        private final Deque<String> capturedLines = new ArrayDeque<>();
+
+        private LineSplitter(Optional<Consumer<String>> lineConsumer, int maxCapturedLines) {
+            this.lineConsumer = lineConsumer;
+            this.maxCapturedLines = maxCapturedLines;
+        }
+
+        private void accept(byte[] bytes, int length) {
+            int lineStart = 0;
+
+            for (int index = 0; index < length; index++) {
+                if (bytes[index] == NEWLINE) {
+                    currentLine.write(bytes, lineStart, index - lineStart);
+                    emitCurrentLine();
+                    lineStart = index + 1;
+                }
+            }
+
+            currentLine.write(bytes, lineStart, length - lineStart);
+        }
+
+        private void emitCurrentLine() {
+            byte[] lineBytes = currentLine.toByteArray();
+            currentLine.reset();
+
+            int length = lineBytes.length;
+
+            if ((length > 0) && (lineBytes[length - 1] == CARRIAGE_RETURN)) {
+                // Windows line ending
+                length--;
+            }
+
+            // The platform charset is what the processes are expected to write in
+            String line = new String(lineBytes, 0, length, Charset.defaultCharset());
+
+            lineConsumer.ifPresent(consumer -> consumer.accept(line));
+
+            if (maxCapturedLines == 0) {
+                return;
+            }
+
+            if (capturedLines.size() == maxCapturedLines) {
+                // Keep only the most recent lines
+                capturedLines.removeFirst();
+            }
+
+            capturedLines.addLast(line);
+        }
+
+        private List<String> finish() {
+            if (currentLine.size() > 0) {
+                // The last line did not end with a newline
+                emitCurrentLine();
+            }
+
+            return List.ofAll(capturedLines);
+        }
+    }
+}
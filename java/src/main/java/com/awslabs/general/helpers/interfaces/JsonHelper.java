@@ -1,7 +1,53 @@
 package com.awslabs.general.helpers.interfaces;
 
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CharStreams;
+import com.google.gson.JsonParser;
+import io.vavr.control.Try;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// NOTE: The overloads have defaults built on toJson(Object) and fromJson(Class, byte[]) so existing implementations
+//   keep compiling, they build the whole document in memory
 public interface JsonHelper {
     String toJson(Object object);
 
+    // Writes the same pretty printed JSON as toJson(Object), the writer is not flushed or closed
+    default void toJson(Object object, Writer writer) {
+        Try.run(() -> writer.write(toJson(object))).get();
+    }
+
+    // Writes UTF-8, the output stream is flushed but not closed
+    default void toJson(Object object, OutputStream outputStream) {
+        Try.run(() -> {
+            outputStream.write(toJson(object).getBytes(StandardCharsets.UTF_8));
+            outputStream.flush();
+        }).get();
+    }
+
+    // Single line JSON without pretty printing
+    default String toCompactJson(Object object) {
+        return new JsonParser().parse(toJson(object)).toString();
+    }
+
+    // The writer is not flushed or closed so many objects can be written through one buffer
+    default void toCompactJson(Object object, Writer writer) {
+        Try.run(() -> writer.write(toCompactJson(object))).get();
+    }
+
     <T> T fromJson(Class<T> clazz, byte[] json);
+
+    // The reader is not closed
+    default <T> T fromJson(Class<T> clazz, Reader reader) {
+        return fromJson(clazz, Try.of(() -> CharStreams.toString(reader)).get().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Reads UTF-8, the input stream is not closed
+    default <T> T fromJson(Class<T> clazz, InputStream inputStream) {
+        return fromJson(clazz, Try.of(() -> ByteStreams.toByteArray(inputStream)).get());
+    }
 }
@@ -0,0 +1,25 @@
+package com.awslabs.general.helpers.interfaces;
+
+import com.awslabs.resultsiterator.interfaces.ResultsIterator;
+
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Writes objects as newline-delimited JSON (one compact JSON document per line) as they are produced so that memory
+ * use does not depend on how many objects there are. The methods return the number of objects written.
+ */
+public interface NdjsonHelper {
+    String GZIP_EXTENSION = ".gz";
+
+    // Gzip compresses the file when the path ends with .gz
+    <T> long export(ResultsIterator<T> resultsIterator, Path path);
+
+    <T> long export(Stream<T> stream, Path path);
+
+    <T> long export(Stream<T> stream, Path path, boolean gzip);
+
+    // The output stream is flushed but not closed
+    <T> long export(Stream<T> stream, OutputStream outputStream);
+}
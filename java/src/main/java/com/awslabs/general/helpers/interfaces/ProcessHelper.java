@@ -1,12 +1,24 @@
 package com.awslabs.general.helpers.interfaces;
 
 import com.awslabs.general.helpers.data.ProcessOutput;
+import com.awslabs.general.helpers.data.ProcessOutputOptions;
 import io.vavr.collection.List;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface ProcessHelper {
     ProcessBuilder getProcessBuilder(List<String> programAndArguments);
 
     Optional<ProcessOutput> getOutputFromProcess(ProcessBuilder processBuilder);
+
+    // Standard out and standard error are read while the process runs, cancelling the result destroys the process.
+    //   Implementations that can't stream the output or enforce the timeout return a result that fails with an
+    //   UnsupportedOperationException.
+    default CompletableFuture<ProcessOutput> runProcess(ProcessBuilder processBuilder, ProcessOutputOptions processOutputOptions) {
+        CompletableFuture<ProcessOutput> completableFuture = new CompletableFuture<>();
+        completableFuture.completeExceptionally(new UnsupportedOperationException(String.join(" ", getClass().getName(), "does not support runProcess")));
+
+        return completableFuture;
+    }
 }
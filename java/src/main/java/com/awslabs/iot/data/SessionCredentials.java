@@ -4,6 +4,9 @@ import org.immutables.gson.Gson;
 import org.immutables.value.Value;
 import software.amazon.awssdk.auth.credentials.AwsSessionCredentials;
 
+import java.time.Instant;
+import java.util.Optional;
+
 @Gson.TypeAdapters
 @Value.Immutable
 public abstract class SessionCredentials {
@@ -13,6 +16,13 @@ public abstract class SessionCredentials {
 
     public abstract String getSessionToken();
 
+    // ISO-8601 timestamp, e.g. 2020-10-18T09:18:06Z
+    public abstract Optional<String> getExpiration();
+
+    public Optional<Instant> getExpirationInstant() {
+        return getExpiration().map(Instant::parse);
+    }
+
     public AwsSessionCredentials toAwsSessionCredentials() {
         return AwsSessionCredentials.create(getAccessKeyId(), getSecretAccessKey(), getSessionToken());
     }
@@ -9,6 +9,8 @@ import com.awslabs.iot.helpers.interfaces.GreengrassIdExtractor;
 import com.awslabs.iot.helpers.interfaces.IotIdExtractor;
 import com.awslabs.iot.helpers.interfaces.V2GreengrassHelper;
 import com.awslabs.iot.helpers.interfaces.V2IotHelper;
+import com.awslabs.resultsiterator.data.FanOutPolicy;
+import com.awslabs.resultsiterator.implementations.OrderedFanOutIterator;
 import com.awslabs.resultsiterator.v2.implementations.V2ResultsIterator;
 import com.awslabs.resultsiterator.v2.interfaces.V2ReflectionHelper;
 import io.vavr.control.Try;
@@ -55,36 +57,71 @@ public class BasicV2GreengrassHelper implements V2GreengrassHelper {
         return new V2ResultsIterator<DefinitionInformation>(greengrassClient, ListDeviceDefinitionsRequest.class).stream();
     }
 
+    @Override
+    public Stream<DefinitionInformation> getDeviceDefinitions(FanOutPolicy fanOutPolicy) {
+        return new V2ResultsIterator<DefinitionInformation>(greengrassClient, ListDeviceDefinitionsRequest.class).stream(fanOutPolicy.toPrefetchPolicy());
+    }
+
     @Override
     public Stream<DefinitionInformation> getFunctionDefinitions() {
         return new V2ResultsIterator<DefinitionInformation>(greengrassClient, ListFunctionDefinitionsRequest.class).stream();
     }
 
+    @Override
+    public Stream<DefinitionInformation> getFunctionDefinitions(FanOutPolicy fanOutPolicy) {
+        return new V2ResultsIterator<DefinitionInformation>(greengrassClient, ListFunctionDefinitionsRequest.class).stream(fanOutPolicy.toPrefetchPolicy());
+    }
+
     @Override
     public Stream<DefinitionInformation> getCoreDefinitions() {
         return new V2ResultsIterator<DefinitionInformation>(greengrassClient, ListCoreDefinitionsRequest.class).stream();
     }
 
+    @Override
+    public Stream<DefinitionInformation> getCoreDefinitions(FanOutPolicy fanOutPolicy) {
+        return new V2ResultsIterator<DefinitionInformation>(greengrassClient, ListCoreDefinitionsRequest.class).stream(fanOutPolicy.toPrefetchPolicy());
+    }
+
     @Override
     public Stream<DefinitionInformation> getConnectorDefinitions() {
         return new V2ResultsIterator<DefinitionInformation>(greengrassClient, ListConnectorDefinitionsRequest.class).stream();
     }
 
+    @Override
+    public Stream<DefinitionInformation> getConnectorDefinitions(FanOutPolicy fanOutPolicy) {
+        return new V2ResultsIterator<DefinitionInformation>(greengrassClient, ListConnectorDefinitionsRequest.class).stream(fanOutPolicy.toPrefetchPolicy());
+    }
+
     @Override
     public Stream<DefinitionInformation> getResourceDefinitions() {
         return new V2ResultsIterator<DefinitionInformation>(greengrassClient, ListResourceDefinitionsRequest.class).stream();
     }
 
+    @Override
+    public Stream<DefinitionInformation> getResourceDefinitions(FanOutPolicy fanOutPolicy) {
+        return new V2ResultsIterator<DefinitionInformation>(greengrassClient, ListResourceDefinitionsRequest.class).stream(fanOutPolicy.toPrefetchPolicy());
+    }
+
     @Override
     public Stream<DefinitionInformation> getLoggerDefinitions() {
         return new V2ResultsIterator<DefinitionInformation>(greengrassClient, ListLoggerDefinitionsRequest.class).stream();
     }
 
+    @Override
+    public Stream<DefinitionInformation> getLoggerDefinitions(FanOutPolicy fanOutPolicy) {
+        return new V2ResultsIterator<DefinitionInformation>(greengrassClient, ListLoggerDefinitionsRequest.class).stream(fanOutPolicy.toPrefetchPolicy());
+    }
+
     @Override
     public Stream<DefinitionInformation> getSubscriptionDefinitions() {
         return new V2ResultsIterator<DefinitionInformation>(greengrassClient, ListSubscriptionDefinitionsRequest.class).stream();
     }
 
+    @Override
+    public Stream<DefinitionInformation> getSubscriptionDefinitions(FanOutPolicy fanOutPolicy) {
+        return new V2ResultsIterator<DefinitionInformation>(greengrassClient, ListSubscriptionDefinitionsRequest.class).stream(fanOutPolicy.toPrefetchPolicy());
+    }
+
     @Override
     public Stream<GroupCertificateAuthorityProperties> getGroupCertificateAuthorityProperties(GreengrassGroupId greengrassGroupId) {
         ListGroupCertificateAuthoritiesRequest listGroupCertificateAuthoritiesRequest = ListGroupCertificateAuthoritiesRequest.builder()
@@ -602,36 +639,71 @@ public class BasicV2GreengrassHelper implements V2GreengrassHelper {
         return getImmutableDefinitionVersionResponses(this::getDeviceDefinitionVersionResponse);
     }
 
+    @Override
+    public Stream<GetDeviceDefinitionVersionResponse> getImmutableDeviceDefinitionVersionResponses(FanOutPolicy fanOutPolicy) {
+        return getImmutableDefinitionVersionResponses(this::getDeviceDefinitionVersionResponse, fanOutPolicy);
+    }
+
     @Override
     public Stream<GetFunctionDefinitionVersionResponse> getImmutableFunctionDefinitionVersionResponses() {
         return getImmutableDefinitionVersionResponses(this::getFunctionDefinitionVersionResponse);
     }
 
+    @Override
+    public Stream<GetFunctionDefinitionVersionResponse> getImmutableFunctionDefinitionVersionResponses(FanOutPolicy fanOutPolicy) {
+        return getImmutableDefinitionVersionResponses(this::getFunctionDefinitionVersionResponse, fanOutPolicy);
+    }
+
     @Override
     public Stream<GetCoreDefinitionVersionResponse> getImmutableCoreDefinitionVersionResponses() {
         return getImmutableDefinitionVersionResponses(this::getCoreDefinitionVersionResponse);
     }
 
+    @Override
+    public Stream<GetCoreDefinitionVersionResponse> getImmutableCoreDefinitionVersionResponses(FanOutPolicy fanOutPolicy) {
+        return getImmutableDefinitionVersionResponses(this::getCoreDefinitionVersionResponse, fanOutPolicy);
+    }
+
     @Override
     public Stream<GetConnectorDefinitionVersionResponse> getImmutableConnectorDefinitionVersionResponses() {
         return getImmutableDefinitionVersionResponses(this::getConnectorDefinitionVersionResponse);
     }
 
+    @Override
+    public Stream<GetConnectorDefinitionVersionResponse> getImmutableConnectorDefinitionVersionResponses(FanOutPolicy fanOutPolicy) {
+        return getImmutableDefinitionVersionResponses(this::getConnectorDefinitionVersionResponse, fanOutPolicy);
+    }
+
     @Override
     public Stream<GetResourceDefinitionVersionResponse> getImmutableResourceDefinitionVersionResponses() {
         return getImmutableDefinitionVersionResponses(this::getResourceDefinitionVersionResponse);
     }
 
+    @Override
+    public Stream<GetResourceDefinitionVersionResponse> getImmutableResourceDefinitionVersionResponses(FanOutPolicy fanOutPolicy) {
+        return getImmutableDefinitionVersionResponses(this::getResourceDefinitionVersionResponse, fanOutPolicy);
+    }
+
     @Override
     public Stream<GetLoggerDefinitionVersionResponse> getImmutableLoggerDefinitionVersionResponses() {
         return getImmutableDefinitionVersionResponses(this::getLoggerDefinitionVersionResponse);
     }
 
+    @Override
+    public Stream<GetLoggerDefinitionVersionResponse> getImmutableLoggerDefinitionVersionResponses(FanOutPolicy fanOutPolicy) {
+        return getImmutableDefinitionVersionResponses(this::getLoggerDefinitionVersionResponse, fanOutPolicy);
+    }
+
     @Override
     public Stream<GetSubscriptionDefinitionVersionResponse> getImmutableSubscriptionDefinitionVersionResponses() {
         return getImmutableDefinitionVersionResponses(this::getSubscriptionDefinitionVersionResponse);
     }
 
+    @Override
+    public Stream<GetSubscriptionDefinitionVersionResponse> getImmutableSubscriptionDefinitionVersionResponses(FanOutPolicy fanOutPolicy) {
+        return getImmutableDefinitionVersionResponses(this::getSubscriptionDefinitionVersionResponse, fanOutPolicy);
+    }
+
     @Override
     public CreateSoftwareUpdateJobResponse updateRaspbianCore(ThingArn greengrassCoreThingArn, RoleArn s3UrlSignerRoleArn) {
         CreateSoftwareUpdateJobRequest createSoftwareUpdateJobRequest = CreateSoftwareUpdateJobRequest.builder()
@@ -662,14 +734,38 @@ public class BasicV2GreengrassHelper implements V2GreengrassHelper {
                 .filter(groupInformation -> !isGroupImmutable(groupInformation));
     }
 
+    @Override
+    public Stream<GroupInformation> getNonImmutableGroups(FanOutPolicy fanOutPolicy) {
+        // Check the groups concurrently, each check needs several calls to Greengrass and IoT
+        return OrderedFanOutIterator.stream(getGroups(), this::getIfNotImmutable, fanOutPolicy)
+                .filter(Optional::isPresent)
+                .map(Optional::get);
+    }
+
+    private Optional<GroupInformation> getIfNotImmutable(GroupInformation groupInformation) {
+        return Optional.of(groupInformation)
+                // Don't include immutable groups
+                .filter(value -> !isGroupImmutable(value));
+    }
+
     private <T> Stream<T> getImmutableDefinitionVersionResponses(java.util.function.Function<GroupVersion, Optional<T>> convertFromGroupVersion) {
         return getGroups()
-                .filter(this::isGroupImmutable)
-                .map(this::getLatestGroupVersion)
+                .map(groupInformation -> getImmutableDefinitionVersionResponse(groupInformation, convertFromGroupVersion))
                 .filter(Optional::isPresent)
-                .map(Optional::get)
-                .map(convertFromGroupVersion)
+                .map(Optional::get);
+    }
+
+    private <T> Stream<T> getImmutableDefinitionVersionResponses(java.util.function.Function<GroupVersion, Optional<T>> convertFromGroupVersion, FanOutPolicy fanOutPolicy) {
+        // Look up each group concurrently, the results are still returned in the same order as the groups
+        return OrderedFanOutIterator.stream(getGroups(), groupInformation -> getImmutableDefinitionVersionResponse(groupInformation, convertFromGroupVersion), fanOutPolicy)
                 .filter(Optional::isPresent)
                 .map(Optional::get);
     }
+
+    private <T> Optional<T> getImmutableDefinitionVersionResponse(GroupInformation groupInformation, java.util.function.Function<GroupVersion, Optional<T>> convertFromGroupVersion) {
+        return Optional.of(groupInformation)
+                .filter(this::isGroupImmutable)
+                .flatMap(this::getLatestGroupVersion)
+                .flatMap(convertFromGroupVersion);
+    }
 }
@@ -3,6 +3,7 @@ package com.awslabs.iot.helpers.interfaces;
 import com.awslabs.iam.data.RoleArn;
 import com.awslabs.iam.data.RoleName;
 import com.awslabs.iot.data.*;
+import com.awslabs.resultsiterator.data.FanOutPolicy;
 import software.amazon.awssdk.services.greengrass.model.*;
 
 import java.util.List;
@@ -10,23 +11,52 @@ import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+// NOTE: The FanOutPolicy overloads default to the sequential versions so existing implementations keep compiling
 public interface V2GreengrassHelper {
     Stream<GroupInformation> getGroups();
 
     Stream<DefinitionInformation> getFunctionDefinitions();
 
+    default Stream<DefinitionInformation> getFunctionDefinitions(FanOutPolicy fanOutPolicy) {
+        return getFunctionDefinitions();
+    }
+
     Stream<DefinitionInformation> getCoreDefinitions();
 
+    default Stream<DefinitionInformation> getCoreDefinitions(FanOutPolicy fanOutPolicy) {
+        return getCoreDefinitions();
+    }
+
     Stream<DefinitionInformation> getConnectorDefinitions();
 
+    default Stream<DefinitionInformation> getConnectorDefinitions(FanOutPolicy fanOutPolicy) {
+        return getConnectorDefinitions();
+    }
+
     Stream<DefinitionInformation> getDeviceDefinitions();
 
+    default Stream<DefinitionInformation> getDeviceDefinitions(FanOutPolicy fanOutPolicy) {
+        return getDeviceDefinitions();
+    }
+
     Stream<DefinitionInformation> getResourceDefinitions();
 
+    default Stream<DefinitionInformation> getResourceDefinitions(FanOutPolicy fanOutPolicy) {
+        return getResourceDefinitions();
+    }
+
     Stream<DefinitionInformation> getLoggerDefinitions();
 
+    default Stream<DefinitionInformation> getLoggerDefinitions(FanOutPolicy fanOutPolicy) {
+        return getLoggerDefinitions();
+    }
+
     Stream<DefinitionInformation> getSubscriptionDefinitions();
 
+    default Stream<DefinitionInformation> getSubscriptionDefinitions(FanOutPolicy fanOutPolicy) {
+        return getSubscriptionDefinitions();
+    }
+
     Stream<GroupCertificateAuthorityProperties> getGroupCertificateAuthorityProperties(GreengrassGroupId greengrassGroupId);
 
     Stream<GroupCertificateAuthorityProperties> getGroupCertificateAuthorityProperties(GroupInformation groupInformation);
@@ -149,23 +179,55 @@ public interface V2GreengrassHelper {
 
     Stream<GetCoreDefinitionVersionResponse> getImmutableCoreDefinitionVersionResponses();
 
+    default Stream<GetCoreDefinitionVersionResponse> getImmutableCoreDefinitionVersionResponses(FanOutPolicy fanOutPolicy) {
+        return getImmutableCoreDefinitionVersionResponses();
+    }
+
     Stream<GetConnectorDefinitionVersionResponse> getImmutableConnectorDefinitionVersionResponses();
 
+    default Stream<GetConnectorDefinitionVersionResponse> getImmutableConnectorDefinitionVersionResponses(FanOutPolicy fanOutPolicy) {
+        return getImmutableConnectorDefinitionVersionResponses();
+    }
+
     void deleteSubscriptionDefinition(DefinitionInformation definitionInformation);
 
     Stream<GetDeviceDefinitionVersionResponse> getImmutableDeviceDefinitionVersionResponses();
 
+    default Stream<GetDeviceDefinitionVersionResponse> getImmutableDeviceDefinitionVersionResponses(FanOutPolicy fanOutPolicy) {
+        return getImmutableDeviceDefinitionVersionResponses();
+    }
+
     Stream<GetFunctionDefinitionVersionResponse> getImmutableFunctionDefinitionVersionResponses();
 
+    default Stream<GetFunctionDefinitionVersionResponse> getImmutableFunctionDefinitionVersionResponses(FanOutPolicy fanOutPolicy) {
+        return getImmutableFunctionDefinitionVersionResponses();
+    }
+
     Stream<GetResourceDefinitionVersionResponse> getImmutableResourceDefinitionVersionResponses();
 
+    default Stream<GetResourceDefinitionVersionResponse> getImmutableResourceDefinitionVersionResponses(FanOutPolicy fanOutPolicy) {
+        return getImmutableResourceDefinitionVersionResponses();
+    }
+
     Stream<GetLoggerDefinitionVersionResponse> getImmutableLoggerDefinitionVersionResponses();
 
+    default Stream<GetLoggerDefinitionVersionResponse> getImmutableLoggerDefinitionVersionResponses(FanOutPolicy fanOutPolicy) {
+        return getImmutableLoggerDefinitionVersionResponses();
+    }
+
     Stream<GetSubscriptionDefinitionVersionResponse> getImmutableSubscriptionDefinitionVersionResponses();
 
+    default Stream<GetSubscriptionDefinitionVersionResponse> getImmutableSubscriptionDefinitionVersionResponses(FanOutPolicy fanOutPolicy) {
+        return getImmutableSubscriptionDefinitionVersionResponses();
+    }
+
     CreateSoftwareUpdateJobResponse updateRaspbianCore(ThingArn greengrassCoreThingArn, RoleArn s3UrlSignerRoleArn);
 
     CreateSoftwareUpdateJobResponse updateRaspbianCore(ThingName greengrassCoreThingName, RoleName s3UrlSignerRoleName);
 
     Stream<GroupInformation> getNonImmutableGroups();
+
+    default Stream<GroupInformation> getNonImmutableGroups(FanOutPolicy fanOutPolicy) {
+        return getNonImmutableGroups();
+    }
 }
@@ -16,6 +16,11 @@ public class SharedModule {
         return basicJsonHelper;
     }
 
+    @Provides
+    public NdjsonHelper ndjsonHelper(BasicNdjsonHelper basicNdjsonHelper) {
+        return basicNdjsonHelper;
+    }
+
     @Provides
     public IoHelper ioHelper(BasicIoHelper basicIoHelper) {
         return basicIoHelper;
@@ -0,0 +1,34 @@
+package com.awslabs.resultsiterator.data;
+
+import com.awslabs.data.NoToString;
+import com.awslabs.resultsiterator.interfaces.CheckpointStore;
+import org.immutables.value.Value;
+
+/**
+ * Controls where and how often the position of a paginated enumeration is saved. A checkpoint is always saved when a
+ * new page is started, an element interval greater than zero also saves it after that many consumed elements.
+ */
+@Value.Immutable
+public abstract class CheckpointPolicy extends NoToString {
+    public static final int PAGE_BOUNDARIES_ONLY = 0;
+
+    public abstract CheckpointStore getCheckpointStore();
+
+    public abstract String getCheckpointId();
+
+    @Value.Default
+    public int getElementInterval() {
+        return PAGE_BOUNDARIES_ONLY;
+    }
+
+    @Value.Check
+    protected void check() {
+        if (getCheckpointId().isEmpty()) {
+            throw new IllegalArgumentException("The checkpoint ID can not be empty");
+        }
+
+        if (getElementInterval() < 0) {
+            throw new IllegalArgumentException("The element interval can not be negative");
+        }
+    }
+}
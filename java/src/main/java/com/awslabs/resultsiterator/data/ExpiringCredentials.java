@@ -0,0 +1,18 @@
+package com.awslabs.resultsiterator.data;
+
+import com.awslabs.data.NoToString;
+import org.immutables.value.Value;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Credentials along with the time they expire, credentials without an expiration are never cached
+ */
+@Value.Immutable
+public abstract class ExpiringCredentials extends NoToString {
+    public abstract AwsCredentials getAwsCredentials();
+
+    public abstract Optional<Instant> getExpiration();
+}
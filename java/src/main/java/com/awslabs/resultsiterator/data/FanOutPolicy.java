@@ -0,0 +1,37 @@
+package com.awslabs.resultsiterator.data;
+
+import com.awslabs.data.NoToString;
+import org.immutables.value.Value;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Controls how independent calls are run concurrently. At most getPermits() calls are in flight at once and results
+ * are always returned in the order of their inputs.
+ */
+@Value.Immutable
+public abstract class FanOutPolicy extends NoToString {
+    public static final int DEFAULT_PERMITS = 8;
+
+    // The executor is owned by the caller, it is never shut down by the helpers
+    public abstract Executor getExecutor();
+
+    @Value.Default
+    public int getPermits() {
+        return DEFAULT_PERMITS;
+    }
+
+    @Value.Check
+    protected void check() {
+        if (getPermits() < 1) {
+            throw new IllegalArgumentException("The number of permits must be at least 1");
+        }
+    }
+
+    public PrefetchPolicy toPrefetchPolicy() {
+        return ImmutablePrefetchPolicy.builder()
+                .executor(getExecutor())
+                .lookAheadDepth(getPermits())
+                .build();
+    }
+}
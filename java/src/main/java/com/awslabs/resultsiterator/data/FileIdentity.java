@@ -0,0 +1,36 @@
+package com.awslabs.resultsiterator.data;
+
+import com.awslabs.data.NoToString;
+import io.vavr.control.Try;
+import org.immutables.value.Value;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Identifies a version of a file on disk. A file that is rewritten in place gets a different size or modification time
+ * so it no longer matches an identity that was captured before it changed.
+ */
+@Value.Immutable
+public abstract class FileIdentity extends NoToString {
+    public abstract Path getPath();
+
+    public abstract long getSize();
+
+    public abstract FileTime getLastModifiedTime();
+
+    public static FileIdentity of(Path path) {
+        Path absolutePath = path.toAbsolutePath().normalize();
+
+        // Get the attributes and rethrow all exceptions
+        BasicFileAttributes basicFileAttributes = Try.of(() -> Files.readAttributes(absolutePath, BasicFileAttributes.class)).get();
+
+        return ImmutableFileIdentity.builder()
+                .path(absolutePath)
+                .size(basicFileAttributes.size())
+                .lastModifiedTime(basicFileAttributes.lastModifiedTime())
+                .build();
+    }
+}
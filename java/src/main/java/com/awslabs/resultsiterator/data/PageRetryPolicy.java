@@ -0,0 +1,58 @@
+package com.awslabs.resultsiterator.data;
+
+import com.awslabs.data.NoToString;
+import org.immutables.value.Value;
+
+import java.time.Duration;
+
+/**
+ * Controls how a page request that was throttled or failed with a transient error is retried. The delay before each
+ * retry is picked at random between zero and an exponentially growing limit (full jitter) and no retry is attempted
+ * once the time spent on a page would exceed getMaxElapsedTime().
+ *
+ * These retries are on top of the SDK client's retries, size getMaxAttempts() with the client's retry count in mind
+ * since the two multiply.
+ */
+@Value.Immutable
+public abstract class PageRetryPolicy extends NoToString {
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final Duration DEFAULT_BASE_DELAY = Duration.ofMillis(100);
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(5);
+    public static final Duration DEFAULT_MAX_ELAPSED_TIME = Duration.ofSeconds(30);
+
+    // The number of times a page is requested including the first attempt, one disables retries
+    @Value.Default
+    public int getMaxAttempts() {
+        return DEFAULT_MAX_ATTEMPTS;
+    }
+
+    @Value.Default
+    public Duration getBaseDelay() {
+        return DEFAULT_BASE_DELAY;
+    }
+
+    @Value.Default
+    public Duration getMaxDelay() {
+        return DEFAULT_MAX_DELAY;
+    }
+
+    @Value.Default
+    public Duration getMaxElapsedTime() {
+        return DEFAULT_MAX_ELAPSED_TIME;
+    }
+
+    @Value.Check
+    protected void check() {
+        if (getMaxAttempts() < 1) {
+            throw new IllegalArgumentException("The maximum number of attempts must be at least 1");
+        }
+
+        if (getBaseDelay().isNegative() || getMaxDelay().isNegative() || getMaxElapsedTime().isNegative()) {
+            throw new IllegalArgumentException("Retry delays can not be negative");
+        }
+
+        if (getMaxDelay().compareTo(getBaseDelay()) < 0) {
+            throw new IllegalArgumentException("The maximum delay can not be smaller than the base delay");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.awslabs.resultsiterator.data;
+
+import com.awslabs.data.NoToString;
+import org.immutables.value.Value;
+
+import java.util.Optional;
+
+/**
+ * The position of a paginated enumeration. The page token is the token that fetches the page being consumed (empty
+ * for the first page) and the page offset is the number of elements in that page that were already consumed.
+ */
+@Value.Immutable
+public abstract class PaginationCheckpoint extends NoToString {
+    public abstract String getCheckpointId();
+
+    // Used to make sure a checkpoint is only resumed with the request that created it
+    public abstract String getRequestFingerprint();
+
+    public abstract Optional<String> getPageToken();
+
+    public abstract long getPageOffset();
+
+    public abstract long getConsumedElements();
+
+    @Value.Check
+    protected void check() {
+        if (getPageOffset() < 0) {
+            throw new IllegalArgumentException("The page offset can not be negative");
+        }
+
+        if (getConsumedElements() < getPageOffset()) {
+            throw new IllegalArgumentException("The number of consumed elements can not be smaller than the page offset");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.awslabs.resultsiterator.data;
+
+import com.awslabs.data.NoToString;
+import org.immutables.value.Value;
+
+/**
+ * Identifies the paginated operation that metrics are reported for (e.g. the service name reported by the client and "ListThings")
+ */
+@Value.Immutable
+public abstract class PaginationOperation extends NoToString {
+    private static final String REQUEST_SUFFIX = "Request$";
+
+    public abstract String getServiceName();
+
+    public abstract String getOperationName();
+
+    public static PaginationOperation of(String serviceName, Class<?> requestClass) {
+        return ImmutablePaginationOperation.builder()
+                .serviceName(serviceName)
+                .operationName(requestClass.getSimpleName().replaceAll(REQUEST_SUFFIX, ""))
+                .build();
+    }
+}
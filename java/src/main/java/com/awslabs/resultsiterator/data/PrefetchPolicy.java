@@ -0,0 +1,30 @@
+package com.awslabs.resultsiterator.data;
+
+import com.awslabs.data.NoToString;
+import org.immutables.value.Value;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Controls how pages are fetched in the background while the current page is being consumed. At most
+ * getLookAheadDepth() pages are held in memory in addition to the page being consumed.
+ */
+@Value.Immutable
+public abstract class PrefetchPolicy extends NoToString {
+    public static final int DEFAULT_LOOK_AHEAD_DEPTH = 1;
+
+    // The executor is owned by the caller, it is never shut down by the iterators
+    public abstract Executor getExecutor();
+
+    @Value.Default
+    public int getLookAheadDepth() {
+        return DEFAULT_LOOK_AHEAD_DEPTH;
+    }
+
+    @Value.Check
+    protected void check() {
+        if (getLookAheadDepth() < 1) {
+            throw new IllegalArgumentException("The look ahead depth must be at least 1");
+        }
+    }
+}
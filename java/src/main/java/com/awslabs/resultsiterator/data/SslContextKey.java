@@ -0,0 +1,27 @@
+package com.awslabs.resultsiterator.data;
+
+import com.awslabs.data.NoToString;
+import org.immutables.value.Value;
+
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Identifies the key material an SSLContext was built from
+ */
+@Value.Immutable
+public abstract class SslContextKey extends NoToString {
+    public abstract FileIdentity getCaCertFile();
+
+    public abstract FileIdentity getClientCertFile();
+
+    public abstract FileIdentity getClientPrivateKeyFile();
+
+    public abstract char[] getPassword();
+
+    public boolean isInDirectory(Path directory) {
+        return Stream.of(getCaCertFile(), getClientCertFile(), getClientPrivateKeyFile())
+                .map(FileIdentity::getPath)
+                .anyMatch(path -> directory.equals(path.getParent()));
+    }
+}
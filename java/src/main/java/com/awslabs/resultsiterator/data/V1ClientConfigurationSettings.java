@@ -0,0 +1,64 @@
+package com.awslabs.resultsiterator.data;
+
+import com.amazonaws.ClientConfiguration;
+import com.awslabs.data.NoToString;
+import org.immutables.value.Value;
+
+/**
+ * Settings for the ClientConfiguration that is shared by all of the clients from V1SingletonHelperModule
+ */
+@Value.Immutable
+public abstract class V1ClientConfigurationSettings extends NoToString {
+    @Value.Default
+    public int getMaxConnections() {
+        return ClientConfiguration.DEFAULT_MAX_CONNECTIONS;
+    }
+
+    // -1 means connections are kept until they are idle for too long or the server closes them
+    @Value.Default
+    public long getConnectionTtlMillis() {
+        return ClientConfiguration.DEFAULT_CONNECTION_TTL;
+    }
+
+    @Value.Default
+    public long getConnectionMaxIdleMillis() {
+        return ClientConfiguration.DEFAULT_CONNECTION_MAX_IDLE_MILLIS;
+    }
+
+    // Keeps long lived connections from being silently dropped by NAT gateways and load balancers
+    @Value.Default
+    public boolean isTcpKeepAlive() {
+        return true;
+    }
+
+    // Zero leaves the socket buffer sizes up to the operating system
+    @Value.Default
+    public int getSocketSendBufferSizeHint() {
+        return 0;
+    }
+
+    @Value.Default
+    public int getSocketReceiveBufferSizeHint() {
+        return 0;
+    }
+
+    @Value.Check
+    protected void check() {
+        if (getMaxConnections() < 1) {
+            throw new IllegalArgumentException("The maximum number of connections must be at least 1");
+        }
+
+        if ((getSocketSendBufferSizeHint() < 0) || (getSocketReceiveBufferSizeHint() < 0)) {
+            throw new IllegalArgumentException("Socket buffer size hints can not be negative");
+        }
+    }
+
+    public ClientConfiguration toClientConfiguration() {
+        return new ClientConfiguration()
+                .withMaxConnections(getMaxConnections())
+                .withConnectionTTL(getConnectionTtlMillis())
+                .withConnectionMaxIdleMillis(getConnectionMaxIdleMillis())
+                .withTcpKeepAlive(isTcpKeepAlive())
+                .withSocketBufferSizeHints(getSocketSendBufferSizeHint(), getSocketReceiveBufferSizeHint());
+    }
+}
@@ -0,0 +1,44 @@
+package com.awslabs.resultsiterator.data;
+
+import com.awslabs.data.NoToString;
+import org.immutables.value.Value;
+
+import java.time.Duration;
+
+/**
+ * Settings for the HTTP client that is shared by all of the clients from V2SingletonHelperModule
+ */
+@Value.Immutable
+public abstract class V2HttpClientSettings extends NoToString {
+    public static final int DEFAULT_MAX_CONNECTIONS = 100;
+    public static final Duration DEFAULT_CONNECTION_MAX_IDLE_TIME = Duration.ofSeconds(60);
+
+    // Shared by every service and region so this is higher than the SDK's per-client default
+    @Value.Default
+    public int getMaxConnections() {
+        return DEFAULT_MAX_CONNECTIONS;
+    }
+
+    // How long an idle connection is kept alive for reuse
+    @Value.Default
+    public Duration getConnectionMaxIdleTime() {
+        return DEFAULT_CONNECTION_MAX_IDLE_TIME;
+    }
+
+    // Zero means connections are kept until they are idle for too long or the server closes them
+    @Value.Default
+    public Duration getConnectionTimeToLive() {
+        return Duration.ZERO;
+    }
+
+    @Value.Check
+    protected void check() {
+        if (getMaxConnections() < 1) {
+            throw new IllegalArgumentException("The maximum number of connections must be at least 1");
+        }
+
+        if (getConnectionMaxIdleTime().isNegative() || getConnectionTimeToLive().isNegative()) {
+            throw new IllegalArgumentException("Connection durations can not be negative");
+        }
+    }
+}
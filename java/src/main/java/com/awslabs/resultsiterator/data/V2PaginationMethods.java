@@ -0,0 +1,71 @@
+package com.awslabs.resultsiterator.data;
+
+import com.awslabs.data.NoToString;
+import com.awslabs.resultsiterator.implementations.FetchedPage;
+import org.immutables.value.Value;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.core.SdkClient;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+@Value.Immutable
+public abstract class V2PaginationMethods extends NoToString {
+    public abstract Class<? extends AwsResponse> getResponseClass();
+
+    public abstract Optional<BiFunction<SdkClient, AwsRequest, AwsResponse>> getClientMethodReturningResult();
+
+    public abstract Optional<BiFunction<SdkClient, AwsRequest, CompletableFuture<AwsResponse>>> getAsyncClientMethodReturningResult();
+
+    public abstract Optional<Function<AwsResponse, List<?>>> getClientMethodReturningListT();
+
+    public abstract Optional<Function<AwsResponse, String>> getClientGetMethodReturningString();
+
+    public abstract Optional<BiFunction<AwsRequest.Builder, String, AwsRequest.Builder>> getClientSetMethodAcceptingString();
+
+    public <T> FetchedPage<AwsRequest, T> toFetchedPage(AwsRequest request, AwsResponse awsResponse) {
+        List<T> resultData = getResultData(awsResponse);
+
+        String nextToken = getNextToken(awsResponse);
+
+        if (nextToken == null) {
+            return new FetchedPage<>(resultData, Optional.empty());
+        }
+
+        return new FetchedPage<>(resultData, Optional.of(withNextToken(request, nextToken)), Optional.of(nextToken));
+    }
+
+    private <T> List<T> getResultData(AwsResponse awsResponse) {
+        if (!getClientMethodReturningListT().isPresent()) {
+            throw new UnsupportedOperationException("Failed to find a method returning the expected list type, this should never happen.");
+        }
+
+        return (List<T>) getClientMethodReturningListT().get().apply(awsResponse);
+    }
+
+    private String getNextToken(AwsResponse awsResponse) {
+        if (!getClientGetMethodReturningString().isPresent()) {
+            // Some methods like S3's listBuckets do not have pagination
+            return null;
+        }
+
+        return getClientGetMethodReturningString().get().apply(awsResponse);
+    }
+
+    // Returns a copy of the request with the pagination token set
+    public AwsRequest withNextToken(AwsRequest request, String nextToken) {
+        if (!getClientGetMethodReturningString().isPresent()) {
+            throw new UnsupportedOperationException("Trying to set the next token on a method that does not support pagination, this should never happen.");
+        }
+
+        if (!getClientSetMethodAcceptingString().isPresent()) {
+            throw new UnsupportedOperationException("Failed to find the set next token method, this should never happen.");
+        }
+
+        return getClientSetMethodAcceptingString().get().apply(request.toBuilder(), nextToken).build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.awslabs.resultsiterator.data;
+
+import com.awslabs.data.NoToString;
+import com.awslabs.resultsiterator.v2.interfaces.V2PaginationBinder;
+import org.immutables.value.Value;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.core.SdkClient;
+
+@Value.Immutable
+public abstract class V2PaginationMethodsKey extends NoToString {
+    public abstract Class<? extends SdkClient> getClientClass();
+
+    public abstract Class<? extends AwsRequest> getRequestClass();
+
+    public abstract Class<?> getElementClass();
+
+    public abstract Class<? extends V2PaginationBinder> getBinderClass();
+}
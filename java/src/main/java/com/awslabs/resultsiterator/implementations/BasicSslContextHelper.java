@@ -3,8 +3,11 @@ package com.awslabs.resultsiterator.implementations;
 import com.awslabs.iot.data.ImmutableCaCertFilename;
 import com.awslabs.iot.data.ImmutableClientCertFilename;
 import com.awslabs.iot.data.ImmutableClientPrivateKeyFilename;
+import com.awslabs.resultsiterator.data.FileIdentity;
 import com.awslabs.resultsiterator.data.ImmutablePassword;
+import com.awslabs.resultsiterator.data.ImmutableSslContextKey;
 import com.awslabs.resultsiterator.data.Password;
+import com.awslabs.resultsiterator.data.SslContextKey;
 import com.awslabs.resultsiterator.interfaces.SslContextHelper;
 import io.vavr.control.Either;
 import io.vavr.control.Try;
@@ -39,6 +42,15 @@ public class BasicSslContextHelper implements SslContextHelper {
     public static final String CERTIFICATE = "certificate";
     public static final String PRIVATE_KEY = "private-key";
     public static final String TLSV1_2 = "TLSv1.2";
+    // Shared by all instances since this helper is not scoped
+    private static final SslContextCache SSL_CONTEXT_CACHE = new SslContextCache();
+
+    static {
+        // Creating the provider is expensive so it is only registered once per JVM
+        if (Security.getProvider(BOUNCY_CASTLE_PROVIDER_NAME) == null) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+    }
 
     @Inject
     public BasicSslContextHelper() {
@@ -49,8 +61,20 @@ public class BasicSslContextHelper implements SslContextHelper {
                                     ImmutableClientCertFilename clientCertFilename,
                                     ImmutableClientPrivateKeyFilename clientPrivateKeyFilename,
                                     ImmutablePassword password) {
-        Security.addProvider(new BouncyCastleProvider());
+        SslContextKey sslContextKey = ImmutableSslContextKey.builder()
+                .caCertFile(FileIdentity.of(Paths.get(caCertFilename.getCaCertFilename())))
+                .clientCertFile(FileIdentity.of(Paths.get(clientCertFilename.getClientCertFilename())))
+                .clientPrivateKeyFile(FileIdentity.of(Paths.get(clientPrivateKeyFilename.getClientPrivateKeyFilename())))
+                .password(password.getPassword())
+                .build();
+
+        return SSL_CONTEXT_CACHE.get(sslContextKey, key -> createSslContext(caCertFilename, clientCertFilename, clientPrivateKeyFilename, password));
+    }
 
+    protected SSLContext createSslContext(ImmutableCaCertFilename caCertFilename,
+                                          ImmutableClientCertFilename clientCertFilename,
+                                          ImmutableClientPrivateKeyFilename clientPrivateKeyFilename,
+                                          ImmutablePassword password) {
         JcaX509CertificateConverter jcaX509CertificateConverter = new JcaX509CertificateConverter()
                 .setProvider(BOUNCY_CASTLE_PROVIDER_NAME);
 
@@ -0,0 +1,193 @@
+package com.awslabs.resultsiterator.implementations;
+
+import com.awslabs.resultsiterator.data.CheckpointPolicy;
+import com.awslabs.resultsiterator.data.ImmutablePaginationCheckpoint;
+import com.awslabs.resultsiterator.data.PaginationCheckpoint;
+import com.awslabs.resultsiterator.interfaces.CheckpointStore;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Returns the elements of each page and records how far the enumeration got in a checkpoint store. If a checkpoint
+ * exists when iteration starts the enumeration resumes from it instead of from the first page.
+ *
+ * An element counts as consumed once the next element is requested (or hasNext() is called again) so every element is
+ * delivered at least once. Elements that were handed out but not consumed when the process stopped are delivered
+ * again on resume. The checkpoint is deleted when the enumeration completes.
+ */
+public class CheckpointingIterator<R, T> implements Iterator<T> {
+    private final Supplier<R> initialRequestSupplier;
+    private final Function<R, FetchedPage<R, T>> pageFetcher;
+    private final BiFunction<R, String, R> tokenSetter;
+    private final String requestFingerprint;
+    private final CheckpointStore checkpointStore;
+    private final String checkpointId;
+    private final int elementInterval;
+    private boolean started = false;
+    private boolean finished = false;
+    private boolean elementPending = false;
+    private List<T> currentItems = Collections.emptyList();
+    private int currentIndex = 0;
+    private Optional<String> currentPageToken = Optional.empty();
+    private Optional<R> nextRequest = Optional.empty();
+    private Optional<String> nextToken = Optional.empty();
+    private long consumedElements = 0;
+
+    public CheckpointingIterator(Supplier<R> initialRequestSupplier, Function<R, FetchedPage<R, T>> pageFetcher, BiFunction<R, String, R> tokenSetter, String requestFingerprint, CheckpointPolicy checkpointPolicy) {
+        this.initialRequestSupplier = initialRequestSupplier;
+        this.pageFetcher = pageFetcher;
+        this.tokenSetter = tokenSetter;
+        this.requestFingerprint = requestFingerprint;
+        this.checkpointStore = checkpointPolicy.getCheckpointStore();
+        this.checkpointId = checkpointPolicy.getCheckpointId();
+        this.elementInterval = checkpointPolicy.getElementInterval();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (finished) {
+            return false;
+        }
+
+        acknowledgePendingElement();
+
+        while (currentIndex >= currentItems.size()) {
+            if (!started) {
+                start();
+                continue;
+            }
+
+            if (!nextRequest.isPresent()) {
+                // Nothing left to resume, the checkpoint is no longer needed
+                finished = true;
+                checkpointStore.delete(checkpointId);
+                return false;
+            }
+
+            // Every element of the previous page has been consumed, move the checkpoint to the start of the next page
+            fetch(nextRequest.get(), nextToken);
+            currentIndex = 0;
+            saveCheckpoint();
+        }
+
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        elementPending = true;
+
+        return currentItems.get(currentIndex++);
+    }
+
+    /**
+     * Returns a spliterator over the remaining elements that never splits. Elements handed to a parallel worker would
+     * be counted as consumed before the worker processed them so checkpointed streams are always sequential.
+     */
+    public Spliterator<T> toSpliterator() {
+        return new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (!hasNext()) {
+                    return false;
+                }
+
+                action.accept(next());
+
+                return true;
+            }
+
+            @Override
+            public Spliterator<T> trySplit() {
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Saves the current position without counting an element that was handed out but not yet consumed. Call this when
+     * the enumeration is stopped early so it can be resumed later.
+     */
+    public void saveCheckpoint() {
+        if (!started || finished) {
+            return;
+        }
+
+        long pageOffset = elementPending ? currentIndex - 1 : currentIndex;
+
+        checkpointStore.save(ImmutablePaginationCheckpoint.builder()
+                .checkpointId(checkpointId)
+                .requestFingerprint(requestFingerprint)
+                .pageToken(currentPageToken)
+                .pageOffset(pageOffset)
+                .consumedElements(consumedElements)
+                .build());
+    }
+
+    private void acknowledgePendingElement() {
+        if (!elementPending) {
+            return;
+        }
+
+        elementPending = false;
+        consumedElements++;
+
+        if ((elementInterval > 0) && (consumedElements % elementInterval == 0)) {
+            saveCheckpoint();
+        }
+    }
+
+    private void start() {
+        // The setup is complete, don't do it again
+        started = true;
+
+        Optional<PaginationCheckpoint> optionalPaginationCheckpoint = checkpointStore.load(checkpointId);
+
+        if (!optionalPaginationCheckpoint.isPresent()) {
+            fetch(initialRequestSupplier.get(), Optional.empty());
+            saveCheckpoint();
+            return;
+        }
+
+        PaginationCheckpoint paginationCheckpoint = optionalPaginationCheckpoint.get();
+
+        if (!requestFingerprint.equals(paginationCheckpoint.getRequestFingerprint())) {
+            throw new IllegalStateException("Checkpoint [" + checkpointId + "] was created for a different request, delete it or use a different checkpoint ID");
+        }
+
+        R request = initialRequestSupplier.get();
+
+        if (paginationCheckpoint.getPageToken().isPresent()) {
+            request = tokenSetter.apply(request, paginationCheckpoint.getPageToken().get());
+        }
+
+        fetch(request, paginationCheckpoint.getPageToken());
+
+        // Skip the elements of the page that were consumed before the checkpoint was saved
+        currentIndex = (int) Math.min(paginationCheckpoint.getPageOffset(), currentItems.size());
+        consumedElements = paginationCheckpoint.getConsumedElements();
+    }
+
+    private void fetch(R request, Optional<String> pageToken) {
+        FetchedPage<R, T> fetchedPage = pageFetcher.apply(request);
+
+        currentItems = fetchedPage.getItems();
+        currentPageToken = pageToken;
+        nextRequest = fetchedPage.getNextRequest();
+        nextToken = fetchedPage.getNextToken();
+    }
+}
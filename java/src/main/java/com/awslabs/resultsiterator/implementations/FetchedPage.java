@@ -0,0 +1,39 @@
+package com.awslabs.resultsiterator.implementations;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A single page of results and the request that fetches the page after it, if there is one. The next token is the
+ * pagination token that was put into the next request, it is kept so that checkpoints can record it.
+ *
+ * @param <R> the request type
+ * @param <T> the element type
+ */
+public final class FetchedPage<R, T> {
+    private final List<T> items;
+    private final Optional<R> nextRequest;
+    private final Optional<String> nextToken;
+
+    public FetchedPage(List<T> items, Optional<R> nextRequest) {
+        this(items, nextRequest, Optional.empty());
+    }
+
+    public FetchedPage(List<T> items, Optional<R> nextRequest, Optional<String> nextToken) {
+        this.items = items;
+        this.nextRequest = nextRequest;
+        this.nextToken = nextToken;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public Optional<R> getNextRequest() {
+        return nextRequest;
+    }
+
+    public Optional<String> getNextToken() {
+        return nextToken;
+    }
+}
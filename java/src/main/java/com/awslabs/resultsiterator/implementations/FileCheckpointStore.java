@@ -0,0 +1,107 @@
+package com.awslabs.resultsiterator.implementations;
+
+import com.awslabs.resultsiterator.data.ImmutablePaginationCheckpoint;
+import com.awslabs.resultsiterator.data.PaginationCheckpoint;
+import com.awslabs.resultsiterator.interfaces.CheckpointStore;
+import io.vavr.control.Try;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Stores each checkpoint in its own properties file in a directory. Checkpoints are written to a temporary file and
+ * then moved into place so a crash while saving never leaves a partial checkpoint behind.
+ */
+public class FileCheckpointStore implements CheckpointStore {
+    private static final String CHECKPOINT_ID = "checkpointId";
+    private static final String REQUEST_FINGERPRINT = "requestFingerprint";
+    private static final String PAGE_TOKEN = "pageToken";
+    private static final String PAGE_OFFSET = "pageOffset";
+    private static final String CONSUMED_ELEMENTS = "consumedElements";
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+    private final Path directory;
+
+    public FileCheckpointStore(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public Optional<PaginationCheckpoint> load(String checkpointId) {
+        Path checkpointPath = getCheckpointPath(checkpointId);
+
+        if (!Files.exists(checkpointPath)) {
+            return Optional.empty();
+        }
+
+        Properties properties = Try.withResources(() -> Files.newBufferedReader(checkpointPath, StandardCharsets.UTF_8))
+                .of(this::readProperties)
+                .get();
+
+        return Optional.of(ImmutablePaginationCheckpoint.builder()
+                .checkpointId(properties.getProperty(CHECKPOINT_ID))
+                .requestFingerprint(properties.getProperty(REQUEST_FINGERPRINT))
+                .pageToken(Optional.ofNullable(properties.getProperty(PAGE_TOKEN)))
+                .pageOffset(Long.parseLong(properties.getProperty(PAGE_OFFSET)))
+                .consumedElements(Long.parseLong(properties.getProperty(CONSUMED_ELEMENTS)))
+                .build());
+    }
+
+    @Override
+    public void save(PaginationCheckpoint paginationCheckpoint) {
+        Properties properties = new Properties();
+        properties.setProperty(CHECKPOINT_ID, paginationCheckpoint.getCheckpointId());
+        properties.setProperty(REQUEST_FINGERPRINT, paginationCheckpoint.getRequestFingerprint());
+        paginationCheckpoint.getPageToken().ifPresent(pageToken -> properties.setProperty(PAGE_TOKEN, pageToken));
+        properties.setProperty(PAGE_OFFSET, String.valueOf(paginationCheckpoint.getPageOffset()));
+        properties.setProperty(CONSUMED_ELEMENTS, String.valueOf(paginationCheckpoint.getConsumedElements()));
+
+        Try.run(() -> writeAtomically(getCheckpointPath(paginationCheckpoint.getCheckpointId()), properties)).get();
+    }
+
+    @Override
+    public void delete(String checkpointId) {
+        Try.of(() -> Files.deleteIfExists(getCheckpointPath(checkpointId))).get();
+    }
+
+    private Properties readProperties(Reader reader) throws IOException {
+        Properties properties = new Properties();
+        properties.load(reader);
+
+        return properties;
+    }
+
+    private void writeAtomically(Path checkpointPath, Properties properties) throws IOException {
+        Files.createDirectories(directory);
+        Path temporaryPath = Files.createTempFile(directory, checkpointPath.getFileName().toString(), ".tmp");
+
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporaryPath, StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+
+            try {
+                Files.move(temporaryPath, checkpointPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryPath, checkpointPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    private Path getCheckpointPath(String checkpointId) {
+        // Encode the ID so any string can be used without escaping the directory
+        String fileName = Try.of(() -> URLEncoder.encode(checkpointId, StandardCharsets.UTF_8.name())).get();
+
+        return directory.resolve(fileName + CHECKPOINT_SUFFIX);
+    }
+}
@@ -0,0 +1,30 @@
+package com.awslabs.resultsiterator.implementations;
+
+import com.awslabs.resultsiterator.data.PaginationCheckpoint;
+import com.awslabs.resultsiterator.interfaces.CheckpointStore;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps checkpoints for the life of the process, useful for retrying an enumeration after a failure without starting over
+ */
+public class InMemoryCheckpointStore implements CheckpointStore {
+    private final Map<String, PaginationCheckpoint> checkpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<PaginationCheckpoint> load(String checkpointId) {
+        return Optional.ofNullable(checkpoints.get(checkpointId));
+    }
+
+    @Override
+    public void save(PaginationCheckpoint paginationCheckpoint) {
+        checkpoints.put(paginationCheckpoint.getCheckpointId(), paginationCheckpoint);
+    }
+
+    @Override
+    public void delete(String checkpointId) {
+        checkpoints.remove(checkpointId);
+    }
+}
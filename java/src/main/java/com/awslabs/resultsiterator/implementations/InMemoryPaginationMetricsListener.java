@@ -0,0 +1,113 @@
+package com.awslabs.resultsiterator.implementations;
+
+import com.awslabs.resultsiterator.data.PaginationOperation;
+import com.awslabs.resultsiterator.interfaces.PaginationMetricsListener;
+
+import javax.inject.Inject;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps all metrics in memory, keyed by service and operation. Useful in tests and for ad-hoc diagnostics.
+ */
+public class InMemoryPaginationMetricsListener implements PaginationMetricsListener {
+    private final ConcurrentMap<PaginationOperation, OperationMetrics> operationMetricsMap = new ConcurrentHashMap<>();
+
+    @Inject
+    public InMemoryPaginationMetricsListener() {
+    }
+
+    @Override
+    public void pageFetched(PaginationOperation paginationOperation, long latencyNanos, int elementCount) {
+        OperationMetrics operationMetrics = getOperationMetrics(paginationOperation);
+        operationMetrics.pageLatencyNanos.record(latencyNanos);
+        operationMetrics.elementsPerPage.record(elementCount);
+    }
+
+    @Override
+    public void pageFailed(PaginationOperation paginationOperation, Throwable throwable) {
+        getOperationMetrics(paginationOperation).errorCount.increment();
+    }
+
+    @Override
+    public void pageRetried(PaginationOperation paginationOperation, Throwable throwable, boolean throttled, long delayNanos) {
+        OperationMetrics operationMetrics = getOperationMetrics(paginationOperation);
+        operationMetrics.retryCount.increment();
+        operationMetrics.retryDelayNanos.record(delayNanos);
+    }
+
+    @Override
+    public void streamCompleted(PaginationOperation paginationOperation, int pageCount, int retryCount, int throttleCount) {
+        OperationMetrics operationMetrics = getOperationMetrics(paginationOperation);
+        operationMetrics.pagesPerStream.record(pageCount);
+        operationMetrics.retriesPerStream.record(retryCount);
+        operationMetrics.throttlesPerStream.record(throttleCount);
+    }
+
+    @Override
+    public void reflectionLookupCompleted(PaginationOperation paginationOperation, long lookupNanos) {
+        getOperationMetrics(paginationOperation).reflectionLookupNanos.record(lookupNanos);
+    }
+
+    public Set<PaginationOperation> getPaginationOperations() {
+        return operationMetricsMap.keySet();
+    }
+
+    public PaginationHistogram getPageLatencyNanos(PaginationOperation paginationOperation) {
+        return getOperationMetrics(paginationOperation).pageLatencyNanos;
+    }
+
+    public PaginationHistogram getElementsPerPage(PaginationOperation paginationOperation) {
+        return getOperationMetrics(paginationOperation).elementsPerPage;
+    }
+
+    public PaginationHistogram getPagesPerStream(PaginationOperation paginationOperation) {
+        return getOperationMetrics(paginationOperation).pagesPerStream;
+    }
+
+    public PaginationHistogram getReflectionLookupNanos(PaginationOperation paginationOperation) {
+        return getOperationMetrics(paginationOperation).reflectionLookupNanos;
+    }
+
+    public PaginationHistogram getRetryDelayNanos(PaginationOperation paginationOperation) {
+        return getOperationMetrics(paginationOperation).retryDelayNanos;
+    }
+
+    public PaginationHistogram getRetriesPerStream(PaginationOperation paginationOperation) {
+        return getOperationMetrics(paginationOperation).retriesPerStream;
+    }
+
+    public PaginationHistogram getThrottlesPerStream(PaginationOperation paginationOperation) {
+        return getOperationMetrics(paginationOperation).throttlesPerStream;
+    }
+
+    public long getErrorCount(PaginationOperation paginationOperation) {
+        return getOperationMetrics(paginationOperation).errorCount.sum();
+    }
+
+    public long getRetryCount(PaginationOperation paginationOperation) {
+        return getOperationMetrics(paginationOperation).retryCount.sum();
+    }
+
+    public void clear() {
+        operationMetricsMap.clear();
+    }
+
+    private OperationMetrics getOperationMetrics(PaginationOperation paginationOperation) {
+        return operationMetricsMap.computeIfAbsent(paginationOperation, key -> new OperationMetrics());
+    }
+
+    private static class OperationMetrics {
+        private final PaginationHistogram pageLatencyNanos = new PaginationHistogram();
+        private final PaginationHistogram elementsPerPage = new PaginationHistogram();
+        private final PaginationHistogram pagesPerStream = new PaginationHistogram();
+        private final PaginationHistogram reflectionLookupNanos = new PaginationHistogram();
+        private final PaginationHistogram retryDelayNanos = new PaginationHistogram();
+        private final PaginationHistogram retriesPerStream = new PaginationHistogram();
+        private final PaginationHistogram throttlesPerStream = new PaginationHistogram();
+        private final LongAdder errorCount = new LongAdder();
+        private final LongAdder retryCount = new LongAdder();
+    }
+}
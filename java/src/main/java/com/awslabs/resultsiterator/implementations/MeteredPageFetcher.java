@@ -0,0 +1,40 @@
+package com.awslabs.resultsiterator.implementations;
+
+import com.awslabs.resultsiterator.data.PaginationOperation;
+import com.awslabs.resultsiterator.interfaces.PaginationMetricsListener;
+
+import java.util.function.Function;
+
+/**
+ * Counts the pages fetched for a stream and reports the total, along with the retries and throttles seen by the
+ * stream's page retrier, once the last page has been fetched. This reports the same totals as MeteredPageIterator for
+ * iterators that fetch pages themselves instead of handing them to a PageSpliterator.
+ */
+public class MeteredPageFetcher<R, T> implements Function<R, FetchedPage<R, T>> {
+    private final Function<R, FetchedPage<R, T>> pageFetcher;
+    private final PaginationOperation paginationOperation;
+    private final PaginationMetricsListener paginationMetricsListener;
+    private final PageRetrier pageRetrier;
+    private int pageCount = 0;
+    private boolean reported = false;
+
+    public MeteredPageFetcher(Function<R, FetchedPage<R, T>> pageFetcher, PaginationOperation paginationOperation, PaginationMetricsListener paginationMetricsListener, PageRetrier pageRetrier) {
+        this.pageFetcher = pageFetcher;
+        this.paginationOperation = paginationOperation;
+        this.paginationMetricsListener = paginationMetricsListener;
+        this.pageRetrier = pageRetrier;
+    }
+
+    @Override
+    public FetchedPage<R, T> apply(R request) {
+        FetchedPage<R, T> fetchedPage = pageFetcher.apply(request);
+        pageCount++;
+
+        if (!fetchedPage.getNextRequest().isPresent() && !reported) {
+            reported = true;
+            paginationMetricsListener.streamCompleted(paginationOperation, pageCount, pageRetrier.getRetryCount(), pageRetrier.getThrottleCount());
+        }
+
+        return fetchedPage;
+    }
+}
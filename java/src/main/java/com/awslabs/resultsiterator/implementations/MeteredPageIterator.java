@@ -0,0 +1,47 @@
+package com.awslabs.resultsiterator.implementations;
+
+import com.awslabs.resultsiterator.data.PaginationOperation;
+import com.awslabs.resultsiterator.interfaces.PaginationMetricsListener;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Counts the pages handed out by a page iterator and reports the total, along with the retries and throttles seen by
+ * the stream's page retrier, once the last page has been returned
+ */
+public class MeteredPageIterator<T> implements Iterator<List<T>> {
+    private final Iterator<List<T>> pageIterator;
+    private final PaginationOperation paginationOperation;
+    private final PaginationMetricsListener paginationMetricsListener;
+    private final PageRetrier pageRetrier;
+    private int pageCount = 0;
+    private boolean reported = false;
+
+    public MeteredPageIterator(Iterator<List<T>> pageIterator, PaginationOperation paginationOperation, PaginationMetricsListener paginationMetricsListener, PageRetrier pageRetrier) {
+        this.pageIterator = pageIterator;
+        this.paginationOperation = paginationOperation;
+        this.paginationMetricsListener = paginationMetricsListener;
+        this.pageRetrier = pageRetrier;
+    }
+
+    @Override
+    public boolean hasNext() {
+        boolean hasNext = pageIterator.hasNext();
+
+        if (!hasNext && !reported) {
+            reported = true;
+            paginationMetricsListener.streamCompleted(paginationOperation, pageCount, pageRetrier.getRetryCount(), pageRetrier.getThrottleCount());
+        }
+
+        return hasNext;
+    }
+
+    @Override
+    public List<T> next() {
+        List<T> page = pageIterator.next();
+        pageCount++;
+
+        return page;
+    }
+}
@@ -0,0 +1,32 @@
+package com.awslabs.resultsiterator.implementations;
+
+import com.awslabs.resultsiterator.data.PaginationOperation;
+import com.awslabs.resultsiterator.interfaces.PaginationMetricsListener;
+
+import javax.inject.Inject;
+
+public class NoOpPaginationMetricsListener implements PaginationMetricsListener {
+    @Inject
+    public NoOpPaginationMetricsListener() {
+    }
+
+    @Override
+    public void pageFetched(PaginationOperation paginationOperation, long latencyNanos, int elementCount) {
+    }
+
+    @Override
+    public void pageFailed(PaginationOperation paginationOperation, Throwable throwable) {
+    }
+
+    @Override
+    public void pageRetried(PaginationOperation paginationOperation, Throwable throwable, boolean throttled, long delayNanos) {
+    }
+
+    @Override
+    public void streamCompleted(PaginationOperation paginationOperation, int pageCount, int retryCount, int throttleCount) {
+    }
+
+    @Override
+    public void reflectionLookupCompleted(PaginationOperation paginationOperation, long lookupNanos) {
+    }
+}
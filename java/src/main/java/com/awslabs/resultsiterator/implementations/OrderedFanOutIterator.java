@@ -0,0 +1,120 @@
+package com.awslabs.resultsiterator.implementations;
+
+import com.awslabs.resultsiterator.data.FanOutPolicy;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Applies a function to each input on the executor in the fan out policy. No more than the policy's number of permits
+ * are in flight at once and results are returned in input order, so a slow call holds back the results after it
+ * rather than reordering them.
+ *
+ * Cancelling skips the calls that haven't started and waits for the ones that are running, so nothing the function
+ * does is still happening once a failure or an early close reaches the caller.
+ */
+public class OrderedFanOutIterator<T, R> implements Iterator<R> {
+    private final Iterator<T> inputIterator;
+    private final Function<T, R> function;
+    private final FanOutPolicy fanOutPolicy;
+    private final Deque<CompletableFuture<R>> pendingResults = new ArrayDeque<>();
+    // Completed when each call has finished or has been skipped, these outlive the pending results after a cancel
+    private final Deque<CompletableFuture<Void>> unfinishedCalls = new ArrayDeque<>();
+
+    public OrderedFanOutIterator(Iterator<T> inputIterator, Function<T, R> function, FanOutPolicy fanOutPolicy) {
+        this.inputIterator = inputIterator;
+        this.function = function;
+        this.fanOutPolicy = fanOutPolicy;
+    }
+
+    public static <T, R> Stream<R> stream(Stream<T> inputStream, Function<T, R> function, FanOutPolicy fanOutPolicy) {
+        OrderedFanOutIterator<T, R> orderedFanOutIterator = new OrderedFanOutIterator<>(inputStream.iterator(), function, fanOutPolicy);
+
+        // The results may contain NULL values if the function returns them and can not be run in parallel
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(orderedFanOutIterator, Spliterator.ORDERED), false)
+                // Stop any outstanding calls if the stream is closed early
+                .onClose(orderedFanOutIterator::cancel)
+                .onClose(inputStream::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        fillPendingResults();
+
+        return !pendingResults.isEmpty();
+    }
+
+    @Override
+    public R next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        R result = join(pendingResults.removeFirst());
+
+        // Start another call now that a permit is free
+        fillPendingResults();
+
+        return result;
+    }
+
+    public void cancel() {
+        pendingResults.forEach(pendingResult -> pendingResult.cancel(false));
+        pendingResults.clear();
+
+        // Cancelling a future doesn't interrupt its call, wait for the running calls and ignore how they end
+        unfinishedCalls.forEach(CompletableFuture::join);
+        unfinishedCalls.clear();
+    }
+
+    private void fillPendingResults() {
+        unfinishedCalls.removeIf(CompletableFuture::isDone);
+
+        // NOTE: Inputs are pulled on the caller's thread so the input iterator never needs to be thread safe
+        while ((pendingResults.size() < fanOutPolicy.getPermits()) && inputIterator.hasNext()) {
+            T input = inputIterator.next();
+            CompletableFuture<R> pendingResult = new CompletableFuture<>();
+            CompletableFuture<Void> unfinishedCall = new CompletableFuture<>();
+
+            fanOutPolicy.getExecutor().execute(() -> {
+                try {
+                    // Calls that were cancelled before they started are skipped
+                    if (!pendingResult.isDone()) {
+                        pendingResult.complete(function.apply(input));
+                    }
+                } catch (Throwable throwable) {
+                    pendingResult.completeExceptionally(throwable);
+                } finally {
+                    unfinishedCall.complete(null);
+                }
+            });
+
+            pendingResults.addLast(pendingResult);
+            unfinishedCalls.addLast(unfinishedCall);
+        }
+    }
+
+    private R join(CompletableFuture<R> pendingResult) {
+        try {
+            return pendingResult.join();
+        } catch (CompletionException e) {
+            // Throw the original exception so callers see the same exceptions they would without fanning out
+            cancel();
+
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.awslabs.resultsiterator.implementations;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Fetches each page on the calling thread when it is requested
+ */
+public class PageIterator<R, T> implements Iterator<List<T>> {
+    private final Supplier<R> initialRequestSupplier;
+    private final Function<R, FetchedPage<R, T>> pageFetcher;
+    private boolean started = false;
+    private Optional<R> nextRequest = Optional.empty();
+
+    public PageIterator(Supplier<R> initialRequestSupplier, Function<R, FetchedPage<R, T>> pageFetcher) {
+        this.initialRequestSupplier = initialRequestSupplier;
+        this.pageFetcher = pageFetcher;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !started || nextRequest.isPresent();
+    }
+
+    @Override
+    public List<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        R request;
+
+        if (!started) {
+            // First time around configure the request
+            request = initialRequestSupplier.get();
+
+            // The setup is complete, don't do it again
+            started = true;
+        } else {
+            request = nextRequest.get();
+        }
+
+        FetchedPage<R, T> fetchedPage = pageFetcher.apply(request);
+        nextRequest = fetchedPage.getNextRequest();
+
+        return fetchedPage.getItems();
+    }
+}
@@ -0,0 +1,99 @@
+package com.awslabs.resultsiterator.implementations;
+
+import com.awslabs.resultsiterator.data.PageRetryPolicy;
+import com.awslabs.resultsiterator.data.PaginationOperation;
+import com.awslabs.resultsiterator.interfaces.PaginationMetricsListener;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Retries the request for a single page according to a PageRetryPolicy. Each stream gets its own instance so the
+ * retry and throttle counts can be reported when the stream completes. Pages may be fetched on several threads when
+ * prefetching so the counts are atomic.
+ */
+public class PageRetrier {
+    private final PageRetryPolicy pageRetryPolicy;
+    private final Predicate<RuntimeException> retryable;
+    private final Predicate<RuntimeException> throttling;
+    private final PaginationOperation paginationOperation;
+    private final PaginationMetricsListener paginationMetricsListener;
+    private final AtomicInteger retryCount = new AtomicInteger();
+    private final AtomicInteger throttleCount = new AtomicInteger();
+
+    public PageRetrier(PageRetryPolicy pageRetryPolicy, Predicate<RuntimeException> retryable, Predicate<RuntimeException> throttling, PaginationOperation paginationOperation, PaginationMetricsListener paginationMetricsListener) {
+        this.pageRetryPolicy = pageRetryPolicy;
+        this.retryable = retryable;
+        this.throttling = throttling;
+        this.paginationOperation = paginationOperation;
+        this.paginationMetricsListener = paginationMetricsListener;
+    }
+
+    /**
+     * Calls the supplier until it succeeds, throws an exception that can't be retried, or the policy gives up. The
+     * supplier must send the same request (and therefore the same page token) every time it is called.
+     */
+    public <V> V call(Supplier<V> supplier) {
+        long startNanos = System.nanoTime();
+        long maxElapsedNanos = pageRetryPolicy.getMaxElapsedTime().toNanos();
+        int attempt = 1;
+
+        while (true) {
+            try {
+                return supplier.get();
+            } catch (RuntimeException e) {
+                boolean throttled = throttling.test(e);
+
+                if (throttled) {
+                    throttleCount.incrementAndGet();
+                }
+
+                if ((attempt >= pageRetryPolicy.getMaxAttempts()) || (!throttled && !retryable.test(e))) {
+                    throw e;
+                }
+
+                long delayNanos = getDelayNanos(attempt);
+
+                if (System.nanoTime() - startNanos + delayNanos > maxElapsedNanos) {
+                    // Waiting would go past the maximum elapsed time, give up now instead
+                    throw e;
+                }
+
+                retryCount.incrementAndGet();
+                paginationMetricsListener.pageRetried(paginationOperation, e, throttled, delayNanos);
+                sleep(delayNanos, e);
+                attempt++;
+            }
+        }
+    }
+
+    public int getRetryCount() {
+        return retryCount.get();
+    }
+
+    public int getThrottleCount() {
+        return throttleCount.get();
+    }
+
+    private long getDelayNanos(int attempt) {
+        // Limit the shift so the exponential delay can't overflow
+        long exponentialNanos = pageRetryPolicy.getBaseDelay().toNanos() << Math.min(attempt - 1, 30);
+        long maxDelayNanos = pageRetryPolicy.getMaxDelay().toNanos();
+        long limitNanos = (exponentialNanos < 0) ? maxDelayNanos : Math.min(exponentialNanos, maxDelayNanos);
+
+        return ThreadLocalRandom.current().nextLong(limitNanos + 1);
+    }
+
+    private void sleep(long delayNanos, RuntimeException cause) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(delayNanos);
+        } catch (InterruptedException e) {
+            // Stop retrying and report the original failure
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
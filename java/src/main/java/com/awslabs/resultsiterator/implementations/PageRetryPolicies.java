@@ -0,0 +1,30 @@
+package com.awslabs.resultsiterator.implementations;
+
+import com.awslabs.resultsiterator.data.ImmutablePageRetryPolicy;
+import com.awslabs.resultsiterator.data.PageRetryPolicy;
+
+/**
+ * Holds the retry policy that results iterators use for each page. The helpers create their iterators directly so this
+ * is how those iterators pick up a policy. Subclasses of the iterators can override this with getPageRetryPolicy().
+ *
+ * Page retries are off by default since the SDK clients already retry each request. Every page attempt goes through
+ * the client's own retries so the number of HTTP requests for a page is the product of the two, e.g. three page
+ * attempts with the v2 SDK's default of three retries (four attempts) can send twelve requests.
+ */
+public class PageRetryPolicies {
+    // One attempt per page, only the SDK client's retries apply
+    public static final PageRetryPolicy NO_PAGE_RETRIES = ImmutablePageRetryPolicy.builder().maxAttempts(1).build();
+
+    private static volatile PageRetryPolicy defaultPageRetryPolicy = NO_PAGE_RETRIES;
+
+    private PageRetryPolicies() {
+    }
+
+    public static PageRetryPolicy getDefault() {
+        return defaultPageRetryPolicy;
+    }
+
+    public static void setDefault(PageRetryPolicy pageRetryPolicy) {
+        defaultPageRetryPolicy = pageRetryPolicy;
+    }
+}
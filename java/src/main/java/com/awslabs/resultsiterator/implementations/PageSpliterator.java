@@ -0,0 +1,82 @@
+package com.awslabs.resultsiterator.implementations;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Hands out the elements of each page in order. When a parallel stream splits this spliterator it receives the rest of
+ * the current page, or the next page if the current page is exhausted, as a sized batch that can be processed by another
+ * worker while this spliterator continues to paginate.
+ */
+public class PageSpliterator<T> implements Spliterator<T> {
+    private final Iterator<List<T>> pageIterator;
+    private final int characteristics;
+    // NOTE: Elements are handed out with a cursor over the current page so each page can be garbage collected once it has been consumed
+    private List<T> currentPage = Collections.emptyList();
+    private int currentIndex = 0;
+
+    public PageSpliterator(Iterator<List<T>> pageIterator, boolean ordered) {
+        this.pageIterator = pageIterator;
+        // The total size is never known ahead of time and the results never contain NULL elements
+        this.characteristics = Spliterator.NONNULL | (ordered ? Spliterator.ORDERED : 0);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (!fillCurrentPage()) {
+            return false;
+        }
+
+        action.accept(currentPage.get(currentIndex++));
+
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        while (fillCurrentPage()) {
+            while (currentIndex < currentPage.size()) {
+                action.accept(currentPage.get(currentIndex++));
+            }
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (!fillCurrentPage()) {
+            // Nothing left to hand off
+            return null;
+        }
+
+        // Hand off the rest of the current page, it is always the prefix of the remaining elements
+        List<T> batch = currentPage.subList(currentIndex, currentPage.size());
+        currentPage = Collections.emptyList();
+        currentIndex = 0;
+
+        return Spliterators.spliterator(batch, characteristics | Spliterator.SIZED | Spliterator.SUBSIZED);
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+
+    private boolean fillCurrentPage() {
+        while ((currentIndex >= currentPage.size()) && pageIterator.hasNext()) {
+            // Current page is exhausted but there are more pages, attempt a request
+            List<T> nextPage = pageIterator.next();
+
+            // Elements are read by index so make sure that is cheap
+            currentPage = (nextPage instanceof RandomAccess) ? nextPage : new ArrayList<>(nextPage);
+            currentIndex = 0;
+        }
+
+        // If the current page is exhausted and there are no more pages there are no more elements
+        return currentIndex < currentPage.size();
+    }
+}
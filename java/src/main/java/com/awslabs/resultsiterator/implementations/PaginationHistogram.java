@@ -0,0 +1,73 @@
+package com.awslabs.resultsiterator.implementations;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock free histogram with power of two buckets. Each value is counted in the smallest bucket whose upper bound is
+ * greater than or equal to it so the buckets have a relative error of at most a factor of two.
+ */
+public class PaginationHistogram {
+    private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long value) {
+        long nonNegativeValue = Math.max(value, 0);
+
+        buckets.incrementAndGet(getBucketIndex(nonNegativeValue));
+        count.increment();
+        sum.add(nonNegativeValue);
+        max.accumulate(nonNegativeValue);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the non-empty buckets keyed by their inclusive upper bound
+     */
+    public SortedMap<Long, Long> getBuckets() {
+        SortedMap<Long, Long> result = new TreeMap<>();
+
+        for (int loop = 0; loop < buckets.length(); loop++) {
+            long bucketCount = buckets.get(loop);
+
+            if (bucketCount != 0) {
+                result.put(getUpperBound(loop), bucketCount);
+            }
+        }
+
+        return result;
+    }
+
+    private int getBucketIndex(long value) {
+        if (value <= 1) {
+            return 0;
+        }
+
+        // The number of bits needed to hold value - 1 is the exponent of the next power of two
+        return Math.min(Long.SIZE - Long.numberOfLeadingZeros(value - 1), Long.SIZE - 1);
+    }
+
+    private long getUpperBound(int bucketIndex) {
+        if (bucketIndex == Long.SIZE - 1) {
+            return Long.MAX_VALUE;
+        }
+
+        return 1L << bucketIndex;
+    }
+}
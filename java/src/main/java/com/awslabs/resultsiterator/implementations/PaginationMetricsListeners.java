@@ -0,0 +1,22 @@
+package com.awslabs.resultsiterator.implementations;
+
+import com.awslabs.resultsiterator.interfaces.PaginationMetricsListener;
+
+/**
+ * Holds the listener that results iterators report to. The helpers create their iterators directly so this is how
+ * those iterators pick up a listener. Subclasses of the iterators can override this with getPaginationMetricsListener().
+ */
+public class PaginationMetricsListeners {
+    private static volatile PaginationMetricsListener defaultPaginationMetricsListener = new NoOpPaginationMetricsListener();
+
+    private PaginationMetricsListeners() {
+    }
+
+    public static PaginationMetricsListener getDefault() {
+        return defaultPaginationMetricsListener;
+    }
+
+    public static void setDefault(PaginationMetricsListener paginationMetricsListener) {
+        defaultPaginationMetricsListener = paginationMetricsListener;
+    }
+}
@@ -0,0 +1,110 @@
+package com.awslabs.resultsiterator.implementations;
+
+import com.awslabs.resultsiterator.data.PrefetchPolicy;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Fetches pages on the executor in the prefetch policy while the caller consumes the current page. Each fetch is
+ * chained to the one before it since it needs its next token. No more than the look ahead depth of pages are ever
+ * requested ahead of the caller so an abandoned iterator stops fetching on its own.
+ */
+public class PrefetchingPageIterator<R, T> implements Iterator<List<T>> {
+    private final Supplier<R> initialRequestSupplier;
+    private final Function<R, FetchedPage<R, T>> pageFetcher;
+    private final PrefetchPolicy prefetchPolicy;
+    // NOTE: An empty optional marks the end of the results
+    private final Deque<CompletableFuture<Optional<FetchedPage<R, T>>>> pendingPages = new ArrayDeque<>();
+    private CompletableFuture<Optional<FetchedPage<R, T>>> lastPendingPage = null;
+    private boolean finished = false;
+
+    public PrefetchingPageIterator(Supplier<R> initialRequestSupplier, Function<R, FetchedPage<R, T>> pageFetcher, PrefetchPolicy prefetchPolicy) {
+        this.initialRequestSupplier = initialRequestSupplier;
+        this.pageFetcher = pageFetcher;
+        this.prefetchPolicy = prefetchPolicy;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (finished) {
+            return false;
+        }
+
+        fillPendingPages();
+
+        if (pendingPages.isEmpty() || !join(pendingPages.peekFirst()).isPresent()) {
+            // The last page has already been returned
+            finished = true;
+            cancel();
+        }
+
+        return !finished;
+    }
+
+    @Override
+    public List<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        FetchedPage<R, T> fetchedPage = join(pendingPages.removeFirst()).get();
+
+        // Request another page now that there is room for it
+        fillPendingPages();
+
+        return fetchedPage.getItems();
+    }
+
+    public void cancel() {
+        pendingPages.forEach(pendingPage -> pendingPage.cancel(false));
+        pendingPages.clear();
+    }
+
+    private void fillPendingPages() {
+        // NOTE: The page the caller is consuming has already been removed from the queue so it does not count towards the look ahead depth
+        while (pendingPages.size() < prefetchPolicy.getLookAheadDepth()) {
+            if ((lastPendingPage != null) && lastPendingPage.isCompletedExceptionally()) {
+                // The error is thrown when the caller reaches this page
+                return;
+            }
+
+            if ((lastPendingPage != null) && lastPendingPage.isDone() && !lastPendingPage.join().isPresent()) {
+                // There are no more pages to request
+                return;
+            }
+
+            if (lastPendingPage == null) {
+                lastPendingPage = CompletableFuture.supplyAsync(() -> Optional.of(pageFetcher.apply(initialRequestSupplier.get())), prefetchPolicy.getExecutor());
+            } else {
+                lastPendingPage = lastPendingPage.thenApplyAsync(this::fetchNextPage, prefetchPolicy.getExecutor());
+            }
+
+            pendingPages.addLast(lastPendingPage);
+        }
+    }
+
+    private Optional<FetchedPage<R, T>> fetchNextPage(Optional<FetchedPage<R, T>> optionalPreviousPage) {
+        return optionalPreviousPage
+                .flatMap(FetchedPage::getNextRequest)
+                .map(pageFetcher);
+    }
+
+    private Optional<FetchedPage<R, T>> join(CompletableFuture<Optional<FetchedPage<R, T>>> pendingPage) {
+        try {
+            return pendingPage.join();
+        } catch (CompletionException e) {
+            // Throw the original exception so callers see the same exceptions they would without prefetching
+            cancel();
+
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.awslabs.resultsiterator.implementations;
+
+import com.awslabs.resultsiterator.data.FileIdentity;
+import com.awslabs.resultsiterator.data.SslContextKey;
+import io.vavr.control.Try;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import java.nio.file.*;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Caches fully initialized SSLContexts by the identity of the files they were built from. A rotated file has a new
+ * size or modification time so it never matches an old entry. The directories holding the files are also watched so
+ * that entries for rotated files are evicted instead of lingering until the JVM exits.
+ */
+public class SslContextCache {
+    private final Logger log = LoggerFactory.getLogger(SslContextCache.class);
+    private final Map<SslContextKey, SSLContext> sslContexts = new ConcurrentHashMap<>();
+    private final Set<Path> watchedDirectories = ConcurrentHashMap.newKeySet();
+    // NOTE: This is initialized to null so the watcher thread is only started when something is cached
+    private WatchService watchService = null;
+
+    public SSLContext get(SslContextKey sslContextKey, Function<SslContextKey, SSLContext> sslContextFunction) {
+        SSLContext sslContext = sslContexts.computeIfAbsent(sslContextKey, sslContextFunction);
+
+        Stream.of(sslContextKey.getCaCertFile(), sslContextKey.getClientCertFile(), sslContextKey.getClientPrivateKeyFile())
+                .map(FileIdentity::getPath)
+                .map(Path::getParent)
+                .forEach(this::watch);
+
+        return sslContext;
+    }
+
+    // Removes every entry built from a file in this directory, rotation tools often swap symlinks or rename files so
+    //   the names in the watch events don't always match the names in the keys
+    public void invalidateDirectory(Path directory) {
+        Path absoluteDirectory = directory.toAbsolutePath().normalize();
+
+        sslContexts.keySet().removeIf(sslContextKey -> sslContextKey.isInDirectory(absoluteDirectory));
+    }
+
+    public int size() {
+        return sslContexts.size();
+    }
+
+    private void watch(Path directory) {
+        if (watchedDirectories.contains(directory)) {
+            return;
+        }
+
+        WatchService currentWatchService = getWatchService();
+
+        if (currentWatchService == null) {
+            // Watching is not supported, entries for rotated files stay cached but are never used
+            return;
+        }
+
+        if (!watchedDirectories.add(directory)) {
+            // Another thread registered this directory
+            return;
+        }
+
+        Try.run(() -> directory.register(currentWatchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE))
+                .onFailure(throwable -> log.warn("Unable to watch " + directory + " for certificate rotation", throwable));
+    }
+
+    private synchronized WatchService getWatchService() {
+        if (watchService != null) {
+            return watchService;
+        }
+
+        watchService = Try.of(() -> FileSystems.getDefault().newWatchService())
+                .onFailure(throwable -> log.warn("Unable to watch for certificate rotation", throwable))
+                .getOrNull();
+
+        if (watchService != null) {
+            Thread watcherThread = new Thread(() -> processEvents(watchService), "ssl-context-cache-watcher");
+            // Never keep the JVM running just to watch files
+            watcherThread.setDaemon(true);
+            watcherThread.start();
+        }
+
+        return watchService;
+    }
+
+    private void processEvents(WatchService watchService) {
+        while (true) {
+            WatchKey watchKey;
+
+            try {
+                watchKey = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            // Drain the events, the directory is invalidated as a whole
+            watchKey.pollEvents();
+            invalidateDirectory((Path) watchKey.watchable());
+
+            if (!watchKey.reset()) {
+                // The directory is gone, watch it again if something is cached from it later
+                watchedDirectories.remove((Path) watchKey.watchable());
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.awslabs.resultsiterator.interfaces;
+
+import org.reactivestreams.Publisher;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncResultsIterator<T> {
+    // Requests pages only when the subscriber has outstanding demand
+    Publisher<T> publisher();
+
+    CompletableFuture<List<T>> list();
+}
@@ -0,0 +1,14 @@
+package com.awslabs.resultsiterator.interfaces;
+
+import com.awslabs.resultsiterator.data.PaginationCheckpoint;
+
+import java.util.Optional;
+
+public interface CheckpointStore {
+    Optional<PaginationCheckpoint> load(String checkpointId);
+
+    // Replaces any existing checkpoint with the same ID
+    void save(PaginationCheckpoint paginationCheckpoint);
+
+    void delete(String checkpointId);
+}
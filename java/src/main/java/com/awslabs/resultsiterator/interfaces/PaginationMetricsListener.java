@@ -0,0 +1,24 @@
+package com.awslabs.resultsiterator.interfaces;
+
+import com.awslabs.resultsiterator.data.PaginationOperation;
+
+/**
+ * Receives timing and count information from the results iterators. Implementations are called on whichever thread
+ * fetched the page so they must be thread safe and should return quickly.
+ */
+public interface PaginationMetricsListener {
+    // Called once for each page that was fetched successfully, the latency only covers the call to the service
+    void pageFetched(PaginationOperation paginationOperation, long latencyNanos, int elementCount);
+
+    // Called when fetching a page throws an exception
+    void pageFailed(PaginationOperation paginationOperation, Throwable throwable);
+
+    // Called before a page request that was throttled or failed with a transient error is retried after the delay
+    void pageRetried(PaginationOperation paginationOperation, Throwable throwable, boolean throttled, long delayNanos);
+
+    // Called when a stream has returned its last page, streams that are abandoned early are not reported
+    void streamCompleted(PaginationOperation paginationOperation, int pageCount, int retryCount, int throttleCount);
+
+    // Called when the methods used to paginate an operation are looked up with reflection instead of coming from the cache
+    void reflectionLookupCompleted(PaginationOperation paginationOperation, long lookupNanos);
+}
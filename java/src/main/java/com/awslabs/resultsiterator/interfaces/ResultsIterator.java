@@ -1,7 +1,23 @@
 package com.awslabs.resultsiterator.interfaces;
 
+import com.awslabs.resultsiterator.data.CheckpointPolicy;
+import com.awslabs.resultsiterator.data.PrefetchPolicy;
+
 import java.util.stream.Stream;
 
 public interface ResultsIterator<T> {
+    // Streams are ordered and can be made parallel, call unordered() on them if the order of the results does not matter
     Stream<T> stream();
+
+    // Fetches upcoming pages in the background while the current page is being consumed, implementations that can't
+    //   prefetch return the same stream as stream()
+    default Stream<T> stream(PrefetchPolicy prefetchPolicy) {
+        return stream();
+    }
+
+    // Saves the position in a checkpoint store and resumes from the last checkpoint, this stream is always sequential.
+    //   Implementations that can't resume from a pagination token throw an UnsupportedOperationException.
+    default Stream<T> stream(CheckpointPolicy checkpointPolicy) {
+        throw new UnsupportedOperationException(String.join(" ", getClass().getName(), "does not support checkpoints"));
+    }
 }
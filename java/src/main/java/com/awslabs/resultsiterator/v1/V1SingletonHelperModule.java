@@ -0,0 +1,121 @@
+package com.awslabs.resultsiterator.v1;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.auth.AWSCredentialsProvider;
+import com.amazonaws.auth.DefaultAWSCredentialsProviderChain;
+import com.amazonaws.services.ec2.AmazonEC2Client;
+import com.amazonaws.services.ec2.AmazonEC2ClientBuilder;
+import com.amazonaws.services.greengrass.AWSGreengrassClient;
+import com.amazonaws.services.greengrass.AWSGreengrassClientBuilder;
+import com.amazonaws.services.identitymanagement.AmazonIdentityManagementClient;
+import com.amazonaws.services.identitymanagement.AmazonIdentityManagementClientBuilder;
+import com.amazonaws.services.iot.AWSIotClient;
+import com.amazonaws.services.iot.AWSIotClientBuilder;
+import com.amazonaws.services.iotdata.AWSIotDataClient;
+import com.amazonaws.services.iotdata.AWSIotDataClientBuilder;
+import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.awslabs.resultsiterator.data.ImmutableV1ClientConfigurationSettings;
+import com.awslabs.resultsiterator.data.V1ClientConfigurationSettings;
+import com.awslabs.resultsiterator.v1.implementations.V1ClientLifecycle;
+import dagger.Module;
+import dagger.Provides;
+
+import javax.inject.Singleton;
+
+/**
+ * Provides the same bindings as V1HelperModule but each client is created once per component with a shared, tunable
+ * ClientConfiguration. V1ClientLifecycle shuts the clients down when the JVM shuts down. This module can only be used
+ * in components annotated with @Singleton.
+ */
+@Module(includes = {V1CommonModule.class})
+public class V1SingletonHelperModule {
+    private final V1ClientConfigurationSettings v1ClientConfigurationSettings;
+
+    public V1SingletonHelperModule() {
+        this(ImmutableV1ClientConfigurationSettings.builder().build());
+    }
+
+    public V1SingletonHelperModule(V1ClientConfigurationSettings v1ClientConfigurationSettings) {
+        this.v1ClientConfigurationSettings = v1ClientConfigurationSettings;
+    }
+
+    @Provides
+    public AWSCredentialsProvider awsCredentialsProvider() {
+        return DefaultAWSCredentialsProviderChain.getInstance();
+    }
+
+    // NOTE: V1 clients each have their own connection pool, the configuration is shared so every pool is tuned the same way
+    @Provides
+    @Singleton
+    public ClientConfiguration clientConfiguration() {
+        return v1ClientConfigurationSettings.toClientConfiguration();
+    }
+
+    // Builders are not scoped so callers can change them, they all start with the shared configuration
+    @Provides
+    public AmazonEC2ClientBuilder amazonEC2ClientBuilder(AWSCredentialsProvider awsCredentialsProvider, ClientConfiguration clientConfiguration) {
+        return AmazonEC2ClientBuilder.standard().withCredentials(awsCredentialsProvider).withClientConfiguration(clientConfiguration);
+    }
+
+    @Provides
+    @Singleton
+    public AmazonEC2Client amazonEC2Client(AmazonEC2ClientBuilder amazonEC2ClientBuilder, V1ClientLifecycle v1ClientLifecycle) {
+        return v1ClientLifecycle.register((AmazonEC2Client) amazonEC2ClientBuilder.build());
+    }
+
+    @Provides
+    public AWSIotClientBuilder awsIotClientBuilder(AWSCredentialsProvider awsCredentialsProvider, ClientConfiguration clientConfiguration) {
+        return AWSIotClientBuilder.standard().withCredentials(awsCredentialsProvider).withClientConfiguration(clientConfiguration);
+    }
+
+    @Provides
+    @Singleton
+    public AWSIotClient awsIotClient(AWSIotClientBuilder awsIotClientBuilder, V1ClientLifecycle v1ClientLifecycle) {
+        return v1ClientLifecycle.register((AWSIotClient) awsIotClientBuilder.build());
+    }
+
+    @Provides
+    public AmazonS3ClientBuilder amazonS3ClientBuilder(AWSCredentialsProvider awsCredentialsProvider, ClientConfiguration clientConfiguration) {
+        return AmazonS3ClientBuilder.standard().withCredentials(awsCredentialsProvider).withClientConfiguration(clientConfiguration);
+    }
+
+    @Provides
+    @Singleton
+    public AmazonS3Client amazonS3Client(AmazonS3ClientBuilder amazonS3ClientBuilder, V1ClientLifecycle v1ClientLifecycle) {
+        return v1ClientLifecycle.register((AmazonS3Client) amazonS3ClientBuilder.build());
+    }
+
+    @Provides
+    public AWSIotDataClientBuilder awsIotDataClientBuilder(AWSCredentialsProvider awsCredentialsProvider, ClientConfiguration clientConfiguration) {
+        return AWSIotDataClientBuilder.standard().withCredentials(awsCredentialsProvider).withClientConfiguration(clientConfiguration);
+    }
+
+    @Provides
+    @Singleton
+    public AWSIotDataClient awsIotDataClient(AWSIotDataClientBuilder awsIotDataClientBuilder, V1ClientLifecycle v1ClientLifecycle) {
+        return v1ClientLifecycle.register((AWSIotDataClient) awsIotDataClientBuilder.build());
+    }
+
+    @Provides
+    public AmazonIdentityManagementClientBuilder amazonIdentityManagementClientBuilder(AWSCredentialsProvider awsCredentialsProvider, ClientConfiguration clientConfiguration) {
+        return AmazonIdentityManagementClientBuilder.standard().withCredentials(awsCredentialsProvider).withClientConfiguration(clientConfiguration);
+    }
+
+    @Provides
+    @Singleton
+    public AmazonIdentityManagementClient amazonIdentityManagementClient(AmazonIdentityManagementClientBuilder amazonIdentityManagementClientBuilder, V1ClientLifecycle v1ClientLifecycle) {
+        return v1ClientLifecycle.register((AmazonIdentityManagementClient) amazonIdentityManagementClientBuilder.build());
+    }
+
+    @Provides
+    public AWSGreengrassClientBuilder awsGreengrassClientBuilder(AWSCredentialsProvider awsCredentialsProvider, ClientConfiguration clientConfiguration) {
+        return AWSGreengrassClientBuilder.standard().withCredentials(awsCredentialsProvider).withClientConfiguration(clientConfiguration);
+    }
+
+    @Provides
+    @Singleton
+    public AWSGreengrassClient awsGreengrassClient(AWSGreengrassClientBuilder awsGreengrassClientBuilder, V1ClientLifecycle v1ClientLifecycle) {
+        return v1ClientLifecycle.register((AWSGreengrassClient) awsGreengrassClientBuilder.build());
+    }
+}
@@ -0,0 +1,55 @@
+package com.awslabs.resultsiterator.v1.implementations;
+
+import com.amazonaws.AmazonWebServiceClient;
+import io.vavr.control.Try;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tracks the clients created by V1SingletonHelperModule. They are shut down in the reverse of the order they were
+ * created in, either when close() is called or when the JVM shuts down.
+ */
+@Singleton
+public class V1ClientLifecycle implements AutoCloseable {
+    private final Deque<AmazonWebServiceClient> clients = new ConcurrentLinkedDeque<>();
+    private final AtomicBoolean shutdownHookRegistered = new AtomicBoolean(false);
+    private final Thread shutdownHook = new Thread(this::shutdownAll);
+
+    @Inject
+    public V1ClientLifecycle() {
+    }
+
+    public <T extends AmazonWebServiceClient> T register(T client) {
+        if (shutdownHookRegistered.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        }
+
+        clients.addFirst(client);
+
+        return client;
+    }
+
+    @Override
+    public void close() {
+        if (shutdownHookRegistered.get()) {
+            // This fails if the JVM is already shutting down, the hook shuts everything down in that case
+            Try.run(() -> Runtime.getRuntime().removeShutdownHook(shutdownHook));
+        }
+
+        shutdownAll();
+    }
+
+    private void shutdownAll() {
+        AmazonWebServiceClient client;
+
+        while ((client = clients.pollFirst()) != null) {
+            // Keep shutting down the others even if one of them fails
+            Try.run(client::shutdown)
+                    .onFailure(Throwable::printStackTrace);
+        }
+    }
+}
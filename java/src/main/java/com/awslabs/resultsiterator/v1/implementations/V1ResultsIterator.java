@@ -1,14 +1,34 @@
 package com.awslabs.resultsiterator.v1.implementations;
 
+import com.amazonaws.AmazonServiceException;
 import com.amazonaws.AmazonWebServiceClient;
 import com.amazonaws.AmazonWebServiceRequest;
 import com.amazonaws.AmazonWebServiceResult;
+import com.amazonaws.SdkBaseException;
 import com.amazonaws.SdkClientException;
+import com.amazonaws.retry.RetryUtils;
+import com.awslabs.resultsiterator.data.CheckpointPolicy;
+import com.awslabs.resultsiterator.data.PageRetryPolicy;
+import com.awslabs.resultsiterator.data.PaginationOperation;
+import com.awslabs.resultsiterator.data.PrefetchPolicy;
+import com.awslabs.resultsiterator.implementations.CheckpointingIterator;
+import com.awslabs.resultsiterator.implementations.FetchedPage;
+import com.awslabs.resultsiterator.implementations.MeteredPageFetcher;
+import com.awslabs.resultsiterator.implementations.MeteredPageIterator;
+import com.awslabs.resultsiterator.implementations.PageIterator;
+import com.awslabs.resultsiterator.implementations.PageRetrier;
+import com.awslabs.resultsiterator.implementations.PageRetryPolicies;
+import com.awslabs.resultsiterator.implementations.PageSpliterator;
+import com.awslabs.resultsiterator.implementations.PaginationMetricsListeners;
+import com.awslabs.resultsiterator.implementations.PrefetchingPageIterator;
+import com.awslabs.resultsiterator.interfaces.PaginationMetricsListener;
 import com.awslabs.resultsiterator.interfaces.ResultsIterator;
 import com.google.common.reflect.TypeToken;
+import io.vavr.control.Try;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -24,11 +44,11 @@ public class V1ResultsIterator<T> implements ResultsIterator<T> {
     private final List<String> setTokenMethodNames = new ArrayList<>(Arrays.asList("setNextToken", "setMarker", "setNextMarker"));
     private final AmazonWebServiceRequest originalRequest;
     private Optional<Class<? extends AmazonWebServiceResult>> optionalResultClass = Optional.empty();
-    private AmazonWebServiceResult result;
     private Method clientMethodReturningResult;
     private Method clientMethodReturningListT;
     private Method clientGetMethodReturningString;
     private Method clientSetMethodAcceptingString;
+    private PaginationOperation paginationOperation;
 
     public V1ResultsIterator(AmazonWebServiceClient amazonWebServiceClient, Class<? extends AmazonWebServiceRequest> requestClass) {
         this.amazonWebServiceClient = amazonWebServiceClient;
@@ -44,63 +64,98 @@ public class V1ResultsIterator<T> implements ResultsIterator<T> {
 
     @Override
     public Stream<T> stream() {
-        Iterator<T> iterator = new Iterator<T>() {
-            List<T> output = new ArrayList<>();
-            boolean started = false;
-            String nextToken = null;
-            AmazonWebServiceRequest request;
-
-            private void performRequest() {
-                if (!started) {
-                    // First time around configure the request
-                    request = configureRequest();
-
-                    // The setup is complete, don't do it again
-                    started = true;
-                }
+        PageRetrier pageRetrier = getPageRetrier();
 
-                result = queryNextResults(request);
+        return stream(new PageIterator<>(this::configureRequest, request -> fetchPage(pageRetrier, request)), pageRetrier);
+    }
 
-                output.addAll(getResultData());
+    @Override
+    public Stream<T> stream(PrefetchPolicy prefetchPolicy) {
+        PageRetrier pageRetrier = getPageRetrier();
+        PrefetchingPageIterator<AmazonWebServiceRequest, T> prefetchingPageIterator = new PrefetchingPageIterator<>(this::configureRequest, request -> fetchPage(pageRetrier, request), prefetchPolicy);
 
-                nextToken = getNextToken();
+        return stream(prefetchingPageIterator, pageRetrier)
+                // Stop any outstanding requests if the stream is closed early
+                .onClose(prefetchingPageIterator::cancel);
+    }
 
-                if (nextToken == null) {
-                    return;
-                }
+    @Override
+    public Stream<T> stream(CheckpointPolicy checkpointPolicy) {
+        PageRetrier pageRetrier = getPageRetrier();
+        // NOTE: Checkpointed streams can't use a PageSpliterator since its splits hand out pages before they are consumed,
+        //   so the pages are metered as they are fetched instead
+        MeteredPageFetcher<AmazonWebServiceRequest, T> meteredPageFetcher = new MeteredPageFetcher<>(request -> fetchPage(pageRetrier, request), getPaginationOperation(), getPaginationMetricsListener(), pageRetrier);
+        CheckpointingIterator<AmazonWebServiceRequest, T> checkpointingIterator = new CheckpointingIterator<>(this::configureRequest, meteredPageFetcher, this::withNextToken, getRequestFingerprint(), checkpointPolicy);
+
+        return StreamSupport.stream(checkpointingIterator.toSpliterator(), false)
+                // Record the position if the stream is closed early so it can be resumed later
+                .onClose(checkpointingIterator::saveCheckpoint);
+    }
 
-                setNextToken(request, nextToken);
-            }
+    private String getRequestFingerprint() {
+        // The request class is included because some request types don't include their name in toString()
+        return String.join(":", requestClass.getName(), configureRequest().toString());
+    }
 
-            @Override
-            public boolean hasNext() {
-                if (!started) {
-                    // We haven't started, attempt a request
-                    performRequest();
-                }
+    private Stream<T> stream(Iterator<List<T>> pageIterator, PageRetrier pageRetrier) {
+        // This stream does not have a known size and does not contain NULL elements. It is sequential by default but
+        //   splits off fetched pages as batches for other workers if it is made parallel.
+        return StreamSupport.stream(new PageSpliterator<>(new MeteredPageIterator<>(pageIterator, getPaginationOperation(), getPaginationMetricsListener(), pageRetrier), true), false);
+    }
 
-                while ((output.size() == 0) && (nextToken != null)) {
-                    // Output array is empty but the next token is not null, attempt a request
-                    performRequest();
-                }
+    private PageRetrier getPageRetrier() {
+        return new PageRetrier(getPageRetryPolicy(), this::isRetryable, this::isThrottling, getPaginationOperation(), getPaginationMetricsListener());
+    }
 
-                if (output.size() != 0) {
-                    // Output array is not empty, there is at least one more element
-                    return true;
-                }
+    private boolean isThrottling(RuntimeException runtimeException) {
+        return (runtimeException instanceof SdkBaseException) && RetryUtils.isThrottlingException((SdkBaseException) runtimeException);
+    }
 
-                // Output array is empty and the next token is NULL
-                return false;
-            }
+    private boolean isRetryable(RuntimeException runtimeException) {
+        if (runtimeException instanceof AmazonServiceException) {
+            // Server side errors are usually transient
+            return ((AmazonServiceException) runtimeException).getStatusCode() >= 500;
+        }
 
-            @Override
-            public T next() {
-                return output.remove(0);
-            }
-        };
+        // Client side errors are only retried when the request could not be sent or the response could not be read.
+        //   AmazonClientException.isRetryable() is true unless a subclass overrides it so it can't be used here.
+        return (runtimeException instanceof SdkClientException) && (runtimeException.getCause() instanceof IOException);
+    }
+
+    private FetchedPage<AmazonWebServiceRequest, T> fetchPage(PageRetrier pageRetrier, AmazonWebServiceRequest request) {
+        // Look up the client method first so the lookup time is not included in the page latency
+        Method clientMethod = getClientMethodReturningResult();
+
+        long startNanos = System.nanoTime();
+        AmazonWebServiceResult result;
 
-        // This stream does not have a known size, does not contain NULL elements, and can not be run in parallel
-        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false);
+        try {
+            result = queryNextResults(pageRetrier, clientMethod, request);
+        } catch (RuntimeException e) {
+            getPaginationMetricsListener().pageFailed(getPaginationOperation(), e);
+            throw e;
+        }
+
+        long latencyNanos = System.nanoTime() - startNanos;
+
+        List<T> resultData = getResultData(result);
+        getPaginationMetricsListener().pageFetched(getPaginationOperation(), latencyNanos, resultData.size());
+
+        String nextToken = getNextToken(result);
+
+        if (nextToken == null) {
+            return new FetchedPage<>(resultData, Optional.empty());
+        }
+
+        return new FetchedPage<>(resultData, Optional.of(withNextToken(request, nextToken)), Optional.of(nextToken));
+    }
+
+    private AmazonWebServiceRequest withNextToken(AmazonWebServiceRequest request, String nextToken) {
+        // The request is cloned so the token is never changed on a request that is still in use
+        AmazonWebServiceRequest nextRequest = request.clone();
+        setNextToken(nextRequest, nextToken);
+
+        return nextRequest;
     }
 
     private AmazonWebServiceRequest configureRequest() {
@@ -117,25 +172,69 @@ public class V1ResultsIterator<T> implements ResultsIterator<T> {
         }
     }
 
-    private AmazonWebServiceResult queryNextResults(AmazonWebServiceRequest request) {
+    private Method getClientMethodReturningResult() {
         if (clientMethodReturningResult == null) {
             // Look for a public method in the client (AWSIot, etc) that takes a AmazonWebServiceRequest and returns a V.  If zero or more than one exists, fail.
             clientMethodReturningResult = getMethodWithParameterAndReturnType(amazonWebServiceClient.getClass(), requestClass, getResultClass());
         }
 
+        return clientMethodReturningResult;
+    }
+
+    /**
+     * Override this to use a different retry policy than the one in PageRetryPolicies
+     */
+    protected PageRetryPolicy getPageRetryPolicy() {
+        return PageRetryPolicies.getDefault();
+    }
+
+    /**
+     * Override this to report to a different listener than the one in PaginationMetricsListeners
+     */
+    protected PaginationMetricsListener getPaginationMetricsListener() {
+        return PaginationMetricsListeners.getDefault();
+    }
+
+    private PaginationOperation getPaginationOperation() {
+        if (paginationOperation == null) {
+            // Clients that don't follow the SDK naming conventions can't compute their service name
+            String serviceName = Try.of(amazonWebServiceClient::getServiceName)
+                    .getOrElse(amazonWebServiceClient.getClass().getSimpleName());
+            paginationOperation = PaginationOperation.of(serviceName, requestClass);
+        }
+
+        return paginationOperation;
+    }
+
+    private AmazonWebServiceResult queryNextResults(PageRetrier pageRetrier, Method clientMethod, AmazonWebServiceRequest request) {
         try {
-            return (AmazonWebServiceResult) clientMethodReturningResult.invoke(amazonWebServiceClient, request);
+            // Retries send the same request so the page token is reused
+            return pageRetrier.call(() -> invokeClientMethod(clientMethod, request));
+        } catch (SdkClientException e) {
+            if ((e.getMessage() != null) && e.getMessage().contains("Unable to execute HTTP request")) {
+                log.error("Unable to connect to the API.  Do you have an Internet connection?");
+            }
+
+            e.printStackTrace();
+            throw new UnsupportedOperationException(e);
+        } catch (UnsupportedOperationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            throw new UnsupportedOperationException(e);
+        }
+    }
+
+    private AmazonWebServiceResult invokeClientMethod(Method clientMethod, AmazonWebServiceRequest request) {
+        try {
+            return (AmazonWebServiceResult) clientMethod.invoke(amazonWebServiceClient, request);
         } catch (IllegalAccessException e) {
             e.printStackTrace();
             throw new UnsupportedOperationException(e);
         } catch (InvocationTargetException e) {
-            if (e.getTargetException() instanceof SdkClientException) {
-                SdkClientException sdkClientException = (SdkClientException) e.getTargetException();
-
-                if (sdkClientException.getMessage().contains("Unable to execute HTTP request")) {
-                    log.error("Unable to connect to the API.  Do you have an Internet connection?");
-                    return null;
-                }
+            // Unwrap SDK exceptions so they can be checked by the retry policy
+            if (e.getTargetException() instanceof RuntimeException) {
+                throw (RuntimeException) e.getTargetException();
             }
 
             e.printStackTrace();
@@ -161,7 +260,7 @@ public class V1ResultsIterator<T> implements ResultsIterator<T> {
         return optionalResultClass.get();
     }
 
-    private List<T> getResultData() {
+    private List<T> getResultData(AmazonWebServiceResult result) {
         if (clientMethodReturningListT == null) {
             // Look for a public method that takes no arguments and returns a List<T>.  If zero or more than one exists, fail.
             clientMethodReturningListT = getMethodWithParameterAndReturnType(getResultClass(), null, new TypeToken<List<T>>(getClass()) {
@@ -176,7 +275,7 @@ public class V1ResultsIterator<T> implements ResultsIterator<T> {
         }
     }
 
-    private String getNextToken() {
+    private String getNextToken(AmazonWebServiceResult result) {
         if (clientGetMethodReturningString == null) {
             // Look for a public method that takes no arguments and returns a string that matches our list of expected names.  If zero or more than one exists, fail.
             clientGetMethodReturningString = getMethodWithParameterReturnTypeAndNames(getResultClass(), null, String.class, getTokenMethodNames);
@@ -219,6 +318,7 @@ public class V1ResultsIterator<T> implements ResultsIterator<T> {
     }
 
     private Method getMethodWithParameterReturnTypeAndNames(Class clazz, Class parameter, Class returnType, List<String> names) {
+        long startNanos = System.nanoTime();
         Method returnMethod = null;
 
         for (Method method : clazz.getMethods()) {
@@ -261,6 +361,8 @@ public class V1ResultsIterator<T> implements ResultsIterator<T> {
             throw new UnsupportedOperationException("No method found");
         }
 
+        getPaginationMetricsListener().reflectionLookupCompleted(getPaginationOperation(), System.nanoTime() - startNanos);
+
         return returnMethod;
     }
 }
@@ -0,0 +1,21 @@
+package com.awslabs.resultsiterator.v1.implementations;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.services.iot.AWSIotClient;
+import com.amazonaws.services.s3.AmazonS3Client;
+import com.awslabs.resultsiterator.v1.V1SingletonHelperModule;
+import dagger.Component;
+
+import javax.inject.Singleton;
+
+@Singleton
+@Component(modules = {V1SingletonHelperModule.class})
+public interface V1SingletonTestInjector {
+    AWSIotClient awsIotClient();
+
+    AmazonS3Client amazonS3Client();
+
+    ClientConfiguration clientConfiguration();
+
+    V1ClientLifecycle v1ClientLifecycle();
+}
@@ -0,0 +1,84 @@
+package com.awslabs.resultsiterator.v2;
+
+import com.awslabs.iam.helpers.implementations.BasicV2IamHelper;
+import com.awslabs.iam.helpers.interfaces.V2IamHelper;
+import com.awslabs.iot.helpers.implementations.BasicV2GreengrassHelper;
+import com.awslabs.iot.helpers.implementations.BasicV2IotHelper;
+import com.awslabs.iot.helpers.interfaces.V2GreengrassHelper;
+import com.awslabs.iot.helpers.interfaces.V2IotHelper;
+import com.awslabs.lambda.helpers.implementations.BasicV2LambdaHelper;
+import com.awslabs.lambda.helpers.interfaces.V2LambdaHelper;
+import com.awslabs.resultsiterator.SharedModule;
+import com.awslabs.resultsiterator.implementations.BasicSslContextHelper;
+import com.awslabs.resultsiterator.interfaces.SslContextHelper;
+import com.awslabs.resultsiterator.v2.implementations.BasicV2ReflectionHelper;
+import com.awslabs.resultsiterator.v2.implementations.BasicV2SdkErrorHandler;
+import com.awslabs.resultsiterator.v2.implementations.BouncyCastleV2CertificateCredentialsProvider;
+import com.awslabs.resultsiterator.v2.implementations.V2SafeProvider;
+import com.awslabs.resultsiterator.v2.interfaces.V2CertificateCredentialsProvider;
+import com.awslabs.resultsiterator.v2.interfaces.V2ReflectionHelper;
+import com.awslabs.resultsiterator.v2.interfaces.V2SdkErrorHandler;
+import dagger.Module;
+import dagger.Provides;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.regions.providers.AwsRegionProviderChain;
+import software.amazon.awssdk.regions.providers.DefaultAwsRegionProviderChain;
+
+/**
+ * Bindings shared by V2HelperModule and V2SingletonHelperModule. The SDK clients, the credentials provider, and the
+ * helpers that own clients are bound in those modules since only their scope differs.
+ */
+@Module(includes = {SharedModule.class})
+public class V2CommonModule {
+    @Provides
+    public AwsRegionProviderChain awsRegionProviderChain() {
+        return new V2SafeProvider<>(DefaultAwsRegionProviderChain::new).get();
+    }
+
+    @Provides
+    public V2CertificateCredentialsProvider v2CertificateCredentialsProvider(BouncyCastleV2CertificateCredentialsProvider bouncyCastleV2CertificateCredentialsProvider) {
+        return bouncyCastleV2CertificateCredentialsProvider;
+    }
+
+    // Centralized error handling for V2 SDK errors
+    @Provides
+    public V2SdkErrorHandler v2SdkErrorHandler(BasicV2SdkErrorHandler basicV2SdkErrorHandler) {
+        return basicV2SdkErrorHandler;
+    }
+
+    @Provides
+    public AwsCredentials awsCredentials(AwsCredentialsProvider awsCredentialsProvider) {
+        return new V2SafeProvider<>(awsCredentialsProvider::resolveCredentials).get();
+    }
+
+    @Provides
+    public V2IamHelper iamHelper(BasicV2IamHelper basicV2IamHelper) {
+        return basicV2IamHelper;
+    }
+
+    @Provides
+    public V2GreengrassHelper v2GreengrassHelper(BasicV2GreengrassHelper basicV2GreengrassHelper) {
+        return basicV2GreengrassHelper;
+    }
+
+    @Provides
+    public V2LambdaHelper v2LambdaHelper(BasicV2LambdaHelper basicV2LambdaHelper) {
+        return basicV2LambdaHelper;
+    }
+
+    @Provides
+    public V2IotHelper v2IotHelper(BasicV2IotHelper basicV2IotHelper) {
+        return basicV2IotHelper;
+    }
+
+    @Provides
+    public V2ReflectionHelper v2ReflectionHelper(BasicV2ReflectionHelper basicV2ReflectionHelper) {
+        return basicV2ReflectionHelper;
+    }
+
+    @Provides
+    public SslContextHelper sslContextHelper(BasicSslContextHelper basicSslContextHelper) {
+        return basicSslContextHelper;
+    }
+}
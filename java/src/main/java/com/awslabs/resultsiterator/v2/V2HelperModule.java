@@ -1,36 +1,18 @@
 package com.awslabs.resultsiterator.v2;
 
-import com.awslabs.iam.helpers.implementations.BasicV2IamHelper;
-import com.awslabs.iam.helpers.interfaces.V2IamHelper;
-import com.awslabs.iot.helpers.implementations.BasicV2GreengrassHelper;
-import com.awslabs.iot.helpers.implementations.BasicV2IotHelper;
-import com.awslabs.sqs.helpers.implementations.BasicV2SqsHelper;
-import com.awslabs.iot.helpers.interfaces.V2GreengrassHelper;
-import com.awslabs.iot.helpers.interfaces.V2IotHelper;
-import com.awslabs.sqs.helpers.interfaces.V2SqsHelper;
-import com.awslabs.lambda.helpers.implementations.BasicV2LambdaHelper;
-import com.awslabs.lambda.helpers.interfaces.V2LambdaHelper;
-import com.awslabs.resultsiterator.SharedModule;
-import com.awslabs.resultsiterator.implementations.BasicSslContextHelper;
-import com.awslabs.resultsiterator.interfaces.SslContextHelper;
-import com.awslabs.resultsiterator.v2.implementations.BasicV2ReflectionHelper;
-import com.awslabs.resultsiterator.v2.implementations.BasicV2SdkErrorHandler;
-import com.awslabs.resultsiterator.v2.implementations.BouncyCastleV2CertificateCredentialsProvider;
 import com.awslabs.resultsiterator.v2.implementations.V2SafeProvider;
 import com.awslabs.resultsiterator.v2.interfaces.V2CertificateCredentialsProvider;
-import com.awslabs.resultsiterator.v2.interfaces.V2ReflectionHelper;
-import com.awslabs.resultsiterator.v2.interfaces.V2SdkErrorHandler;
 import com.awslabs.s3.helpers.implementations.BasicV2S3Helper;
 import com.awslabs.s3.helpers.interfaces.V2S3Helper;
+import com.awslabs.sqs.helpers.implementations.BasicV2SqsHelper;
+import com.awslabs.sqs.helpers.interfaces.V2SqsHelper;
 import dagger.Module;
 import dagger.Provides;
-import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import dagger.Reusable;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProviderChain;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.regions.providers.AwsRegionProviderChain;
-import software.amazon.awssdk.regions.providers.DefaultAwsRegionProviderChain;
 import software.amazon.awssdk.services.greengrass.GreengrassClient;
 import software.amazon.awssdk.services.greengrass.GreengrassClientBuilder;
 import software.amazon.awssdk.services.iam.IamClient;
@@ -48,29 +30,13 @@ import software.amazon.awssdk.services.sqs.SqsClientBuilder;
 import software.amazon.awssdk.services.sts.StsClient;
 import software.amazon.awssdk.services.sts.StsClientBuilder;
 
-@Module(includes = {SharedModule.class})
+@Module(includes = {V2CommonModule.class})
 public class V2HelperModule {
     @Provides
     public AwsCredentialsProvider awsCredentialsProvider(V2CertificateCredentialsProvider v2CertificateCredentialsProvider) {
         return new V2SafeProvider<>(() -> AwsCredentialsProviderChain.of(v2CertificateCredentialsProvider, DefaultCredentialsProvider.create())).get();
     }
 
-    @Provides
-    public AwsRegionProviderChain awsRegionProviderChain() {
-        return new V2SafeProvider<>(DefaultAwsRegionProviderChain::new).get();
-    }
-
-    @Provides
-    public V2CertificateCredentialsProvider v2CertificateCredentialsProvider(BouncyCastleV2CertificateCredentialsProvider bouncyCastleV2CertificateCredentialsProvider) {
-        return bouncyCastleV2CertificateCredentialsProvider;
-    }
-
-    // Centralized error handling for V2 SDK errors
-    @Provides
-    public V2SdkErrorHandler v2SdkErrorHandler(BasicV2SdkErrorHandler basicV2SdkErrorHandler) {
-        return basicV2SdkErrorHandler;
-    }
-
     // Normal clients that need no special configuration
     // NOTE: Using this pattern allows us to wrap the creation of these clients in some error checking code that can give the user information on what to do in the case of a failure
     @Provides
@@ -155,48 +121,19 @@ public class V2HelperModule {
         return new V2SafeProvider<>(iamClientBuilder::build).get();
     }
 
+    // Reused so the helper's region specific clients are shared. This module can be used in unscoped components so
+    //   nothing here owns the helper, callers that build components repeatedly must call close() on the helpers they
+    //   are done with. V2SingletonHelperModule closes them automatically.
     @Provides
-    public AwsCredentials awsCredentials(AwsCredentialsProvider awsCredentialsProvider) {
-        return new V2SafeProvider<>(awsCredentialsProvider::resolveCredentials).get();
-    }
-
-    @Provides
-    public V2IamHelper iamHelper(BasicV2IamHelper basicV2IamHelper) {
-        return basicV2IamHelper;
-    }
-
-    @Provides
-    public V2S3Helper v2S3Helper(BasicV2S3Helper basicV2S3Helper) {
-        return basicV2S3Helper;
-    }
-
-    @Provides
-    public V2GreengrassHelper v2GreengrassHelper(BasicV2GreengrassHelper basicV2GreengrassHelper) {
-        return basicV2GreengrassHelper;
-    }
-
-    @Provides
-    public V2LambdaHelper v2LambdaHelper(BasicV2LambdaHelper basicV2LambdaHelper) {
-        return basicV2LambdaHelper;
-    }
-
-    @Provides
-    public V2IotHelper v2IotHelper(BasicV2IotHelper basicV2IotHelper) {
-        return basicV2IotHelper;
-    }
-
-    @Provides
+    @Reusable
     public V2SqsHelper v2SqsHelper(BasicV2SqsHelper basicV2SqsHelper) {
         return basicV2SqsHelper;
     }
 
+    // Reused for the same reason as the SQS helper, callers must close it the same way
     @Provides
-    public V2ReflectionHelper v2ReflectionHelper(BasicV2ReflectionHelper basicV2ReflectionHelper) {
-        return basicV2ReflectionHelper;
-    }
-
-    @Provides
-    public SslContextHelper sslContextHelper(BasicSslContextHelper basicSslContextHelper) {
-        return basicSslContextHelper;
+    @Reusable
+    public V2S3Helper v2S3Helper(BasicV2S3Helper basicV2S3Helper) {
+        return basicV2S3Helper;
     }
 }
@@ -0,0 +1,187 @@
+package com.awslabs.resultsiterator.v2;
+
+import com.awslabs.resultsiterator.data.ImmutableV2HttpClientSettings;
+import com.awslabs.resultsiterator.data.V2HttpClientSettings;
+import com.awslabs.resultsiterator.v2.implementations.V2ClientLifecycle;
+import com.awslabs.resultsiterator.v2.implementations.V2SafeProvider;
+import com.awslabs.resultsiterator.v2.interfaces.V2CertificateCredentialsProvider;
+import com.awslabs.s3.helpers.implementations.BasicV2S3Helper;
+import com.awslabs.s3.helpers.interfaces.V2S3Helper;
+import com.awslabs.sqs.helpers.implementations.BasicV2SqsHelper;
+import com.awslabs.sqs.helpers.interfaces.V2SqsHelper;
+import dagger.Module;
+import dagger.Provides;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProviderChain;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.greengrass.GreengrassClient;
+import software.amazon.awssdk.services.greengrass.GreengrassClientBuilder;
+import software.amazon.awssdk.services.iam.IamClient;
+import software.amazon.awssdk.services.iam.IamClientBuilder;
+import software.amazon.awssdk.services.iot.IotClient;
+import software.amazon.awssdk.services.iot.IotClientBuilder;
+import software.amazon.awssdk.services.iotdataplane.IotDataPlaneClient;
+import software.amazon.awssdk.services.iotdataplane.IotDataPlaneClientBuilder;
+import software.amazon.awssdk.services.lambda.LambdaClient;
+import software.amazon.awssdk.services.lambda.LambdaClientBuilder;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.SqsClientBuilder;
+import software.amazon.awssdk.services.sts.StsClient;
+import software.amazon.awssdk.services.sts.StsClientBuilder;
+import software.amazon.awssdk.utils.SdkAutoCloseable;
+
+import javax.inject.Singleton;
+
+/**
+ * Provides the same bindings as V2HelperModule but each client is created once per component. All clients share one
+ * HTTP client and one credentials provider, and V2ClientLifecycle closes them when the JVM shuts down. This module
+ * can only be used in components annotated with @Singleton.
+ */
+@Module(includes = {V2CommonModule.class})
+public class V2SingletonHelperModule {
+    private final V2HttpClientSettings v2HttpClientSettings;
+
+    public V2SingletonHelperModule() {
+        this(ImmutableV2HttpClientSettings.builder().build());
+    }
+
+    public V2SingletonHelperModule(V2HttpClientSettings v2HttpClientSettings) {
+        this.v2HttpClientSettings = v2HttpClientSettings;
+    }
+
+    @Provides
+    @Singleton
+    public SdkHttpClient sdkHttpClient(V2ClientLifecycle v2ClientLifecycle) {
+        // NOTE: The SDK's Apache client always enables TCP_NODELAY on its sockets
+        SdkHttpClient sdkHttpClient = ApacheHttpClient.builder()
+                .maxConnections(v2HttpClientSettings.getMaxConnections())
+                .connectionMaxIdleTime(v2HttpClientSettings.getConnectionMaxIdleTime())
+                .connectionTimeToLive(v2HttpClientSettings.getConnectionTimeToLive())
+                .useIdleConnectionReaper(true)
+                .build();
+
+        return v2ClientLifecycle.register(sdkHttpClient);
+    }
+
+    @Provides
+    @Singleton
+    public AwsCredentialsProvider awsCredentialsProvider(V2CertificateCredentialsProvider v2CertificateCredentialsProvider, V2ClientLifecycle v2ClientLifecycle) {
+        DefaultCredentialsProvider defaultCredentialsProvider = v2ClientLifecycle.register(DefaultCredentialsProvider.create());
+
+        return new V2SafeProvider<>(() -> AwsCredentialsProviderChain.of(v2CertificateCredentialsProvider, defaultCredentialsProvider)).get();
+    }
+
+    // Builders are not scoped so callers can change them, they all start with the shared HTTP client
+    // NOTE: Using this pattern allows us to wrap the creation of these clients in some error checking code that can give the user information on what to do in the case of a failure
+    @Provides
+    public StsClientBuilder stsClientBuilder(AwsCredentialsProvider awsCredentialsProvider, SdkHttpClient sdkHttpClient) {
+        return StsClient.builder().credentialsProvider(awsCredentialsProvider).httpClient(sdkHttpClient);
+    }
+
+    @Provides
+    @Singleton
+    public StsClient stsClient(StsClientBuilder stsClientBuilder, V2ClientLifecycle v2ClientLifecycle) {
+        return v2ClientLifecycle.register(new V2SafeProvider<>(stsClientBuilder::build).get());
+    }
+
+    @Provides
+    public S3ClientBuilder s3ClientBuilder(AwsCredentialsProvider awsCredentialsProvider, SdkHttpClient sdkHttpClient) {
+        return S3Client.builder().credentialsProvider(awsCredentialsProvider).httpClient(sdkHttpClient);
+    }
+
+    @Provides
+    @Singleton
+    public S3Client s3Client(S3ClientBuilder s3ClientBuilder, V2ClientLifecycle v2ClientLifecycle) {
+        return v2ClientLifecycle.register(new V2SafeProvider<>(s3ClientBuilder::build).get());
+    }
+
+    @Provides
+    public SqsClientBuilder sqsClientBuilder(AwsCredentialsProvider awsCredentialsProvider, SdkHttpClient sdkHttpClient) {
+        return SqsClient.builder().credentialsProvider(awsCredentialsProvider).httpClient(sdkHttpClient);
+    }
+
+    @Provides
+    @Singleton
+    public SqsClient sqsClient(SqsClientBuilder sqsClientBuilder, V2ClientLifecycle v2ClientLifecycle) {
+        return v2ClientLifecycle.register(new V2SafeProvider<>(sqsClientBuilder::build).get());
+    }
+
+    @Provides
+    public IotClientBuilder iotClientBuilder(AwsCredentialsProvider awsCredentialsProvider, SdkHttpClient sdkHttpClient) {
+        return IotClient.builder().credentialsProvider(awsCredentialsProvider).httpClient(sdkHttpClient);
+    }
+
+    @Provides
+    @Singleton
+    public IotClient iotClient(IotClientBuilder iotClientBuilder, V2ClientLifecycle v2ClientLifecycle) {
+        return v2ClientLifecycle.register(new V2SafeProvider<>(iotClientBuilder::build).get());
+    }
+
+    @Provides
+    public IotDataPlaneClientBuilder iotDataPlaneClientBuilder(AwsCredentialsProvider awsCredentialsProvider, SdkHttpClient sdkHttpClient) {
+        return IotDataPlaneClient.builder().credentialsProvider(awsCredentialsProvider).httpClient(sdkHttpClient);
+    }
+
+    @Provides
+    @Singleton
+    public IotDataPlaneClient iotDataPlaneClient(IotDataPlaneClientBuilder iotDataPlaneClientBuilder, V2ClientLifecycle v2ClientLifecycle) {
+        return v2ClientLifecycle.register(new V2SafeProvider<>(iotDataPlaneClientBuilder::build).get());
+    }
+
+    @Provides
+    public GreengrassClientBuilder greengrassClientBuilder(AwsCredentialsProvider awsCredentialsProvider, SdkHttpClient sdkHttpClient) {
+        return GreengrassClient.builder().credentialsProvider(awsCredentialsProvider).httpClient(sdkHttpClient);
+    }
+
+    @Provides
+    @Singleton
+    public GreengrassClient greengrassClient(GreengrassClientBuilder greengrassClientBuilder, V2ClientLifecycle v2ClientLifecycle) {
+        return v2ClientLifecycle.register(new V2SafeProvider<>(greengrassClientBuilder::build).get());
+    }
+
+    @Provides
+    public LambdaClientBuilder lambdaClientBuilder(AwsCredentialsProvider awsCredentialsProvider, SdkHttpClient sdkHttpClient) {
+        return LambdaClient.builder().credentialsProvider(awsCredentialsProvider).httpClient(sdkHttpClient);
+    }
+
+    @Provides
+    @Singleton
+    public LambdaClient lambdaClient(LambdaClientBuilder lambdaClientBuilder, V2ClientLifecycle v2ClientLifecycle) {
+        return v2ClientLifecycle.register(new V2SafeProvider<>(lambdaClientBuilder::build).get());
+    }
+
+    // Clients that need special configuration
+    @Provides
+    public IamClientBuilder iamClientBuilder(AwsCredentialsProvider awsCredentialsProvider, SdkHttpClient sdkHttpClient) {
+        return IamClient.builder().credentialsProvider(awsCredentialsProvider).httpClient(sdkHttpClient).region(Region.AWS_GLOBAL);
+    }
+
+    @Provides
+    @Singleton
+    public IamClient iamClient(IamClientBuilder iamClientBuilder, V2ClientLifecycle v2ClientLifecycle) {
+        return v2ClientLifecycle.register(new V2SafeProvider<>(iamClientBuilder::build).get());
+    }
+
+    // One helper of each kind per component so their region specific clients are reused, they are closed with the
+    //   other clients
+    @Provides
+    @Singleton
+    public V2SqsHelper v2SqsHelper(BasicV2SqsHelper basicV2SqsHelper, V2ClientLifecycle v2ClientLifecycle) {
+        v2ClientLifecycle.register((SdkAutoCloseable) basicV2SqsHelper::close);
+
+        return basicV2SqsHelper;
+    }
+
+    @Provides
+    @Singleton
+    public V2S3Helper v2S3Helper(BasicV2S3Helper basicV2S3Helper, V2ClientLifecycle v2ClientLifecycle) {
+        v2ClientLifecycle.register((SdkAutoCloseable) basicV2S3Helper::close);
+
+        return basicV2S3Helper;
+    }
+}
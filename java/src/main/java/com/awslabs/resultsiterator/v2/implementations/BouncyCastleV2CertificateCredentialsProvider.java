@@ -3,15 +3,23 @@ package com.awslabs.resultsiterator.v2.implementations;
 import com.awslabs.general.helpers.interfaces.IoHelper;
 import com.awslabs.general.helpers.interfaces.JsonHelper;
 import com.awslabs.iot.data.*;
+import com.awslabs.resultsiterator.data.ExpiringCredentials;
+import com.awslabs.resultsiterator.data.ImmutableExpiringCredentials;
 import com.awslabs.resultsiterator.data.ImmutablePassword;
 import com.awslabs.resultsiterator.interfaces.SslContextHelper;
 import com.awslabs.resultsiterator.v2.interfaces.V2CertificateCredentialsProvider;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalListener;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.vavr.collection.HashMap;
 import io.vavr.control.Option;
 import io.vavr.control.Try;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.util.EntityUtils;
 import software.amazon.awssdk.auth.credentials.AwsCredentials;
@@ -27,8 +35,37 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 public class BouncyCastleV2CertificateCredentialsProvider implements V2CertificateCredentialsProvider {
+    // Daemon threads so a pending refresh never keeps the JVM running
+    private static final ExecutorService REFRESH_EXECUTOR_SERVICE = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("iot-credentials-refresh-%d")
+            .build());
+
+    private static final int MAX_CONNECTIONS_PER_SSL_CONTEXT = 2;
+    // Credentials last an hour by default and are refreshed five minutes early, so connections are kept for longer than
+    //   that. The endpoint may still close them sooner, a new connection then resumes the TLS session cached by the
+    //   SSLContext instead of doing a full handshake.
+    private static final long IDLE_CONNECTION_TIMEOUT_MINUTES = 90;
+    private static final long UNUSED_HTTP_CLIENT_TIMEOUT_MINUTES = 2 * IDLE_CONNECTION_TIMEOUT_MINUTES;
+
+    // One pooled client per SSLContext so connections and TLS sessions are reused between refreshes. Rotated key material
+    //   gets a new SSLContext from the SslContextHelper, the client for the old one expires once it goes unused and is
+    //   closed by the removal listener the next time the cache is used.
+    // NOTE: The keys are strongly referenced since each client references its own SSLContext, weak keys would never be
+    //   collected
+    private static final LoadingCache<SSLContext, CloseableHttpClient> HTTP_CLIENTS = CacheBuilder.newBuilder()
+            .expireAfterAccess(UNUSED_HTTP_CLIENT_TIMEOUT_MINUTES, TimeUnit.MINUTES)
+            .removalListener((RemovalListener<SSLContext, CloseableHttpClient>) notification -> Try.run(() -> notification.getValue().close()))
+            .build(CacheLoader.from(BouncyCastleV2CertificateCredentialsProvider::createHttpClient));
+
+    // NOTE: The SDK calls resolveCredentials() before every request so the credentials are only fetched again shortly before they expire
+    private final RefreshingCredentialsCache refreshingCredentialsCache = new RefreshingCredentialsCache(this::fetchCredentials, REFRESH_EXECUTOR_SERVICE);
+
     @Inject
     IoHelper ioHelper;
     @Inject
@@ -42,6 +79,10 @@ public class BouncyCastleV2CertificateCredentialsProvider implements V2Certifica
 
     @Override
     public AwsCredentials resolveCredentials() {
+        return refreshingCredentialsCache.get();
+    }
+
+    protected ExpiringCredentials fetchCredentials() {
         HashMap<String, String> properties = toHashMap(System.getProperties().entrySet());
         HashMap<String, String> environment = toHashMap(System.getenv().entrySet());
 
@@ -82,7 +123,12 @@ public class BouncyCastleV2CertificateCredentialsProvider implements V2Certifica
 
         ImmutablePassword password = passwordBuilder.build();
 
-        return resolveCredentials(credentialProviderUrl, thingName, roleAlias, caCertFilename, clientCertFilename, clientPrivateKeyFilename, password);
+        ImmutableSessionCredentials sessionCredentials = getSessionCredentials(credentialProviderUrl, thingName, roleAlias, caCertFilename, clientCertFilename, clientPrivateKeyFilename, password);
+
+        return ImmutableExpiringCredentials.builder()
+                .awsCredentials(sessionCredentials.toAwsSessionCredentials())
+                .expiration(sessionCredentials.getExpirationInstant())
+                .build();
     }
 
     private <U, V> HashMap<String, String> toHashMap(Set<Map.Entry<U, V>> entrySet) {
@@ -150,6 +196,17 @@ public class BouncyCastleV2CertificateCredentialsProvider implements V2Certifica
                                                 ImmutableClientCertFilename clientCertFilename,
                                                 ImmutableClientPrivateKeyFilename clientPrivateKeyFilename,
                                                 ImmutablePassword password) {
+        return getSessionCredentials(credentialProviderUrl, thingName, roleAlias, caCertFilename, clientCertFilename, clientPrivateKeyFilename, password)
+                .toAwsSessionCredentials();
+    }
+
+    private ImmutableSessionCredentials getSessionCredentials(ImmutableCredentialProviderUrl credentialProviderUrl,
+                                                              ImmutableThingName thingName,
+                                                              ImmutableRoleAlias roleAlias,
+                                                              ImmutableCaCertFilename caCertFilename,
+                                                              ImmutableClientCertFilename clientCertFilename,
+                                                              ImmutableClientPrivateKeyFilename clientPrivateKeyFilename,
+                                                              ImmutablePassword password) {
         HttpClient httpClient = getHttpClient(caCertFilename, clientCertFilename, clientPrivateKeyFilename, password);
 
         String credentialProviderFullUrl = String.join("",
@@ -173,7 +230,7 @@ public class BouncyCastleV2CertificateCredentialsProvider implements V2Certifica
                 .map(responseBytes -> jsonHelper.fromJson(IotCredentialsProviderCredentials.class, responseBytes))
                 .get();
 
-        return iotCredentialsProviderCredentials.getCredentials().toAwsSessionCredentials();
+        return iotCredentialsProviderCredentials.getCredentials();
     }
 
     protected HttpClient getHttpClient(ImmutableCaCertFilename caCertFilename,
@@ -181,9 +238,20 @@ public class BouncyCastleV2CertificateCredentialsProvider implements V2Certifica
                                        ImmutableClientPrivateKeyFilename clientPrivateKeyFilename,
                                        ImmutablePassword password) {
         SSLContext sslContext = sslContextHelper.getSslContext(caCertFilename, clientCertFilename, clientPrivateKeyFilename, password);
-        HttpClientBuilder builder = HttpClientBuilder.create();
-        builder.setSSLContext(sslContext);
 
-        return builder.build();
+        return HTTP_CLIENTS.getUnchecked(sslContext);
+    }
+
+    private static CloseableHttpClient createHttpClient(SSLContext sslContext) {
+        // NOTE: TLS sessions are cached by the SSLContext so new connections from this pool resume them instead of doing a full handshake
+        return HttpClientBuilder.create()
+                .setSSLContext(sslContext)
+                .setMaxConnTotal(MAX_CONNECTIONS_PER_SSL_CONTEXT)
+                .setMaxConnPerRoute(MAX_CONNECTIONS_PER_SSL_CONTEXT)
+                .evictIdleConnections(IDLE_CONNECTION_TIMEOUT_MINUTES, TimeUnit.MINUTES)
+                // Connections that used a client certificate are otherwise tagged with its principal and never leased
+                //   again, every connection in this pool uses the same certificate so the tag isn't needed
+                .disableConnectionState()
+                .build();
     }
 }
@@ -0,0 +1,164 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import com.awslabs.resultsiterator.v2.interfaces.V2PaginationBinder;
+import io.vavr.control.Try;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Binds the pagination methods with LambdaMetafactory so the calls are plain interface calls the JIT can inline.
+ * SDK implementation classes (e.g. DefaultIotClient, ListThingsRequest.BuilderImpl) are not public so the binding
+ * is done against the public type that declares the method (e.g. IotClient, ListThingsRequest.Builder). If no public
+ * declaration exists the method handle is invoked directly instead.
+ */
+public class LambdaMetafactoryV2PaginationBinder implements V2PaginationBinder {
+    private final Logger log = LoggerFactory.getLogger(LambdaMetafactoryV2PaginationBinder.class);
+    private static final MethodType FUNCTION_METHOD_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType BI_FUNCTION_METHOD_TYPE = MethodType.methodType(Object.class, Object.class, Object.class);
+    private final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    @Override
+    public <I, R> Function<I, R> bindFunction(Method method) {
+        MethodHandle methodHandle = unreflect(method);
+
+        return Try.of(() -> (Function<I, R>) metafactory(Function.class, FUNCTION_METHOD_TYPE, methodHandle))
+                .onFailure(throwable -> log.debug("Falling back to a method handle for " + method, throwable))
+                .getOrElse(() -> functionFromMethodHandle(methodHandle));
+    }
+
+    @Override
+    public <I, A, R> BiFunction<I, A, R> bindBiFunction(Method method) {
+        MethodHandle methodHandle = unreflect(method);
+
+        return Try.of(() -> (BiFunction<I, A, R>) metafactory(BiFunction.class, BI_FUNCTION_METHOD_TYPE, methodHandle))
+                .onFailure(throwable -> log.debug("Falling back to a method handle for " + method, throwable))
+                .getOrElse(() -> biFunctionFromMethodHandle(methodHandle));
+    }
+
+    private Object metafactory(Class<?> functionalInterface, MethodType samMethodType, MethodHandle methodHandle) throws Throwable {
+        MethodType methodType = methodHandle.type();
+
+        if (!isPublic(methodType.returnType()) || !methodType.parameterList().stream().allMatch(this::isPublic)) {
+            // The generated class would not be able to reference these types
+            throw new IllegalAccessException("Method handle type " + methodType + " contains types that are not public");
+        }
+
+        CallSite callSite = LambdaMetafactory.metafactory(lookup,
+                "apply",
+                MethodType.methodType(functionalInterface),
+                samMethodType,
+                methodHandle,
+                methodHandle.type());
+
+        return callSite.getTarget().invoke();
+    }
+
+    private <I, R> Function<I, R> functionFromMethodHandle(MethodHandle methodHandle) {
+        MethodHandle genericMethodHandle = methodHandle.asType(FUNCTION_METHOD_TYPE);
+
+        return instance -> {
+            try {
+                Object result = genericMethodHandle.invokeExact((Object) instance);
+                return (R) result;
+            } catch (Throwable throwable) {
+                throw rethrow(throwable);
+            }
+        };
+    }
+
+    private <I, A, R> BiFunction<I, A, R> biFunctionFromMethodHandle(MethodHandle methodHandle) {
+        MethodHandle genericMethodHandle = methodHandle.asType(BI_FUNCTION_METHOD_TYPE);
+
+        return (instance, argument) -> {
+            try {
+                Object result = genericMethodHandle.invokeExact((Object) instance, (Object) argument);
+                return (R) result;
+            } catch (Throwable throwable) {
+                throw rethrow(throwable);
+            }
+        };
+    }
+
+    private RuntimeException rethrow(Throwable throwable) {
+        if (throwable instanceof RuntimeException) {
+            return (RuntimeException) throwable;
+        }
+
+        if (throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+
+        return new UnsupportedOperationException(throwable);
+    }
+
+    private MethodHandle unreflect(Method method) {
+        Optional<Method> optionalPublicMethod = findPublicDeclaration(method);
+
+        if (optionalPublicMethod.isPresent()) {
+            return Try.of(() -> lookup.unreflect(optionalPublicMethod.get())).get();
+        }
+
+        // This is necessary because these methods are not accessible by default
+        method.setAccessible(true);
+
+        return Try.of(() -> lookup.unreflect(method)).get();
+    }
+
+    private Optional<Method> findPublicDeclaration(Method method) {
+        Deque<Class<?>> classesToCheck = new ArrayDeque<>();
+        Set<Class<?>> checkedClasses = new HashSet<>();
+        classesToCheck.add(method.getDeclaringClass());
+
+        while (!classesToCheck.isEmpty()) {
+            Class<?> clazz = classesToCheck.removeFirst();
+
+            if (!checkedClasses.add(clazz)) {
+                continue;
+            }
+
+            if (isPublic(clazz)) {
+                Optional<Method> optionalMethod = Try.of(() -> clazz.getMethod(method.getName(), method.getParameterTypes()))
+                        .filter(candidate -> candidate.getDeclaringClass().equals(clazz))
+                        .toJavaOptional();
+
+                if (optionalMethod.isPresent()) {
+                    return optionalMethod;
+                }
+            }
+
+            if (clazz.getSuperclass() != null) {
+                classesToCheck.add(clazz.getSuperclass());
+            }
+
+            classesToCheck.addAll(Arrays.asList(clazz.getInterfaces()));
+        }
+
+        return Optional.empty();
+    }
+
+    private boolean isPublic(Class<?> clazz) {
+        if (clazz.isPrimitive()) {
+            return true;
+        }
+
+        if (clazz.isArray()) {
+            return isPublic(clazz.getComponentType());
+        }
+
+        // Nested classes are only reachable if all of their enclosing classes are public too
+        for (Class<?> current = clazz; current != null; current = current.getEnclosingClass()) {
+            if (!Modifier.isPublic(current.getModifiers())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
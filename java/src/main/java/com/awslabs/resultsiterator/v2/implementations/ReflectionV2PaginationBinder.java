@@ -0,0 +1,47 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import com.awslabs.resultsiterator.v2.interfaces.V2PaginationBinder;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+public class ReflectionV2PaginationBinder implements V2PaginationBinder {
+    @Override
+    public <I, R> Function<I, R> bindFunction(Method method) {
+        // This is necessary because these methods are not accessible by default
+        method.setAccessible(true);
+
+        return instance -> (R) invoke(method, instance);
+    }
+
+    @Override
+    public <I, A, R> BiFunction<I, A, R> bindBiFunction(Method method) {
+        // This is necessary because these methods are not accessible by default
+        method.setAccessible(true);
+
+        return (instance, argument) -> (R) invoke(method, instance, argument);
+    }
+
+    private Object invoke(Method method, Object instance, Object... arguments) {
+        try {
+            return method.invoke(instance, arguments);
+        } catch (IllegalAccessException e) {
+            e.printStackTrace();
+            throw new UnsupportedOperationException(e);
+        } catch (InvocationTargetException e) {
+            Throwable targetException = e.getTargetException();
+
+            if (targetException instanceof RuntimeException) {
+                throw (RuntimeException) targetException;
+            }
+
+            if (targetException instanceof Error) {
+                throw (Error) targetException;
+            }
+
+            throw new UnsupportedOperationException(targetException);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import com.awslabs.resultsiterator.data.ExpiringCredentials;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Holds credentials until shortly before they expire. Inside the prefetch window the current credentials are returned
+ * while one background refresh replaces them. Inside the stale window callers wait for a single synchronous refresh
+ * since the current credentials may expire before the request that uses them is signed and sent.
+ */
+public class RefreshingCredentialsCache {
+    public static final Duration DEFAULT_PREFETCH_BEFORE_EXPIRATION = Duration.ofMinutes(5);
+    public static final Duration DEFAULT_STALE_BEFORE_EXPIRATION = Duration.ofMinutes(1);
+
+    private final Logger log = LoggerFactory.getLogger(RefreshingCredentialsCache.class);
+    private final Supplier<ExpiringCredentials> credentialsSupplier;
+    private final Executor executor;
+    private final Supplier<Instant> clock;
+    private final Duration prefetchBeforeExpiration;
+    private final Duration staleBeforeExpiration;
+    private final AtomicBoolean backgroundRefreshRunning = new AtomicBoolean(false);
+    private final Object refreshLock = new Object();
+    private volatile ExpiringCredentials cachedCredentials;
+
+    public RefreshingCredentialsCache(Supplier<ExpiringCredentials> credentialsSupplier, Executor executor) {
+        this(credentialsSupplier, executor, Instant::now, DEFAULT_PREFETCH_BEFORE_EXPIRATION, DEFAULT_STALE_BEFORE_EXPIRATION);
+    }
+
+    public RefreshingCredentialsCache(Supplier<ExpiringCredentials> credentialsSupplier,
+                                      Executor executor,
+                                      Supplier<Instant> clock,
+                                      Duration prefetchBeforeExpiration,
+                                      Duration staleBeforeExpiration) {
+        if (prefetchBeforeExpiration.compareTo(staleBeforeExpiration) < 0) {
+            throw new IllegalArgumentException("The prefetch window must start before the stale window");
+        }
+
+        this.credentialsSupplier = credentialsSupplier;
+        this.executor = executor;
+        this.clock = clock;
+        this.prefetchBeforeExpiration = prefetchBeforeExpiration;
+        this.staleBeforeExpiration = staleBeforeExpiration;
+    }
+
+    public AwsCredentials get() {
+        ExpiringCredentials currentCredentials = cachedCredentials;
+
+        if ((currentCredentials != null) && !currentCredentials.getExpiration().isPresent()) {
+            // These credentials can't be cached, fetch them every time without serializing the callers
+            return credentialsSupplier.get().getAwsCredentials();
+        }
+
+        if (isStale(currentCredentials)) {
+            return refreshSynchronously().getAwsCredentials();
+        }
+
+        if (isInPrefetchWindow(currentCredentials)) {
+            refreshInBackground();
+        }
+
+        return currentCredentials.getAwsCredentials();
+    }
+
+    private ExpiringCredentials refreshSynchronously() {
+        synchronized (refreshLock) {
+            ExpiringCredentials currentCredentials = cachedCredentials;
+
+            if (!isStale(currentCredentials)) {
+                // Another caller refreshed the credentials while this one was waiting
+                return currentCredentials;
+            }
+
+            ExpiringCredentials newCredentials = credentialsSupplier.get();
+            cachedCredentials = newCredentials;
+
+            return newCredentials;
+        }
+    }
+
+    private void refreshInBackground() {
+        if (!backgroundRefreshRunning.compareAndSet(false, true)) {
+            // A refresh is already running
+            return;
+        }
+
+        CompletableFuture.runAsync(this::refreshUnlessAlreadyRefreshed, executor)
+                .whenComplete((ignore, throwable) -> {
+                    backgroundRefreshRunning.set(false);
+
+                    if (throwable != null) {
+                        // The current credentials are still valid, the next caller in the prefetch window tries again
+                        log.warn("Background credentials refresh failed", throwable);
+                    }
+                });
+    }
+
+    private void refreshUnlessAlreadyRefreshed() {
+        synchronized (refreshLock) {
+            if (!isInPrefetchWindow(cachedCredentials)) {
+                // A synchronous refresh got here first
+                return;
+            }
+
+            cachedCredentials = credentialsSupplier.get();
+        }
+    }
+
+    private boolean isStale(ExpiringCredentials expiringCredentials) {
+        return isAfter(expiringCredentials, staleBeforeExpiration);
+    }
+
+    private boolean isInPrefetchWindow(ExpiringCredentials expiringCredentials) {
+        return isAfter(expiringCredentials, prefetchBeforeExpiration);
+    }
+
+    private boolean isAfter(ExpiringCredentials expiringCredentials, Duration beforeExpiration) {
+        if ((expiringCredentials == null) || !expiringCredentials.getExpiration().isPresent()) {
+            // Nothing cached yet or nothing that can be cached
+            return true;
+        }
+
+        return !clock.get().isBefore(expiringCredentials.getExpiration().get().minus(beforeExpiration));
+    }
+}
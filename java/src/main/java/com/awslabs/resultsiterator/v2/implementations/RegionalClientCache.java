@@ -0,0 +1,53 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import software.amazon.awssdk.core.SdkClient;
+import software.amazon.awssdk.regions.Region;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Keeps one client per region so every call to a region shares the same HTTP connection pool. Clients are created on
+ * first use and are all closed when the cache is closed.
+ */
+public class RegionalClientCache<C extends SdkClient> implements AutoCloseable {
+    private final ConcurrentMap<Region, C> clients = new ConcurrentHashMap<>();
+    private final Function<Region, C> clientFactory;
+    private volatile boolean closed = false;
+
+    public RegionalClientCache(Function<Region, C> clientFactory) {
+        this.clientFactory = clientFactory;
+    }
+
+    public C get(Region region) {
+        if (closed) {
+            throw new IllegalStateException("The client cache has been closed");
+        }
+
+        return clients.computeIfAbsent(region, clientFactory);
+    }
+
+    public int size() {
+        return clients.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+
+        List<C> clientsToClose = new ArrayList<>(clients.values());
+        clients.clear();
+
+        // Keep closing the other clients even if one of them fails
+        clientsToClose.forEach(client -> {
+            try {
+                client.close();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+}
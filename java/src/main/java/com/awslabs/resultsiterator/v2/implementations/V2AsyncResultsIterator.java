@@ -0,0 +1,318 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import com.awslabs.resultsiterator.data.ImmutableV2PaginationMethodsKey;
+import com.awslabs.resultsiterator.data.V2PaginationMethods;
+import com.awslabs.resultsiterator.data.V2PaginationMethodsKey;
+import com.awslabs.resultsiterator.implementations.FetchedPage;
+import com.awslabs.resultsiterator.interfaces.AsyncResultsIterator;
+import com.awslabs.resultsiterator.v2.interfaces.V2PaginationBinder;
+import com.awslabs.resultsiterator.v2.interfaces.V2ReflectionHelper;
+import io.vavr.control.Try;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.core.SdkClient;
+
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Paginates an operation on an asynchronous client (IotAsyncClient, etc) without blocking. The next page is only
+ * requested after the previous response arrives and the subscriber has outstanding demand.
+ */
+public class V2AsyncResultsIterator<T> implements AsyncResultsIterator<T> {
+    private static final V2PaginationBinder DEFAULT_V2_PAGINATION_BINDER = new LambdaMetafactoryV2PaginationBinder();
+    private final SdkClient sdkAsyncClient;
+    private final Class<? extends AwsRequest> awsRequestClass;
+    private final AwsRequest originalAwsRequest;
+    private final V2ReflectionHelper v2ReflectionHelper;
+    // NOTE: This is initialized to null so we can determine if we have tried to initialize it already
+    private volatile V2PaginationMethods v2PaginationMethods = null;
+
+    public V2AsyncResultsIterator(V2ReflectionHelper v2ReflectionHelper, SdkClient sdkAsyncClient, Class<? extends AwsRequest> awsRequestClass) {
+        this.v2ReflectionHelper = v2ReflectionHelper;
+        this.sdkAsyncClient = sdkAsyncClient;
+        this.awsRequestClass = awsRequestClass;
+        this.originalAwsRequest = null;
+    }
+
+    public V2AsyncResultsIterator(V2ReflectionHelper v2ReflectionHelper, SdkClient sdkAsyncClient, AwsRequest originalAwsRequest) {
+        this.v2ReflectionHelper = v2ReflectionHelper;
+        this.sdkAsyncClient = sdkAsyncClient;
+        this.awsRequestClass = originalAwsRequest.getClass();
+        this.originalAwsRequest = originalAwsRequest;
+    }
+
+    public V2AsyncResultsIterator(SdkClient sdkAsyncClient, Class<? extends AwsRequest> awsRequestClass) {
+        this(new BasicV2ReflectionHelper(), sdkAsyncClient, awsRequestClass);
+    }
+
+    public V2AsyncResultsIterator(SdkClient sdkAsyncClient, AwsRequest originalAwsRequest) {
+        this(new BasicV2ReflectionHelper(), sdkAsyncClient, originalAwsRequest);
+    }
+
+    @Override
+    public Publisher<T> publisher() {
+        return subscriber -> {
+            Objects.requireNonNull(subscriber, "Subscriber can not be NULL");
+
+            subscriber.onSubscribe(new PageSubscription(subscriber));
+        };
+    }
+
+    @Override
+    public CompletableFuture<List<T>> list() {
+        CompletableFuture<List<T>> result = new CompletableFuture<>();
+
+        publisher().subscribe(new Subscriber<T>() {
+            private final List<T> elements = new ArrayList<>();
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                // Stop fetching pages if the caller gives up on the result
+                result.whenComplete((list, throwable) -> {
+                    if (result.isCancelled()) {
+                        subscription.cancel();
+                    }
+                });
+
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(T element) {
+                elements.add(element);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                result.complete(elements);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Override this to change how the pagination methods are invoked (e.g. with ReflectionV2PaginationBinder)
+     */
+    protected V2PaginationBinder getV2PaginationBinder() {
+        return DEFAULT_V2_PAGINATION_BINDER;
+    }
+
+    private AwsRequest configureRequest() {
+        if (originalAwsRequest != null) {
+            // Use the existing request
+            return originalAwsRequest.toBuilder().build();
+        }
+
+        return v2ReflectionHelper.getNewRequest(awsRequestClass);
+    }
+
+    private V2PaginationMethods getPaginationMethods() {
+        if (v2PaginationMethods == null) {
+            // Determine the element type so anonymous subclasses with a concrete type get their own cache entry, this
+            //   class is not generic itself so anything other than an anonymous subclass falls back to List
+            // From: https://stackoverflow.com/a/1901275/796579
+            Class<T> returnClass = Try.of(() -> (Class<T>) ((ParameterizedType) getClass().getGenericSuperclass()).getActualTypeArguments()[0])
+                    .getOrElse((Class<T>) List.class);
+
+            V2PaginationMethodsKey v2PaginationMethodsKey = ImmutableV2PaginationMethodsKey.builder()
+                    .clientClass(sdkAsyncClient.getClass())
+                    .requestClass(awsRequestClass)
+                    .elementClass(returnClass)
+                    .binderClass(getV2PaginationBinder().getClass())
+                    .build();
+
+            V2PaginationMethodsResolver v2PaginationMethodsResolver = new V2PaginationMethodsResolver(v2ReflectionHelper, getV2PaginationBinder());
+            v2PaginationMethods = V2PaginationMethodsCache.get(v2PaginationMethodsKey, v2PaginationMethodsResolver::resolve);
+        }
+
+        return v2PaginationMethods;
+    }
+
+    private CompletableFuture<AwsResponse> queryNextResults(AwsRequest request) {
+        Optional<BiFunction<SdkClient, AwsRequest, CompletableFuture<AwsResponse>>> asyncClientMethodReturningResult = getPaginationMethods().getAsyncClientMethodReturningResult();
+
+        if (!asyncClientMethodReturningResult.isPresent()) {
+            throw new UnsupportedOperationException("Failed to find a method returning a future of the expected response type, this should never happen.");
+        }
+
+        return asyncClientMethodReturningResult.get().apply(sdkAsyncClient, request);
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        if ((throwable instanceof CompletionException) && (throwable.getCause() != null)) {
+            return throwable.getCause();
+        }
+
+        return throwable;
+    }
+
+    /**
+     * One subscription per subscriber. All signals to the subscriber come from the drain loop and the work-in-progress
+     * counter guarantees only one thread runs it at a time. Responses that complete on the calling thread re-enter the
+     * loop instead of recursing.
+     */
+    private class PageSubscription implements Subscription {
+        private final Subscriber<? super T> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger workInProgress = new AtomicInteger();
+        private volatile boolean cancelled = false;
+        private volatile boolean fetching = false;
+        private volatile FetchedPage<AwsRequest, T> fetchedPage = null;
+        private volatile Throwable error = null;
+        private volatile CompletableFuture<AwsResponse> pendingResponse = null;
+        // Only touched inside the drain loop
+        private boolean started = false;
+        private Iterator<T> currentPage = null;
+        private AwsRequest nextRequest = null;
+
+        private PageSubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long count) {
+            if (count <= 0) {
+                error = new IllegalArgumentException("The number of requested elements must be positive (Reactive Streams rule 3.9), received " + count);
+            } else {
+                // Demand is capped at Long.MAX_VALUE which means unbounded
+                requested.getAndUpdate(current -> (Long.MAX_VALUE - current < count) ? Long.MAX_VALUE : current + count);
+            }
+
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+
+            CompletableFuture<AwsResponse> response = pendingResponse;
+
+            if (response != null) {
+                response.cancel(false);
+            }
+        }
+
+        private void drain() {
+            if (workInProgress.getAndIncrement() != 0) {
+                // Another thread is already draining, it will pick up this change
+                return;
+            }
+
+            int missed = 1;
+
+            do {
+                if (drainOnce()) {
+                    return;
+                }
+
+                missed = workInProgress.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        // Returns true when the subscription has reached a terminal state
+        private boolean drainOnce() {
+            if (cancelled) {
+                return true;
+            }
+
+            if (error != null) {
+                cancelled = true;
+                subscriber.onError(error);
+                return true;
+            }
+
+            FetchedPage<AwsRequest, T> page = fetchedPage;
+
+            if (page != null) {
+                fetchedPage = null;
+                currentPage = page.getItems().iterator();
+                nextRequest = page.getNextRequest().orElse(null);
+                fetching = false;
+            }
+
+            long demand = requested.get();
+            long emitted = 0;
+
+            while ((emitted != demand) && (currentPage != null) && currentPage.hasNext()) {
+                if (cancelled) {
+                    return true;
+                }
+
+                subscriber.onNext(currentPage.next());
+                emitted++;
+            }
+
+            if ((emitted != 0) && (demand != Long.MAX_VALUE)) {
+                requested.addAndGet(-emitted);
+            }
+
+            if (fetching || ((currentPage != null) && currentPage.hasNext())) {
+                // Still waiting on a response or on demand for the rest of this page
+                return false;
+            }
+
+            if (started && (nextRequest == null)) {
+                cancelled = true;
+                subscriber.onComplete();
+                return true;
+            }
+
+            if (requested.get() > 0) {
+                fetch();
+            }
+
+            return false;
+        }
+
+        private void fetch() {
+            fetching = true;
+
+            try {
+                AwsRequest request = started ? nextRequest : configureRequest();
+                started = true;
+
+                CompletableFuture<AwsResponse> response = queryNextResults(request);
+                pendingResponse = response;
+
+                response.whenComplete((awsResponse, throwable) -> {
+                    pendingResponse = null;
+
+                    if (throwable != null) {
+                        error = unwrap(throwable);
+                    } else {
+                        try {
+                            fetchedPage = getPaginationMethods().toFetchedPage(request, awsResponse);
+                        } catch (RuntimeException e) {
+                            error = e;
+                        }
+                    }
+
+                    drain();
+                });
+            } catch (RuntimeException e) {
+                error = e;
+                // Let the drain loop deliver the error since it already holds the work-in-progress counter
+                workInProgress.incrementAndGet();
+            }
+        }
+    }
+}
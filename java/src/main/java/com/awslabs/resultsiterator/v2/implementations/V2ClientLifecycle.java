@@ -0,0 +1,56 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import io.vavr.control.Try;
+import software.amazon.awssdk.utils.SdkAutoCloseable;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tracks the clients, HTTP clients, and credentials providers created by V2SingletonHelperModule. They are closed in
+ * the reverse of the order they were created in, either when close() is called or when the JVM shuts down.
+ */
+@Singleton
+public class V2ClientLifecycle implements AutoCloseable {
+    private final Deque<SdkAutoCloseable> closeables = new ConcurrentLinkedDeque<>();
+    private final AtomicBoolean shutdownHookRegistered = new AtomicBoolean(false);
+    private final Thread shutdownHook = new Thread(this::closeAll);
+
+    @Inject
+    public V2ClientLifecycle() {
+    }
+
+    public <T extends SdkAutoCloseable> T register(T closeable) {
+        if (shutdownHookRegistered.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        }
+
+        // Clients are closed before the HTTP client they were built with
+        closeables.addFirst(closeable);
+
+        return closeable;
+    }
+
+    @Override
+    public void close() {
+        if (shutdownHookRegistered.get()) {
+            // This fails if the JVM is already shutting down, the hook closes everything in that case
+            Try.run(() -> Runtime.getRuntime().removeShutdownHook(shutdownHook));
+        }
+
+        closeAll();
+    }
+
+    private void closeAll() {
+        SdkAutoCloseable closeable;
+
+        while ((closeable = closeables.pollFirst()) != null) {
+            // Keep closing the others even if one of them fails
+            Try.run(closeable::close)
+                    .onFailure(Throwable::printStackTrace);
+        }
+    }
+}
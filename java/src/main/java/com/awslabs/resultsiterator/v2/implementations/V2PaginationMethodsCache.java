@@ -0,0 +1,65 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import com.awslabs.resultsiterator.data.V2PaginationMethods;
+import com.awslabs.resultsiterator.data.V2PaginationMethodsKey;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Process-wide cache of the reflected pagination methods for each client class, request class, and element type.
+ * Only the first iterator for an operation pays for the reflection, every iterator after that reuses the result.
+ */
+public class V2PaginationMethodsCache {
+    private static final Map<V2PaginationMethodsKey, V2PaginationMethods> cache = new ConcurrentHashMap<>();
+    private static final LongAdder hitCount = new LongAdder();
+    private static final LongAdder missCount = new LongAdder();
+
+    private V2PaginationMethodsCache() {
+    }
+
+    public static V2PaginationMethods get(V2PaginationMethodsKey v2PaginationMethodsKey, Function<V2PaginationMethodsKey, V2PaginationMethods> resolver) {
+        V2PaginationMethods v2PaginationMethods = cache.get(v2PaginationMethodsKey);
+
+        if (v2PaginationMethods != null) {
+            hitCount.increment();
+            return v2PaginationMethods;
+        }
+
+        // NOTE: Only the thread that runs the resolver counts a miss, threads that waited for it to finish count a hit
+        boolean[] resolved = {false};
+
+        v2PaginationMethods = cache.computeIfAbsent(v2PaginationMethodsKey, key -> {
+            resolved[0] = true;
+            return resolver.apply(key);
+        });
+
+        if (resolved[0]) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+
+        return v2PaginationMethods;
+    }
+
+    public static long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public static long getMissCount() {
+        return missCount.sum();
+    }
+
+    public static int size() {
+        return cache.size();
+    }
+
+    public static void clear() {
+        cache.clear();
+        hitCount.reset();
+        missCount.reset();
+    }
+}
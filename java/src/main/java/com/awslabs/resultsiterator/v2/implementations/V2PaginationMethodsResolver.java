@@ -0,0 +1,106 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import com.awslabs.resultsiterator.data.ImmutableV2PaginationMethods;
+import com.awslabs.resultsiterator.data.V2PaginationMethods;
+import com.awslabs.resultsiterator.data.V2PaginationMethodsKey;
+import com.awslabs.resultsiterator.v2.interfaces.V2PaginationBinder;
+import com.awslabs.resultsiterator.v2.interfaces.V2ReflectionHelper;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Finds the methods needed to paginate an operation and binds them. Synchronous clients are searched for a method
+ * returning the response, asynchronous clients for a method returning a CompletableFuture of the response.
+ */
+public class V2PaginationMethodsResolver {
+    private final List<String> primaryTokenMethodNames = new ArrayList<>(Arrays.asList("nextToken", "nextMarker", "nextContinuationToken"));
+    // NOTE: Some requests (e.g. ListObjectsV2) take the token with a different name than the response returns it
+    private final List<String> secondaryTokenMethodNames = new ArrayList<>(Arrays.asList("marker", "continuationToken"));
+    private final V2ReflectionHelper v2ReflectionHelper;
+    private final V2PaginationBinder v2PaginationBinder;
+
+    public V2PaginationMethodsResolver(V2ReflectionHelper v2ReflectionHelper, V2PaginationBinder v2PaginationBinder) {
+        this.v2ReflectionHelper = v2ReflectionHelper;
+        this.v2PaginationBinder = v2PaginationBinder;
+    }
+
+    public V2PaginationMethods resolve(V2PaginationMethodsKey v2PaginationMethodsKey) {
+        Class<? extends AwsResponse> responseClass = getResponseClass(v2PaginationMethodsKey.getRequestClass());
+
+        // Look for a public method in the client (AWSIot, etc) that takes a AwsRequest and returns a V.  If zero or more than one exists, fail.
+        Optional<Method> clientMethodReturningResult = v2ReflectionHelper.getMethodWithParameterAndReturnType(v2PaginationMethodsKey.getClientClass(), v2PaginationMethodsKey.getRequestClass(), responseClass);
+
+        Optional<Method> asyncClientMethodReturningResult = Optional.empty();
+
+        if (!clientMethodReturningResult.isPresent()) {
+            // Only look for the asynchronous method if the synchronous method isn't there
+            asyncClientMethodReturningResult = v2ReflectionHelper.getMethodWithParameterAndReturnType(v2PaginationMethodsKey.getClientClass(), v2PaginationMethodsKey.getRequestClass(), CompletableFuture.class)
+                    .filter(method -> returnsFutureOf(method, responseClass));
+        }
+
+        // Look for a public method that takes no arguments and returns a List<T>.  If zero or more than one exists, fail.
+        Optional<Method> clientMethodReturningListT = v2ReflectionHelper.getMethodWithParameterAndReturnType(responseClass, null, v2PaginationMethodsKey.getElementClass());
+
+        // Look for a public method that takes no arguments and returns a string that matches our list of expected names.  If zero or more than one exists, fail.
+        Optional<Method> clientGetMethodReturningString = v2ReflectionHelper.getMethodWithParameterReturnTypeAndNames(responseClass, null, String.class, primaryTokenMethodNames);
+
+        if (!clientGetMethodReturningString.isPresent()) {
+            // Only look for the secondary method if the primary methods aren't there
+            v2ReflectionHelper.getMethodWithParameterReturnTypeAndNames(responseClass, null, String.class, secondaryTokenMethodNames);
+        }
+
+        Optional<Method> clientSetMethodAcceptingString = Optional.empty();
+
+        if (clientGetMethodReturningString.isPresent()) {
+            // Look for a public method that takes a string and returns a builder class that matches our list of expected names.  If zero or more than one exists, fail.
+            Class<? extends AwsRequest.Builder> builderClass = v2ReflectionHelper.getNewRequestBuilder(v2PaginationMethodsKey.getRequestClass()).getClass();
+            clientSetMethodAcceptingString = v2ReflectionHelper.getMethodWithParameterReturnTypeAndNames(builderClass, String.class, builderClass, primaryTokenMethodNames);
+
+            if (!clientSetMethodAcceptingString.isPresent()) {
+                // Only look for these methods if the first search fails
+                clientSetMethodAcceptingString = v2ReflectionHelper.getMethodWithParameterReturnTypeAndNames(builderClass, String.class, builderClass, secondaryTokenMethodNames);
+            }
+        }
+
+        // Bind the methods once so the page loop does not go through reflection on every call
+        return ImmutableV2PaginationMethods.builder()
+                .responseClass(responseClass)
+                .clientMethodReturningResult(clientMethodReturningResult.map(v2PaginationBinder::bindBiFunction))
+                .asyncClientMethodReturningResult(asyncClientMethodReturningResult.map(v2PaginationBinder::bindBiFunction))
+                .clientMethodReturningListT(clientMethodReturningListT.map(v2PaginationBinder::bindFunction))
+                .clientGetMethodReturningString(clientGetMethodReturningString.map(v2PaginationBinder::bindFunction))
+                .clientSetMethodAcceptingString(clientSetMethodAcceptingString.map(v2PaginationBinder::bindBiFunction))
+                .build();
+    }
+
+    private boolean returnsFutureOf(Method method, Class<? extends AwsResponse> responseClass) {
+        Type genericReturnType = method.getGenericReturnType();
+
+        if (!(genericReturnType instanceof ParameterizedType)) {
+            return false;
+        }
+
+        return responseClass.equals(((ParameterizedType) genericReturnType).getActualTypeArguments()[0]);
+    }
+
+    private Class<? extends AwsResponse> getResponseClass(Class<? extends AwsRequest> awsRequestClass) {
+        String requestClassName = awsRequestClass.getName();
+        String responseClassName = requestClassName.replaceAll("Request$", "Response");
+
+        try {
+            return (Class<? extends AwsResponse>) Class.forName(responseClassName);
+        } catch (ClassNotFoundException e) {
+            e.printStackTrace();
+            throw new UnsupportedOperationException(e);
+        }
+    }
+}
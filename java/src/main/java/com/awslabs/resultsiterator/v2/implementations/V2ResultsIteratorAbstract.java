@@ -1,40 +1,54 @@
 package com.awslabs.resultsiterator.v2.implementations;
 
+import com.awslabs.resultsiterator.data.CheckpointPolicy;
+import com.awslabs.resultsiterator.data.PaginationOperation;
+import com.awslabs.resultsiterator.data.PrefetchPolicy;
+import com.awslabs.resultsiterator.data.ImmutableV2PaginationMethodsKey;
+import com.awslabs.resultsiterator.data.PageRetryPolicy;
+import com.awslabs.resultsiterator.data.V2PaginationMethods;
+import com.awslabs.resultsiterator.data.V2PaginationMethodsKey;
+import com.awslabs.resultsiterator.implementations.CheckpointingIterator;
+import com.awslabs.resultsiterator.implementations.FetchedPage;
+import com.awslabs.resultsiterator.implementations.MeteredPageFetcher;
+import com.awslabs.resultsiterator.implementations.MeteredPageIterator;
+import com.awslabs.resultsiterator.implementations.PageIterator;
+import com.awslabs.resultsiterator.implementations.PageRetrier;
+import com.awslabs.resultsiterator.implementations.PageRetryPolicies;
+import com.awslabs.resultsiterator.implementations.PageSpliterator;
+import com.awslabs.resultsiterator.implementations.PaginationMetricsListeners;
+import com.awslabs.resultsiterator.implementations.PrefetchingPageIterator;
+import com.awslabs.resultsiterator.interfaces.PaginationMetricsListener;
 import com.awslabs.resultsiterator.interfaces.ResultsIterator;
+import com.awslabs.resultsiterator.v2.interfaces.V2PaginationBinder;
 import com.awslabs.resultsiterator.v2.interfaces.V2ReflectionHelper;
 import io.vavr.control.Try;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.awscore.AwsRequest;
 import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
 import software.amazon.awssdk.core.SdkClient;
 import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.retry.RetryUtils;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.io.IOException;
 import java.lang.reflect.ParameterizedType;
 import java.util.*;
+import java.util.function.BiFunction;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 public abstract class V2ResultsIteratorAbstract<T> implements ResultsIterator<T> {
+    private static final V2PaginationBinder DEFAULT_V2_PAGINATION_BINDER = new LambdaMetafactoryV2PaginationBinder();
     private final Logger log = LoggerFactory.getLogger(V2ResultsIteratorAbstract.class);
     private final SdkClient sdkClient;
     private final Class<? extends AwsRequest> awsRequestClass;
-    private final List<String> primaryTokenMethodNames = new ArrayList<>(Arrays.asList("nextToken", "nextMarker"));
-    private final List<String> secondaryTokenMethodNames = new ArrayList<>(Arrays.asList("marker"));
     private final AwsRequest originalAwsRequest;
     private final V2ReflectionHelper v2ReflectionHelper;
-    private Optional<? extends Class<? extends AwsResponse>> optionalResponseClass = Optional.empty();
-    private AwsResponse awsResponse;
     // NOTE: This is initialized to null so we can determine if we have tried to initialize it already
-    private Optional<Method> clientMethodReturningResult = null;
-    // NOTE: This is initialized to null so we can determine if we have tried to initialize it already
-    private Optional<Method> clientMethodReturningListT = null;
-    // NOTE: This is initialized to null so we can determine if we have tried to initialize it already
-    private Optional<Method> clientGetMethodReturningString = null;
-    // NOTE: This is initialized to null so we can determine if we have tried to initialize it already
-    private Optional<Method> clientSetMethodAcceptingString = null;
+    private V2PaginationMethods v2PaginationMethods = null;
+    private PaginationOperation paginationOperation = null;
 
     public V2ResultsIteratorAbstract(V2ReflectionHelper v2ReflectionHelper, SdkClient sdkClient, Class<? extends AwsRequest> awsRequestClass) {
         this.v2ReflectionHelper = v2ReflectionHelper;
@@ -66,198 +80,171 @@ public abstract class V2ResultsIteratorAbstract<T> implements ResultsIterator<T>
 
     @Override
     public Stream<T> stream() {
-        Iterator<T> iterator = new Iterator<T>() {
-            List<T> output = new ArrayList<>();
-            boolean started = false;
-            String nextToken = null;
-            AwsRequest request;
-
-            private void performRequest() {
-                if (!started) {
-                    // First time around configure the request
-                    request = configureRequest();
-
-                    // The setup is complete, don't do it again
-                    started = true;
-                }
+        PageRetrier pageRetrier = getPageRetrier();
 
-                awsResponse = queryNextResults(request);
+        return stream(new PageIterator<>(this::configureRequest, request -> fetchPage(pageRetrier, request)), pageRetrier);
+    }
 
-                output.addAll(getResultData());
+    @Override
+    public Stream<T> stream(PrefetchPolicy prefetchPolicy) {
+        PageRetrier pageRetrier = getPageRetrier();
+        PrefetchingPageIterator<AwsRequest, T> prefetchingPageIterator = new PrefetchingPageIterator<>(this::configureRequest, request -> fetchPage(pageRetrier, request), prefetchPolicy);
 
-                nextToken = getNextToken();
+        return stream(prefetchingPageIterator, pageRetrier)
+                // Stop any outstanding requests if the stream is closed early
+                .onClose(prefetchingPageIterator::cancel);
+    }
 
-                if (nextToken == null) {
-                    return;
-                }
+    @Override
+    public Stream<T> stream(CheckpointPolicy checkpointPolicy) {
+        PageRetrier pageRetrier = getPageRetrier();
+        // NOTE: Checkpointed streams can't use a PageSpliterator since its splits hand out pages before they are consumed,
+        //   so the pages are metered as they are fetched instead
+        MeteredPageFetcher<AwsRequest, T> meteredPageFetcher = new MeteredPageFetcher<>(request -> fetchPage(pageRetrier, request), getPaginationOperation(), getPaginationMetricsListener(), pageRetrier);
+        CheckpointingIterator<AwsRequest, T> checkpointingIterator = new CheckpointingIterator<>(this::configureRequest, meteredPageFetcher, (request, token) -> getPaginationMethods().withNextToken(request, token), getRequestFingerprint(), checkpointPolicy);
+
+        return StreamSupport.stream(checkpointingIterator.toSpliterator(), false)
+                // Record the position if the stream is closed early so it can be resumed later
+                .onClose(checkpointingIterator::saveCheckpoint);
+    }
 
-                request = setNextToken(request, nextToken);
-            }
+    private String getRequestFingerprint() {
+        // The request class is included because some request types don't include their name in toString()
+        return String.join(":", awsRequestClass.getName(), configureRequest().toString());
+    }
 
-            @Override
-            public boolean hasNext() {
-                if (!started) {
-                    // We haven't started, attempt a request
-                    performRequest();
-                }
-
-                while ((output.size() == 0) && (nextToken != null)) {
-                    // Output array is empty but the next token is not null, attempt a request
-                    performRequest();
-                }
-
-                if (output.size() != 0) {
-                    // Output array is not empty, there is at least one more element
-                    return true;
-                }
-
-                // Output array is empty and the next token is NULL
-                return false;
-            }
+    private Stream<T> stream(Iterator<List<T>> pageIterator, PageRetrier pageRetrier) {
+        // This stream does not have a known size and does not contain NULL elements. It is sequential by default but
+        //   splits off fetched pages as batches for other workers if it is made parallel.
+        return StreamSupport.stream(new PageSpliterator<>(new MeteredPageIterator<>(pageIterator, getPaginationOperation(), getPaginationMetricsListener(), pageRetrier), true), false);
+    }
 
-            @Override
-            public T next() {
-                return output.remove(0);
-            }
-        };
+    private PageRetrier getPageRetrier() {
+        return new PageRetrier(getPageRetryPolicy(), this::isRetryable, this::isThrottling, getPaginationOperation(), getPaginationMetricsListener());
+    }
 
-        // This stream does not have a known size, does not contain NULL elements, and can not be run in parallel
-        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false);
+    private boolean isThrottling(RuntimeException runtimeException) {
+        return (runtimeException instanceof SdkException) && RetryUtils.isThrottlingException((SdkException) runtimeException);
     }
 
-    private AwsRequest configureRequest() {
-        if (originalAwsRequest != null) {
-            // Use the existing request
-            return originalAwsRequest.toBuilder().build();
+    private boolean isRetryable(RuntimeException runtimeException) {
+        if (runtimeException instanceof AwsServiceException) {
+            // Server side errors are usually transient
+            return ((AwsServiceException) runtimeException).statusCode() >= 500;
         }
 
-        return v2ReflectionHelper.getNewRequest(awsRequestClass);
+        // Client side errors are only retried when the request could not be sent or the response could not be read
+        return (runtimeException instanceof SdkClientException) && (runtimeException.getCause() instanceof IOException);
     }
 
-    private AwsResponse queryNextResults(AwsRequest request) {
-        if (clientMethodReturningResult == null) {
-            // Look for a public method in the client (AWSIot, etc) that takes a AwsRequest and returns a V.  If zero or more than one exists, fail.
-            clientMethodReturningResult = v2ReflectionHelper.getMethodWithParameterAndReturnType(sdkClient.getClass(), awsRequestClass, getResponseClass());
-        }
+    private FetchedPage<AwsRequest, T> fetchPage(PageRetrier pageRetrier, AwsRequest request) {
+        // Look up the pagination methods first so the lookup time is not included in the page latency
+        V2PaginationMethods paginationMethods = getPaginationMethods();
 
-        if (!clientMethodReturningResult.isPresent()) {
-            throw new UnsupportedOperationException("Failed to find a method returning the expected response type, this should never happen.");
-        }
+        long startNanos = System.nanoTime();
+        AwsResponse awsResponse;
 
         try {
-            // This is necessary because these methods are not accessible by default
-            clientMethodReturningResult.get().setAccessible(true);
-            return (AwsResponse) clientMethodReturningResult.get().invoke(sdkClient, request);
-        } catch (IllegalAccessException e) {
-            e.printStackTrace();
-            throw new UnsupportedOperationException(e);
-        } catch (InvocationTargetException e) {
-            if (e.getTargetException() instanceof SdkClientException) {
-                SdkClientException sdkClientException = (SdkClientException) e.getTargetException();
-
-                if (sdkClientException.getMessage().contains("Unable to execute HTTP request")) {
-                    log.error("Unable to connect to the API.  Do you have an Internet connection?");
-                    return null;
-                }
-            }
-
-            e.printStackTrace();
-            throw new UnsupportedOperationException(e);
+            awsResponse = queryNextResults(pageRetrier, request);
+        } catch (RuntimeException e) {
+            getPaginationMetricsListener().pageFailed(getPaginationOperation(), e);
+            throw e;
         }
+
+        long latencyNanos = System.nanoTime() - startNanos;
+
+        FetchedPage<AwsRequest, T> fetchedPage = paginationMethods.toFetchedPage(request, awsResponse);
+        getPaginationMetricsListener().pageFetched(getPaginationOperation(), latencyNanos, fetchedPage.getItems().size());
+
+        return fetchedPage;
     }
 
-    private Class<? extends AwsResponse> getResponseClass() {
-        synchronized (this) {
-            if (!optionalResponseClass.isPresent()) {
-                String requestClassName = awsRequestClass.getName();
-                String responseClassName = requestClassName.replaceAll("Request$", "Response");
-
-                try {
-                    optionalResponseClass = Optional.of((Class<? extends AwsResponse>) Class.forName(responseClassName));
-                } catch (ClassNotFoundException e) {
-                    e.printStackTrace();
-                    throw new UnsupportedOperationException(e);
-                }
-            }
+    private AwsRequest configureRequest() {
+        if (originalAwsRequest != null) {
+            // Use the existing request
+            return originalAwsRequest.toBuilder().build();
         }
 
-        return optionalResponseClass.get();
+        return v2ReflectionHelper.getNewRequest(awsRequestClass);
     }
 
-    private List<T> getResultData() {
-        if (clientMethodReturningListT == null) {
-            // Look for a public method that takes no arguments and returns a List<T>.  If zero or more than one exists, fail.
+    private V2PaginationMethods getPaginationMethods() {
+        if (v2PaginationMethods == null) {
+            // Determine the element type so anonymous subclasses with a concrete type get their own cache entry
             // From: https://stackoverflow.com/a/1901275/796579
             Class<T> returnClass = Try.of(() -> (Class<T>) ((ParameterizedType) getClass().getGenericSuperclass()).getActualTypeArguments()[0])
                     .orElse(Try.of(() -> (Class<T>) getClass().getGenericSuperclass()))
                     .getOrElse((Class<T>) List.class);
-            clientMethodReturningListT = v2ReflectionHelper.getMethodWithParameterAndReturnType(getResponseClass(), null, returnClass);
-        }
 
-        if (!clientMethodReturningListT.isPresent()) {
-            throw new UnsupportedOperationException("Failed to find a method returning the expected list type, this should never happen.");
-        }
+            V2PaginationMethodsKey v2PaginationMethodsKey = ImmutableV2PaginationMethodsKey.builder()
+                    .clientClass(sdkClient.getClass())
+                    .requestClass(awsRequestClass)
+                    .elementClass(returnClass)
+                    .binderClass(getV2PaginationBinder().getClass())
+                    .build();
 
-        try {
-            return (List<T>) clientMethodReturningListT.get().invoke(awsResponse);
-        } catch (IllegalAccessException |
-                InvocationTargetException e) {
-            e.printStackTrace();
-            throw new UnsupportedOperationException(e);
+            V2PaginationMethodsResolver v2PaginationMethodsResolver = new V2PaginationMethodsResolver(v2ReflectionHelper, getV2PaginationBinder());
+            v2PaginationMethods = V2PaginationMethodsCache.get(v2PaginationMethodsKey, key -> resolvePaginationMethods(v2PaginationMethodsResolver, key));
         }
 
+        return v2PaginationMethods;
     }
 
-    private String getNextToken() {
-        if (clientGetMethodReturningString == null) {
-            // Look for a public method that takes no arguments and returns a string that matches our list of expected names.  If zero or more than one exists, fail.
-            clientGetMethodReturningString = v2ReflectionHelper.getMethodWithParameterReturnTypeAndNames(getResponseClass(), null, String.class, primaryTokenMethodNames);
+    private V2PaginationMethods resolvePaginationMethods(V2PaginationMethodsResolver v2PaginationMethodsResolver, V2PaginationMethodsKey v2PaginationMethodsKey) {
+        long startNanos = System.nanoTime();
+        V2PaginationMethods resolvedV2PaginationMethods = v2PaginationMethodsResolver.resolve(v2PaginationMethodsKey);
+        getPaginationMetricsListener().reflectionLookupCompleted(getPaginationOperation(), System.nanoTime() - startNanos);
 
-            if (!clientGetMethodReturningString.isPresent()) {
-                // Only look for the secondary method if the primary methods aren't there
-                v2ReflectionHelper.getMethodWithParameterReturnTypeAndNames(getResponseClass(), null, String.class, secondaryTokenMethodNames);
-            }
-        }
+        return resolvedV2PaginationMethods;
+    }
 
-        if (!clientGetMethodReturningString.isPresent()) {
-            // Some methods like S3's listBuckets do not have pagination
-            return null;
+    private PaginationOperation getPaginationOperation() {
+        if (paginationOperation == null) {
+            paginationOperation = PaginationOperation.of(sdkClient.serviceName(), awsRequestClass);
         }
 
-        try {
-            return (String) clientGetMethodReturningString.get().invoke(awsResponse);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            e.printStackTrace();
-            throw new UnsupportedOperationException(e);
-        }
+        return paginationOperation;
     }
 
-    private AwsRequest setNextToken(AwsRequest request, String nextToken) {
-        if (!clientGetMethodReturningString.isPresent()) {
-            throw new UnsupportedOperationException("Trying to set the next token on a method that does not support pagination, this should never happen.");
-        }
+    /**
+     * Override this to change how the pagination methods are invoked (e.g. with ReflectionV2PaginationBinder)
+     */
+    protected V2PaginationBinder getV2PaginationBinder() {
+        return DEFAULT_V2_PAGINATION_BINDER;
+    }
 
-        if (clientSetMethodAcceptingString == null) {
-            // Look for a public method that takes a string and returns a builder class that matches our list of expected names.  If zero or more than one exists, fail.
-            Class<? extends AwsRequest.Builder> builderClass = request.toBuilder().getClass();
-            clientSetMethodAcceptingString = v2ReflectionHelper.getMethodWithParameterReturnTypeAndNames(builderClass, String.class, builderClass, primaryTokenMethodNames);
+    /**
+     * Override this to use a different retry policy than the one in PageRetryPolicies
+     */
+    protected PageRetryPolicy getPageRetryPolicy() {
+        return PageRetryPolicies.getDefault();
+    }
 
-            if (!clientSetMethodAcceptingString.isPresent()) {
-                // Only look for these methods if the first search fails
-                clientSetMethodAcceptingString = v2ReflectionHelper.getMethodWithParameterReturnTypeAndNames(builderClass, String.class, builderClass, secondaryTokenMethodNames);
-            }
-        }
+    /**
+     * Override this to report to a different listener than the one in PaginationMetricsListeners
+     */
+    protected PaginationMetricsListener getPaginationMetricsListener() {
+        return PaginationMetricsListeners.getDefault();
+    }
+
+    private AwsResponse queryNextResults(PageRetrier pageRetrier, AwsRequest request) {
+        Optional<BiFunction<SdkClient, AwsRequest, AwsResponse>> clientMethodReturningResult = getPaginationMethods().getClientMethodReturningResult();
 
-        if (!clientSetMethodAcceptingString.isPresent()) {
-            throw new UnsupportedOperationException("Failed to find the set next token method, this should never happen.");
+        if (!clientMethodReturningResult.isPresent()) {
+            throw new UnsupportedOperationException("Failed to find a method returning the expected response type, this should never happen.");
         }
 
         try {
-            AwsRequest.Builder builder = request.toBuilder();
-            clientSetMethodAcceptingString.get().setAccessible(true);
-            clientSetMethodAcceptingString.get().invoke(builder, nextToken);
-            return builder.build();
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            // Retries send the same request so the page token is reused
+            return pageRetrier.call(() -> clientMethodReturningResult.get().apply(sdkClient, request));
+        } catch (SdkClientException e) {
+            if ((e.getMessage() != null) && e.getMessage().contains("Unable to execute HTTP request")) {
+                log.error("Unable to connect to the API.  Do you have an Internet connection?");
+            }
+
+            e.printStackTrace();
+            throw new UnsupportedOperationException(e);
+        } catch (RuntimeException e) {
             e.printStackTrace();
             throw new UnsupportedOperationException(e);
         }
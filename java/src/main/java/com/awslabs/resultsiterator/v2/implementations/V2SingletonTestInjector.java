@@ -0,0 +1,33 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import com.awslabs.resultsiterator.v2.V2SingletonHelperModule;
+import com.awslabs.s3.helpers.interfaces.V2S3Helper;
+import com.awslabs.sqs.helpers.interfaces.V2SqsHelper;
+import dagger.Component;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.services.iot.IotClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.sqs.SqsClient;
+
+import javax.inject.Singleton;
+
+@Singleton
+@Component(modules = {V2SingletonHelperModule.class})
+public interface V2SingletonTestInjector {
+    IotClient iotClient();
+
+    S3Client s3Client();
+
+    SqsClient sqsClient();
+
+    SdkHttpClient sdkHttpClient();
+
+    AwsCredentialsProvider awsCredentialsProvider();
+
+    V2SqsHelper v2SqsHelper();
+
+    V2S3Helper v2S3Helper();
+
+    V2ClientLifecycle v2ClientLifecycle();
+}
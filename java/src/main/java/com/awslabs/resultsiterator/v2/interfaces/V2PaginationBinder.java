@@ -0,0 +1,17 @@
+package com.awslabs.resultsiterator.v2.interfaces;
+
+import java.lang.reflect.Method;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Turns the reflected pagination methods into functional interfaces once so the page loop does not need to use
+ * reflection for every call. Exceptions thrown by the underlying methods are rethrown as-is.
+ */
+public interface V2PaginationBinder {
+    // For instance methods that take no arguments (e.g. response.nextToken())
+    <I, R> Function<I, R> bindFunction(Method method);
+
+    // For instance methods that take a single argument (e.g. client.listThings(request))
+    <I, A, R> BiFunction<I, A, R> bindBiFunction(Method method);
+}
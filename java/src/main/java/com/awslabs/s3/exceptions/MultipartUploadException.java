@@ -0,0 +1,23 @@
+package com.awslabs.s3.exceptions;
+
+/**
+ * Thrown when a multipart upload fails. If the upload was not aborted it can be continued with its upload ID.
+ */
+public class MultipartUploadException extends RuntimeException {
+    private final String uploadId;
+    private final boolean aborted;
+
+    public MultipartUploadException(String uploadId, boolean aborted, Throwable cause) {
+        super("Multipart upload [" + uploadId + "] failed" + (aborted ? " and was aborted" : ""), cause);
+        this.uploadId = uploadId;
+        this.aborted = aborted;
+    }
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public boolean isAborted() {
+        return aborted;
+    }
+}
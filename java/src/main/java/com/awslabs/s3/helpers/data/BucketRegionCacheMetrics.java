@@ -0,0 +1,22 @@
+package com.awslabs.s3.helpers.data;
+
+import com.awslabs.data.NoToString;
+import org.immutables.value.Value;
+
+@Value.Immutable
+public abstract class BucketRegionCacheMetrics extends NoToString {
+    public abstract long hitCount();
+
+    public abstract long missCount();
+
+    // Lookups that threw an exception (e.g. the bucket does not exist) are not cached
+    public abstract long lookupFailureCount();
+
+    public abstract int regionClientCount();
+
+    public double hitRate() {
+        long requestCount = hitCount() + missCount();
+
+        return (requestCount == 0) ? 1.0 : (double) hitCount() / requestCount;
+    }
+}
@@ -0,0 +1,18 @@
+package com.awslabs.s3.helpers.data;
+
+import com.awslabs.data.NoToString;
+import org.immutables.value.Value;
+
+@Value.Immutable
+public abstract class DownloadResult extends NoToString {
+    public abstract long contentLength();
+
+    public abstract int rangeCount();
+
+    // The number of extra requests that were needed to finish ranges that failed part way
+    public abstract int rangeRetryCount();
+
+    // False when the file could not be checked, either because the object's ETag is not based on its content (e.g.
+    //   SSE-KMS) or because it was uploaded in parts of a size that wasn't tried
+    public abstract boolean eTagVerified();
+}
@@ -0,0 +1,38 @@
+package com.awslabs.s3.helpers.data;
+
+import com.awslabs.data.NoToString;
+import com.awslabs.resultsiterator.data.FanOutPolicy;
+import org.immutables.value.Value;
+
+/**
+ * Controls how a file is split into parts and how many parts are uploaded at once. Failed uploads are aborted by
+ * default so they don't leave billable parts behind, turn this off to be able to resume them instead.
+ */
+@Value.Immutable
+public abstract class MultipartUploadPolicy extends NoToString {
+    public static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    public static final long MAX_PART_SIZE = 5L * 1024 * 1024 * 1024;
+    public static final long DEFAULT_PART_SIZE = 8L * 1024 * 1024;
+    // Keeps files up to the 5 TB object limit under the 10,000 part limit
+    public static final long LARGE_FILE_PART_SIZE = MAX_PART_SIZE / 8;
+
+    // The executor and the number of parts in flight at once
+    public abstract FanOutPolicy fanOutPolicy();
+
+    @Value.Default
+    public long partSize() {
+        return DEFAULT_PART_SIZE;
+    }
+
+    @Value.Default
+    public boolean abortOnFailure() {
+        return true;
+    }
+
+    @Value.Check
+    protected void check() {
+        if ((partSize() < MIN_PART_SIZE) || (partSize() > MAX_PART_SIZE)) {
+            throw new IllegalArgumentException("The part size must be between 5 MiB and 5 GiB");
+        }
+    }
+}
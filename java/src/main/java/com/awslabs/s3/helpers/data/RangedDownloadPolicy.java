@@ -0,0 +1,40 @@
+package com.awslabs.s3.helpers.data;
+
+import com.awslabs.data.NoToString;
+import com.awslabs.resultsiterator.data.FanOutPolicy;
+import org.immutables.value.Value;
+
+/**
+ * Controls how an object is split into byte ranges, how many ranges are downloaded at once, and how many times a range
+ * is requested before the download fails. A retry only requests the bytes of the range that were not written yet.
+ */
+@Value.Immutable
+public abstract class RangedDownloadPolicy extends NoToString {
+    public static final long MIN_RANGE_SIZE = 1024 * 1024;
+    public static final long DEFAULT_RANGE_SIZE = 8L * 1024 * 1024;
+    public static final int DEFAULT_MAX_RANGE_ATTEMPTS = 3;
+
+    // The executor and the number of ranges in flight at once
+    public abstract FanOutPolicy fanOutPolicy();
+
+    @Value.Default
+    public long rangeSize() {
+        return DEFAULT_RANGE_SIZE;
+    }
+
+    @Value.Default
+    public int maxRangeAttempts() {
+        return DEFAULT_MAX_RANGE_ATTEMPTS;
+    }
+
+    @Value.Check
+    protected void check() {
+        if (rangeSize() < MIN_RANGE_SIZE) {
+            throw new IllegalArgumentException("The range size must be at least 1 MiB");
+        }
+
+        if (maxRangeAttempts() < 1) {
+            throw new IllegalArgumentException("The maximum number of range attempts must be at least 1");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.awslabs.s3.helpers.data;
+
+import com.awslabs.data.NoToString;
+import org.immutables.value.Value;
+
+@Value.Immutable
+public abstract class SyncResult extends NoToString {
+    public static final SyncResult EMPTY = ImmutableSyncResult.builder().build();
+
+    @Value.Default
+    public long objectsTransferred() {
+        return 0;
+    }
+
+    @Value.Default
+    public long bytesTransferred() {
+        return 0;
+    }
+
+    // Objects that were not uploaded because S3 already has the same content
+    @Value.Default
+    public long objectsSkipped() {
+        return 0;
+    }
+
+    @Value.Default
+    public long bytesSkipped() {
+        return 0;
+    }
+
+    // Skipped objects with the same size as the local file whose ETags can't be checked against it, they were stored
+    //   after the local file last changed and are also counted as skipped
+    @Value.Default
+    public long objectsUnverified() {
+        return 0;
+    }
+
+    public SyncResult add(SyncResult other) {
+        return ImmutableSyncResult.builder()
+                .objectsTransferred(objectsTransferred() + other.objectsTransferred())
+                .bytesTransferred(bytesTransferred() + other.bytesTransferred())
+                .objectsSkipped(objectsSkipped() + other.objectsSkipped())
+                .bytesSkipped(bytesSkipped() + other.bytesSkipped())
+                .objectsUnverified(objectsUnverified() + other.objectsUnverified())
+                .build();
+    }
+}
@@ -1,12 +1,18 @@
 package com.awslabs.s3.helpers.implementations;
 
+import com.awslabs.resultsiterator.data.FanOutPolicy;
+import com.awslabs.resultsiterator.data.ImmutableFanOutPolicy;
+import com.awslabs.resultsiterator.implementations.OrderedFanOutIterator;
+import com.awslabs.resultsiterator.v2.implementations.RegionalClientCache;
 import com.awslabs.resultsiterator.v2.implementations.V2ResultsIterator;
 import com.awslabs.s3.helpers.data.*;
 import com.awslabs.s3.helpers.interfaces.V2S3Helper;
+import com.google.common.cache.CacheStats;
 import io.vavr.control.Try;
 import org.bouncycastle.crypto.params.ISO18033KDFParameters;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.regions.providers.AwsRegionProviderChain;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3ClientBuilder;
 import software.amazon.awssdk.services.s3.model.*;
@@ -14,14 +20,38 @@ import software.amazon.awssdk.services.s3.model.*;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import java.io.File;
-import java.util.Optional;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class BasicV2S3Helper implements V2S3Helper {
+    private static final long MAX_SINGLE_PUT_SIZE = 5L * 1024 * 1024 * 1024;
+    private static final FanOutPolicy SEQUENTIAL_FAN_OUT_POLICY = ImmutableFanOutPolicy.builder().executor(Runnable::run).permits(1).build();
+    private static final MultipartUploadPolicy SEQUENTIAL_MULTIPART_UPLOAD_POLICY = ImmutableMultipartUploadPolicy.builder()
+            .fanOutPolicy(SEQUENTIAL_FAN_OUT_POLICY)
+            .partSize(MultipartUploadPolicy.LARGE_FILE_PART_SIZE)
+            .build();
+    private static final RangedDownloadPolicy SEQUENTIAL_RANGED_DOWNLOAD_POLICY = ImmutableRangedDownloadPolicy.builder()
+            .fanOutPolicy(SEQUENTIAL_FAN_OUT_POLICY)
+            .build();
+    private static final long MAX_LISTED_OBJECTS_PER_KEY = 1000;
+    // NOTE: The bucket regions are shared by every helper so each bucket is looked up once per TTL in this process
+    private static final BucketRegionCache BUCKET_REGION_CACHE = new BucketRegionCache();
+    // Building a client creates a new connection pool so clients are reused for the lifetime of this helper
+    private final RegionalClientCache<S3Client> s3ClientCache = new RegionalClientCache<>(this::buildS3Client);
+    // NOTE: This is initialized to null so we can determine if we have looked up the default region already
+    private volatile Region defaultRegion = null;
+
     @Inject
     Provider<S3Client> s3ClientProvider;
     @Inject
     Provider<S3ClientBuilder> s3ClientBuilderProvider;
+    @Inject
+    AwsRegionProviderChain awsRegionProviderChain;
 
     @Inject
     public BasicV2S3Helper() {
@@ -29,7 +59,11 @@ public class BasicV2S3Helper implements V2S3Helper {
 
     @Override
     public boolean bucketExists(Bucket bucket) {
-        return bucketExists(s3ClientProvider.get(), bucket);
+        // NOTE: This doesn't use the region cache so a bucket that was deleted is reported as missing right away
+        return Try.of(() -> lookUpBucketRegion(bucket.name()))
+                .map(region -> true)
+                .recover(NoSuchBucketException.class, false)
+                .get();
     }
 
     @Override
@@ -52,52 +86,241 @@ public class BasicV2S3Helper implements V2S3Helper {
 
     @Override
     public boolean objectExists(S3Client s3Client, Bucket bucket, String key) {
-        if (!bucketExists(bucket)) {
-            return false;
+        HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
+                .bucket(bucket.name())
+                .key(key)
+                .build();
+
+        // HEAD responses have no body so a missing key or bucket is only reported as a 404
+        return Try.of(() -> s3Client.headObject(headObjectRequest) != null)
+                .recoverWith(S3Exception.class, s3Exception -> (s3Exception.statusCode() == 404) ? Try.success(false) : Try.failure(s3Exception))
+                .get();
+    }
+
+    @Override
+    public Map<String, Boolean> objectsExist(Bucket bucket, Collection<String> keys) {
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        keys.forEach(key -> results.put(key, false));
+
+        if (keys.isEmpty()) {
+            return results;
+        }
+
+        // A bucket that doesn't exist fails the region lookup, that lookup is not cached
+        Optional<S3Client> optionalS3Client = Try.of(() -> Optional.of(getRegionSpecificClientForBucket(bucket)))
+                .recover(NoSuchBucketException.class, Optional.empty())
+                .get();
+
+        if (!optionalS3Client.isPresent()) {
+            return results;
+        }
+
+        S3Client s3Client = optionalS3Client.get();
+
+        for (SortedSet<String> keyGroup : groupKeysByPrefix(keys)) {
+            if (keyGroup.size() == 1) {
+                // A single HEAD request is cheaper than a listing
+                String key = keyGroup.first();
+                results.put(key, objectExists(s3Client, bucket, key));
+                continue;
+            }
+
+            Set<String> existingKeys = getExistingKeys(s3Client, bucket, keyGroup);
+            keyGroup.forEach(key -> results.put(key, existingKeys.contains(key)));
         }
 
-        ListObjectsRequest listObjectsRequest = ListObjectsRequest.builder()
+        return results;
+    }
+
+    private List<SortedSet<String>> groupKeysByPrefix(Collection<String> keys) {
+        List<SortedSet<String>> keyGroups = new ArrayList<>();
+        Optional<String> optionalPreviousKey = Optional.empty();
+
+        for (String key : new TreeSet<>(keys)) {
+            int directoryLength = key.lastIndexOf('/') + 1;
+            boolean sharesPrefix = optionalPreviousKey
+                    // Keys are only listed together when they share more than their directory, otherwise the listing
+                    //   could cover every object in between
+                    .map(previousKey -> getCommonPrefix(previousKey, key).length() > directoryLength)
+                    .orElse(false);
+
+            if (!sharesPrefix) {
+                keyGroups.add(new TreeSet<>());
+            }
+
+            keyGroups.get(keyGroups.size() - 1).add(key);
+            optionalPreviousKey = Optional.of(key);
+        }
+
+        return keyGroups;
+    }
+
+    private Set<String> getExistingKeys(S3Client s3Client, Bucket bucket, SortedSet<String> keyGroup) {
+        String firstKey = keyGroup.first();
+        String lastKey = keyGroup.last();
+
+        ListObjectsV2Request.Builder listObjectsV2RequestBuilder = ListObjectsV2Request.builder()
                 .bucket(bucket.name())
-                .prefix(key)
-                .build();
+                .prefix(getCommonPrefix(firstKey, lastKey));
+
+        if (firstKey.length() > 1) {
+            // Start the listing just before the first key instead of at the beginning of the prefix
+            listObjectsV2RequestBuilder.startAfter(firstKey.substring(0, firstKey.length() - 1));
+        }
+
+        Set<String> existingKeys = new HashSet<>();
+        // The listing replaces one HEAD request per key so it stops once it has listed as many pages as there are keys
+        long maxListedObjects = keyGroup.size() * getMaxListedObjectsPerKey();
+        long listedObjectCount = 0;
+        String lastListedKey = "";
+
+        try (Stream<S3Object> s3Objects = new V2ResultsIterator<S3Object>(s3Client, listObjectsV2RequestBuilder.build()).stream()) {
+            Iterator<S3Object> s3ObjectIterator = s3Objects.iterator();
+
+            // Pages are only fetched while there are keys left to find
+            while (existingKeys.size() < keyGroup.size()) {
+                if (listedObjectCount == maxListedObjects) {
+                    // Sparse keys can have any number of objects between them, the keys that weren't reached are
+                    //   checked on their own
+                    keyGroup.tailSet(lastListedKey + Character.MIN_VALUE).stream()
+                            .filter(key -> objectExists(s3Client, bucket, key))
+                            .forEach(existingKeys::add);
+                    break;
+                }
+
+                if (!s3ObjectIterator.hasNext()) {
+                    break;
+                }
+
+                String key = s3ObjectIterator.next().key();
+
+                if (key.compareTo(lastKey) > 0) {
+                    // Keys are listed in order so nothing after the last key can match
+                    break;
+                }
+
+                if (keyGroup.contains(key)) {
+                    existingKeys.add(key);
+                }
+
+                lastListedKey = key;
+                listedObjectCount++;
+            }
+        }
+
+        return existingKeys;
+    }
 
-        Stream<S3Object> s3Objects = new V2ResultsIterator<S3Object>(getRegionSpecificClientForBucket(bucket), listObjectsRequest).stream();
+    private String getCommonPrefix(String first, String second) {
+        int length = 0;
 
-        Optional<S3Object> optionalS3Object = s3Objects
-                // Require an exact match on the name
-                .filter(object -> object.key().equals(key))
-                .findFirst();
+        while ((length < first.length()) && (length < second.length()) && (first.charAt(length) == second.charAt(length))) {
+            length++;
+        }
 
-        return optionalS3Object.isPresent();
+        return first.substring(0, length);
     }
 
     @Override
     public S3Client getRegionSpecificClientForBucket(Bucket bucket) {
-        GetBucketLocationRequest getBucketLocationRequest = GetBucketLocationRequest.builder()
-                .bucket(bucket.name())
+        // NOTE: The cached region is the bucket's actual region so it is valid for helpers whose default clients are
+        //   in different regions
+        Region region = getBucketRegion(bucket);
+
+        if (region.equals(getDefaultRegion())) {
+            // The default client is already in the right region
+            return s3ClientProvider.get();
+        }
+
+        return s3ClientCache.get(region);
+    }
+
+    @Override
+    public void close() {
+        s3ClientCache.close();
+    }
+
+    @Override
+    public BucketRegionCacheMetrics getBucketRegionCacheMetrics() {
+        CacheStats cacheStats = getBucketRegionCache().stats();
+
+        return ImmutableBucketRegionCacheMetrics.builder()
+                .hitCount(cacheStats.hitCount())
+                .missCount(cacheStats.missCount())
+                .lookupFailureCount(cacheStats.loadExceptionCount())
+                .regionClientCount(s3ClientCache.size())
                 .build();
+    }
+
+    /**
+     * Override this to use a different cache than the one shared by all helpers
+     */
+    protected BucketRegionCache getBucketRegionCache() {
+        return BUCKET_REGION_CACHE;
+    }
+
+    /**
+     * The number of objects in a full ListObjectsV2 page, override this if the listings use smaller pages
+     */
+    protected long getMaxListedObjectsPerKey() {
+        return MAX_LISTED_OBJECTS_PER_KEY;
+    }
+
+    protected S3Client buildS3Client(Region region) {
+        return s3ClientBuilderProvider.get().region(region).build();
+    }
+
+    private Region getDefaultRegion() {
+        if (defaultRegion == null) {
+            // The region provider chain may read environment variables, system properties, and profile files so it is only checked once
+            defaultRegion = awsRegionProviderChain.getRegion();
+        }
+
+        return defaultRegion;
+    }
 
-        S3Client defaultS3Client = s3ClientProvider.get();
+    private Region getBucketRegion(Bucket bucket) {
+        return getBucketRegionCache().get(bucket.name(), this::lookUpBucketRegion);
+    }
+
+    private Region lookUpBucketRegion(String bucketName) {
+        GetBucketLocationRequest getBucketLocationRequest = GetBucketLocationRequest.builder()
+                .bucket(bucketName)
+                .build();
 
-        return Try.of(() -> defaultS3Client.getBucketLocation(getBucketLocationRequest))
-                // If no exception is thrown we're in the right region, just return the existing client
-                .map(getBucketLocationResponse -> defaultS3Client)
-                // If an exception is thrown attempt to get the region specific client
-                .recoverWith(S3Exception.class, this::getRegionSpecificClientForBucketAfterException)
+        return Try.of(() -> s3ClientProvider.get().getBucketLocation(getBucketLocationRequest))
+                // If no exception is thrown the location constraint is the bucket's region
+                .map(this::getRegionFromLocationConstraint)
+                // If an exception is thrown attempt to get the region from it
+                .recoverWith(S3Exception.class, this::getRegionAfterException)
                 // Throw an exception if it wasn't handled already
                 .get();
     }
 
-    private Try<S3Client> getRegionSpecificClientForBucketAfterException(S3Exception s3Exception) {
+    private Region getRegionFromLocationConstraint(GetBucketLocationResponse getBucketLocationResponse) {
+        String locationConstraint = getBucketLocationResponse.locationConstraintAsString();
+
+        if ((locationConstraint == null) || locationConstraint.isEmpty()) {
+            // Buckets in us-east-1 have no location constraint
+            return Region.US_EAST_1;
+        }
+
+        if (locationConstraint.equals(BucketLocationConstraint.EU.toString())) {
+            // Legacy location constraint for buckets created in eu-west-1
+            return Region.EU_WEST_1;
+        }
+
+        return Region.of(locationConstraint);
+    }
+
+    private Try<Region> getRegionAfterException(S3Exception s3Exception) {
         if (!regionIsWrongException(s3Exception)) {
             // This isn't an exception that contains the info we need
             return Try.failure(s3Exception);
         }
 
         // Extract the region information
-        return Try.of(() -> extractRegionFromRegionIsWrongException(s3Exception))
-                // Create a new S3 client with the extracted region
-                .map(region -> s3ClientBuilderProvider.get().region(region).build());
+        return Try.of(() -> extractRegionFromRegionIsWrongException(s3Exception));
     }
 
     private Region extractRegionFromRegionIsWrongException(S3Exception s3Exception) {
@@ -118,15 +341,17 @@ public class BasicV2S3Helper implements V2S3Helper {
 
     @Override
     public PutObjectResponse copyToS3(S3Bucket s3Bucket, S3Path s3Path, File file) {
+        return copyToS3(s3Bucket, toS3Key(s3Path, file.getName()), file);
+    }
+
+    private S3Key toS3Key(S3Path s3Path, String relativeKey) {
         if (s3Path.path().equals("/")) {
             // Clear out the S3 directory if it is just the root
             s3Path = ImmutableS3Path.builder().path("").build();
         }
 
-        String s3FileName = file.getName();
-
         // Put the key together from the path
-        String keyString = String.join("/", s3Path.path(), s3FileName);
+        String keyString = String.join("/", s3Path.path(), relativeKey);
 
         if (keyString.startsWith("/")) {
             // If there's a leading slash remove it
@@ -136,18 +361,120 @@ public class BasicV2S3Helper implements V2S3Helper {
         // Replace any accidental double slashes
         keyString = keyString.replaceAll("//", "/");
 
-        S3Key s3Key = ImmutableS3Key.builder().key(keyString).build();
-
-        return copyToS3(s3Bucket, s3Key, file);
+        return ImmutableS3Key.builder().key(keyString).build();
     }
 
     @Override
     public PutObjectResponse copyToS3(S3Bucket s3Bucket, S3Key s3Key, File file) {
+        if (file.length() > MAX_SINGLE_PUT_SIZE) {
+            // A single put can't be this large, upload it in parts one at a time on this thread instead
+            CompleteMultipartUploadResponse completeMultipartUploadResponse = copyToS3(s3Bucket, s3Key, file, SEQUENTIAL_MULTIPART_UPLOAD_POLICY);
+
+            return PutObjectResponse.builder()
+                    .eTag(completeMultipartUploadResponse.eTag())
+                    .versionId(completeMultipartUploadResponse.versionId())
+                    .build();
+        }
+
         PutObjectRequest putObjectRequest = PutObjectRequest.builder()
                 .bucket(s3Bucket.bucket())
                 .key(s3Key.key())
                 .build();
 
+        // NOTE: The default client is used so callers without s3:GetBucketLocation can still upload small files
         return s3ClientProvider.get().putObject(putObjectRequest, RequestBody.fromFile(file));
     }
+
+    @Override
+    public CompleteMultipartUploadResponse copyToS3(S3Bucket s3Bucket, S3Key s3Key, File file, MultipartUploadPolicy multipartUploadPolicy) {
+        return getMultipartUploader(s3Bucket, multipartUploadPolicy).upload(s3Bucket, s3Key, file);
+    }
+
+    @Override
+    public CompleteMultipartUploadResponse resumeCopyToS3(S3Bucket s3Bucket, S3Key s3Key, File file, MultipartUploadPolicy multipartUploadPolicy, String uploadId) {
+        return getMultipartUploader(s3Bucket, multipartUploadPolicy).resume(s3Bucket, s3Key, file, uploadId);
+    }
+
+    @Override
+    public SyncResult syncDirectory(S3Bucket s3Bucket, S3Path s3Path, Path directory) {
+        return syncDirectory(s3Bucket, s3Path, directory, SEQUENTIAL_FAN_OUT_POLICY);
+    }
+
+    @Override
+    public SyncResult syncDirectory(S3Bucket s3Bucket, S3Path s3Path, Path directory, FanOutPolicy fanOutPolicy) {
+        S3Client s3Client = getRegionSpecificClientForBucket(Bucket.builder().name(s3Bucket.bucket()).build());
+
+        // List the remote prefix once up front instead of checking each file on its own
+        ListObjectsV2Request listObjectsV2Request = ListObjectsV2Request.builder()
+                .bucket(s3Bucket.bucket())
+                .prefix(toS3Key(s3Path, "").key())
+                .build();
+
+        Map<String, S3Object> remoteObjects = new V2ResultsIterator<S3Object>(s3Client, listObjectsV2Request).stream()
+                .collect(Collectors.toMap(S3Object::key, Function.identity()));
+
+        // NOTE: The local tree is walked lazily and files are hashed and uploaded on the fan out policy's executor
+        try (Stream<Path> localFiles = Try.of(() -> Files.walk(directory)).get().filter(Files::isRegularFile);
+             Stream<SyncResult> syncResults = OrderedFanOutIterator.stream(localFiles, localFile -> syncFile(s3Bucket, toS3Key(s3Path, toRelativeKey(directory, localFile)), localFile, remoteObjects), fanOutPolicy)) {
+            return syncResults.reduce(SyncResult.EMPTY, SyncResult::add);
+        }
+    }
+
+    private String toRelativeKey(Path directory, Path localFile) {
+        // S3 keys always use forward slashes
+        return directory.relativize(localFile).toString().replace(File.separatorChar, '/');
+    }
+
+    private SyncResult syncFile(S3Bucket s3Bucket, S3Key s3Key, Path localFile, Map<String, S3Object> remoteObjects) {
+        long size = Try.of(() -> Files.size(localFile)).get();
+
+        // Only hash the file when the sizes match
+        Optional<S3Object> sameSizeRemoteObject = Optional.ofNullable(remoteObjects.get(s3Key.key()))
+                .filter(s3Object -> Long.valueOf(size).equals(s3Object.size()));
+
+        ETags.Comparison comparison = sameSizeRemoteObject
+                .map(s3Object -> Try.of(() -> ETags.compare(localFile, s3Object.eTag())).get())
+                .orElse(ETags.Comparison.DIFFERS);
+
+        // NOTE: Objects uploaded in parts of a size that isn't tried can't be checked, they are only skipped when
+        //   they were stored after the local file was last changed and are uploaded again otherwise
+        if ((comparison == ETags.Comparison.UNVERIFIABLE) && isNotOlderThan(sameSizeRemoteObject.get(), localFile)) {
+            return ImmutableSyncResult.builder().objectsSkipped(1).bytesSkipped(size).objectsUnverified(1).build();
+        }
+
+        if (comparison == ETags.Comparison.MATCHES) {
+            return ImmutableSyncResult.builder().objectsSkipped(1).bytesSkipped(size).build();
+        }
+
+        copyToS3(s3Bucket, s3Key, localFile.toFile());
+
+        return ImmutableSyncResult.builder().objectsTransferred(1).bytesTransferred(size).build();
+    }
+
+    private boolean isNotOlderThan(S3Object s3Object, Path localFile) {
+        Instant localLastModified = Try.of(() -> Files.getLastModifiedTime(localFile).toInstant()).get();
+
+        return Optional.ofNullable(s3Object.lastModified())
+                .map(remoteLastModified -> !remoteLastModified.isBefore(localLastModified))
+                .orElse(false);
+    }
+
+    @Override
+    public DownloadResult downloadFromS3(S3Bucket s3Bucket, S3Key s3Key, Path destination) {
+        return downloadFromS3(s3Bucket, s3Key, destination, SEQUENTIAL_RANGED_DOWNLOAD_POLICY);
+    }
+
+    @Override
+    public DownloadResult downloadFromS3(S3Bucket s3Bucket, S3Key s3Key, Path destination, RangedDownloadPolicy rangedDownloadPolicy) {
+        S3Client s3Client = getRegionSpecificClientForBucket(Bucket.builder().name(s3Bucket.bucket()).build());
+
+        return new RangedDownloader(s3Client, rangedDownloadPolicy).download(s3Bucket, s3Key, destination);
+    }
+
+    private MultipartUploader getMultipartUploader(S3Bucket s3Bucket, MultipartUploadPolicy multipartUploadPolicy) {
+        // Parts are sent straight to the bucket's region so no request is redirected
+        S3Client s3Client = getRegionSpecificClientForBucket(Bucket.builder().name(s3Bucket.bucket()).build());
+
+        return new MultipartUploader(s3Client, multipartUploadPolicy);
+    }
 }
@@ -0,0 +1,57 @@
+package com.awslabs.s3.helpers.implementations;
+
+import com.google.common.base.Throwables;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import software.amazon.awssdk.regions.Region;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Remembers which region each bucket is in so the region is only looked up once per TTL. Only actual regions are
+ * stored so one cache can be shared by helpers whose default clients are in different regions. Concurrent lookups for
+ * the same bucket wait for a single lookup and failed lookups are not cached.
+ */
+public class BucketRegionCache {
+    public static final Duration DEFAULT_TTL = Duration.ofHours(1);
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+    private final Cache<String, Region> bucketRegions;
+
+    public BucketRegionCache() {
+        this(DEFAULT_TTL, Ticker.systemTicker());
+    }
+
+    public BucketRegionCache(Duration ttl, Ticker ticker) {
+        this.bucketRegions = CacheBuilder.newBuilder()
+                // Buckets can be deleted and recreated in another region so entries expire
+                .expireAfterWrite(ttl.toNanos(), TimeUnit.NANOSECONDS)
+                .maximumSize(DEFAULT_MAXIMUM_SIZE)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    public Region get(String bucketName, Function<String, Region> regionLookup) {
+        try {
+            return bucketRegions.get(bucketName, () -> regionLookup.apply(bucketName));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            // Throw the lookup's own exception so callers can handle it the same way as an uncached call
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    public void invalidate(String bucketName) {
+        bucketRegions.invalidate(bucketName);
+    }
+
+    public CacheStats stats() {
+        return bucketRegions.stats();
+    }
+}
@@ -0,0 +1,118 @@
+package com.awslabs.s3.helpers.implementations;
+
+import com.awslabs.s3.helpers.data.MultipartUploadPolicy;
+import com.google.common.io.BaseEncoding;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Computes the ETags S3 gives to local content. A single put has the MD5 of the content as its ETag and a multipart
+ * upload has the MD5 of its parts' MD5s followed by a dash and the number of parts. Objects encrypted with SSE-KMS or
+ * SSE-C have ETags that can't be computed locally so they never match.
+ */
+public class ETags {
+    public enum Comparison {
+        MATCHES,
+        DIFFERS,
+        // A multipart ETag that doesn't match any of the part sizes that were tried, the content may still be the same
+        UNVERIFIABLE
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long MEBIBYTE = 1024 * 1024;
+    private static final String MULTIPART_SEPARATOR = "-";
+    // The defaults of the SDKs and the CLI along with the default part sizes of this library. A custom
+    //   MultipartUploadPolicy part size can be anything from 5 MiB to 5 GiB so those ETags often can't be verified.
+    private static final List<Long> COMMON_PART_SIZES = Arrays.asList(MultipartUploadPolicy.MIN_PART_SIZE, 8 * MEBIBYTE, 15 * MEBIBYTE, 16 * MEBIBYTE,
+            MultipartUploadPolicy.DEFAULT_PART_SIZE, MultipartUploadPolicy.LARGE_FILE_PART_SIZE);
+
+    private ETags() {
+    }
+
+    public static String md5Hex(FileChannel fileChannel, long offset, long length) throws IOException {
+        return BaseEncoding.base16().lowerCase().encode(md5(fileChannel, offset, length));
+    }
+
+    /**
+     * Checks whether the file has the content the ETag describes. The part size of a multipart ETag is not stored so
+     * the common part sizes that give the same number of parts are tried, along with the file size divided by the
+     * number of parts rounded up to a whole MiB. A multipart ETag that matches none of them can't be verified.
+     */
+    public static Comparison compare(Path file, String eTag) throws IOException {
+        String unquotedETag = eTag.replace("\"", "").toLowerCase();
+
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = fileChannel.size();
+
+            if (!unquotedETag.contains(MULTIPART_SEPARATOR)) {
+                return unquotedETag.equals(md5Hex(fileChannel, 0, size)) ? Comparison.MATCHES : Comparison.DIFFERS;
+            }
+
+            int partCount = Integer.parseInt(unquotedETag.substring(unquotedETag.lastIndexOf(MULTIPART_SEPARATOR) + 1));
+            long dividedPartSize = ((size + partCount - 1) / partCount + MEBIBYTE - 1) / MEBIBYTE * MEBIBYTE;
+            Set<Long> partSizes = new LinkedHashSet<>(Collections.singletonList(dividedPartSize));
+            COMMON_PART_SIZES.forEach(partSizes::add);
+
+            for (long partSize : partSizes) {
+                if ((partSize > 0) && (getPartCount(size, partSize) == partCount) && unquotedETag.equals(multipartETag(fileChannel, size, partSize))) {
+                    return Comparison.MATCHES;
+                }
+            }
+
+            return Comparison.UNVERIFIABLE;
+        } catch (NumberFormatException e) {
+            return Comparison.UNVERIFIABLE;
+        }
+    }
+
+    private static long getPartCount(long size, long partSize) {
+        return Math.max(1, (size + partSize - 1) / partSize);
+    }
+
+    private static String multipartETag(FileChannel fileChannel, long size, long partSize) throws IOException {
+        MessageDigest messageDigest = getMd5MessageDigest();
+        int partCount = 0;
+
+        long offset = 0;
+
+        // An empty file is still one part
+        do {
+            messageDigest.update(md5(fileChannel, offset, Math.min(partSize, size - offset)));
+            partCount++;
+            offset += partSize;
+        } while (offset < size);
+
+        return String.join(MULTIPART_SEPARATOR, BaseEncoding.base16().lowerCase().encode(messageDigest.digest()), String.valueOf(partCount));
+    }
+
+    private static byte[] md5(FileChannel fileChannel, long offset, long length) throws IOException {
+        MessageDigest messageDigest = getMd5MessageDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+
+        try (InputStream inputStream = new FileChannelPartInputStream(fileChannel, offset, length)) {
+            int bytesRead;
+
+            while ((bytesRead = inputStream.read(buffer)) != -1) {
+                messageDigest.update(buffer, 0, bytesRead);
+            }
+        }
+
+        return messageDigest.digest();
+    }
+
+    private static MessageDigest getMd5MessageDigest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to support MD5
+            throw new UnsupportedOperationException(e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.awslabs.s3.helpers.implementations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads one part of a file with positional reads so several parts can be read from the same channel at once. The
+ * bytes go straight into the caller's buffer and the channel is not closed with the stream.
+ */
+public class FileChannelPartInputStream extends InputStream {
+    private final FileChannel fileChannel;
+    private final long endPosition;
+    private long position;
+
+    public FileChannelPartInputStream(FileChannel fileChannel, long offset, long length) {
+        this.fileChannel = fileChannel;
+        this.position = offset;
+        this.endPosition = offset + length;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] singleByte = new byte[1];
+
+        return (read(singleByte, 0, 1) == -1) ? -1 : (singleByte[0] & 0xFF);
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+
+        if (position >= endPosition) {
+            return -1;
+        }
+
+        int bytesToRead = (int) Math.min(length, endPosition - position);
+        int bytesRead = fileChannel.read(ByteBuffer.wrap(buffer, offset, bytesToRead), position);
+
+        if (bytesRead == -1) {
+            // The file was truncated while it was being read
+            throw new IOException("Unexpected end of file at position " + position);
+        }
+
+        position += bytesRead;
+
+        return bytesRead;
+    }
+
+    @Override
+    public long skip(long count) {
+        long skipped = Math.max(0, Math.min(count, endPosition - position));
+        position += skipped;
+
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, endPosition - position);
+    }
+}
@@ -0,0 +1,195 @@
+package com.awslabs.s3.helpers.implementations;
+
+import com.awslabs.resultsiterator.implementations.OrderedFanOutIterator;
+import com.awslabs.s3.exceptions.MultipartUploadException;
+import com.awslabs.s3.helpers.data.MultipartUploadPolicy;
+import com.awslabs.s3.helpers.data.S3Bucket;
+import com.awslabs.s3.helpers.data.S3Key;
+import io.vavr.control.Try;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Uploads a file in parts, several at a time, on the executor in the policy. Each part is read from a shared
+ * FileChannel as it is sent so no part is ever held in memory. The parts are completed in order once they have all
+ * been uploaded.
+ */
+public class MultipartUploader {
+    public static final int MAX_PARTS = 10_000;
+    private static final String CONTENT_TYPE = "application/octet-stream";
+    private final Logger log = LoggerFactory.getLogger(MultipartUploader.class);
+    private final S3Client s3Client;
+    private final MultipartUploadPolicy multipartUploadPolicy;
+
+    public MultipartUploader(S3Client s3Client, MultipartUploadPolicy multipartUploadPolicy) {
+        this.s3Client = s3Client;
+        this.multipartUploadPolicy = multipartUploadPolicy;
+    }
+
+    public CompleteMultipartUploadResponse upload(S3Bucket s3Bucket, S3Key s3Key, File file) {
+        CreateMultipartUploadRequest createMultipartUploadRequest = CreateMultipartUploadRequest.builder()
+                .bucket(s3Bucket.bucket())
+                .key(s3Key.key())
+                .contentType(CONTENT_TYPE)
+                .build();
+
+        String uploadId = s3Client.createMultipartUpload(createMultipartUploadRequest).uploadId();
+
+        return uploadParts(s3Bucket, s3Key, file, uploadId, Collections.emptyMap());
+    }
+
+    /**
+     * Continues an upload that was interrupted. Parts that were already uploaded are kept if their size and ETag
+     * still match the file, all other parts are uploaded again.
+     */
+    public CompleteMultipartUploadResponse resume(S3Bucket s3Bucket, S3Key s3Key, File file, String uploadId) {
+        Map<Integer, Part> uploadedParts = Try.of(() -> getUploadedParts(s3Bucket, s3Key, uploadId))
+                // Don't abort here, the upload may be resumable once the problem is fixed
+                .getOrElseThrow(throwable -> new MultipartUploadException(uploadId, false, throwable));
+
+        return uploadParts(s3Bucket, s3Key, file, uploadId, uploadedParts);
+    }
+
+    private CompleteMultipartUploadResponse uploadParts(S3Bucket s3Bucket, S3Key s3Key, File file, String uploadId, Map<Integer, Part> uploadedParts) {
+        try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            List<CompletedPart> completedParts;
+
+            // NOTE: A failed part cancels the others and waits for the ones already being sent, S3 can keep parts that
+            //   finish after an abort so the upload is only aborted once nothing else is in flight
+            try (Stream<CompletedPart> completedPartStream = OrderedFanOutIterator.stream(getFileParts(fileChannel.size()),
+                    filePart -> getCompletedPart(s3Bucket, s3Key, uploadId, fileChannel, filePart, Optional.ofNullable(uploadedParts.get(filePart.partNumber))),
+                    multipartUploadPolicy.fanOutPolicy())) {
+                completedParts = completedPartStream.collect(Collectors.toList());
+            }
+
+            CompleteMultipartUploadRequest completeMultipartUploadRequest = CompleteMultipartUploadRequest.builder()
+                    .bucket(s3Bucket.bucket())
+                    .key(s3Key.key())
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build();
+
+            return s3Client.completeMultipartUpload(completeMultipartUploadRequest);
+        } catch (IOException | RuntimeException e) {
+            throw getMultipartUploadException(s3Bucket, s3Key, uploadId, e);
+        }
+    }
+
+    private Stream<FilePart> getFileParts(long fileSize) {
+        long partSize = multipartUploadPolicy.partSize();
+        // An empty file is still uploaded as a single, empty part
+        long partCount = Math.max(1, (fileSize + partSize - 1) / partSize);
+
+        if (partCount > MAX_PARTS) {
+            throw new IllegalArgumentException("The file needs " + partCount + " parts but S3 allows at most " + MAX_PARTS + ", use a larger part size");
+        }
+
+        return LongStream.range(0, partCount)
+                .mapToObj(partIndex -> new FilePart((int) partIndex + 1, partIndex * partSize, Math.min(partSize, fileSize - partIndex * partSize)));
+    }
+
+    private CompletedPart getCompletedPart(S3Bucket s3Bucket, S3Key s3Key, String uploadId, FileChannel fileChannel, FilePart filePart, Optional<Part> optionalUploadedPart) {
+        Optional<String> optionalETag = optionalUploadedPart
+                .filter(uploadedPart -> Long.valueOf(filePart.length).equals(uploadedPart.size()))
+                .filter(uploadedPart -> isSameContent(uploadedPart, fileChannel, filePart))
+                .map(Part::eTag);
+
+        if (!optionalETag.isPresent()) {
+            optionalETag = Optional.of(uploadPart(s3Bucket, s3Key, uploadId, fileChannel, filePart));
+        }
+
+        return CompletedPart.builder()
+                .partNumber(filePart.partNumber)
+                .eTag(optionalETag.get())
+                .build();
+    }
+
+    private String uploadPart(S3Bucket s3Bucket, S3Key s3Key, String uploadId, FileChannel fileChannel, FilePart filePart) {
+        UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
+                .bucket(s3Bucket.bucket())
+                .key(s3Key.key())
+                .uploadId(uploadId)
+                .partNumber(filePart.partNumber)
+                .contentLength(filePart.length)
+                .build();
+
+        // The SDK asks for a new stream if it retries the part
+        RequestBody requestBody = RequestBody.fromContentProvider(() -> new FileChannelPartInputStream(fileChannel, filePart.offset, filePart.length), filePart.length, CONTENT_TYPE);
+
+        return s3Client.uploadPart(uploadPartRequest, requestBody).eTag();
+    }
+
+    private boolean isSameContent(Part uploadedPart, FileChannel fileChannel, FilePart filePart) {
+        // NOTE: The ETag of a part is the MD5 of its content unless the object is encrypted with SSE-KMS or SSE-C, in
+        //   that case the part is uploaded again
+        String eTag = uploadedPart.eTag().replace("\"", "");
+
+        return Try.of(() -> ETags.md5Hex(fileChannel, filePart.offset, filePart.length))
+                .map(eTag::equalsIgnoreCase)
+                .getOrElse(false);
+    }
+
+    private Map<Integer, Part> getUploadedParts(S3Bucket s3Bucket, S3Key s3Key, String uploadId) {
+        Map<Integer, Part> uploadedParts = new HashMap<>();
+        // NOTE: ListParts pages with an integer marker so it can't be used with the results iterators
+        Optional<Integer> optionalPartNumberMarker = Optional.empty();
+
+        do {
+            ListPartsRequest.Builder listPartsRequestBuilder = ListPartsRequest.builder()
+                    .bucket(s3Bucket.bucket())
+                    .key(s3Key.key())
+                    .uploadId(uploadId);
+            optionalPartNumberMarker.ifPresent(listPartsRequestBuilder::partNumberMarker);
+
+            ListPartsResponse listPartsResponse = s3Client.listParts(listPartsRequestBuilder.build());
+            listPartsResponse.parts().forEach(part -> uploadedParts.put(part.partNumber(), part));
+
+            optionalPartNumberMarker = Boolean.TRUE.equals(listPartsResponse.isTruncated()) ? Optional.ofNullable(listPartsResponse.nextPartNumberMarker()) : Optional.empty();
+        } while (optionalPartNumberMarker.isPresent());
+
+        return uploadedParts;
+    }
+
+    private MultipartUploadException getMultipartUploadException(S3Bucket s3Bucket, S3Key s3Key, String uploadId, Exception exception) {
+        if (!multipartUploadPolicy.abortOnFailure()) {
+            return new MultipartUploadException(uploadId, false, exception);
+        }
+
+        AbortMultipartUploadRequest abortMultipartUploadRequest = AbortMultipartUploadRequest.builder()
+                .bucket(s3Bucket.bucket())
+                .key(s3Key.key())
+                .uploadId(uploadId)
+                .build();
+
+        // Report the original failure even if the abort fails too
+        boolean aborted = Try.run(() -> s3Client.abortMultipartUpload(abortMultipartUploadRequest))
+                .onFailure(throwable -> log.error("Failed to abort multipart upload [" + uploadId + "], its parts must be cleaned up with a lifecycle rule or a manual abort", throwable))
+                .isSuccess();
+
+        return new MultipartUploadException(uploadId, aborted, exception);
+    }
+
+    private static class FilePart {
+        private final int partNumber;
+        private final long offset;
+        private final long length;
+
+        private FilePart(int partNumber, long offset, long length) {
+            this.partNumber = partNumber;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
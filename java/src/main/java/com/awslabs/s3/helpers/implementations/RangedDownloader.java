@@ -0,0 +1,185 @@
+package com.awslabs.s3.helpers.implementations;
+
+import com.awslabs.resultsiterator.implementations.OrderedFanOutIterator;
+import com.awslabs.s3.helpers.data.DownloadResult;
+import com.awslabs.s3.helpers.data.ImmutableDownloadResult;
+import com.awslabs.s3.helpers.data.RangedDownloadPolicy;
+import com.awslabs.s3.helpers.data.S3Bucket;
+import com.awslabs.s3.helpers.data.S3Key;
+import io.vavr.control.Try;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Downloads an object in byte ranges, several at a time, on the executor in the policy. The file is preallocated and
+ * each range is written straight to its offset in a shared FileChannel.
+ *
+ * Every range request must match the ETag from the initial HEAD request so a download never mixes two versions of an
+ * object, and each range must return exactly the bytes that were asked for. A range that fails part way is retried
+ * from the first byte that was not written. Once all ranges are written the file is checked against the ETag when the
+ * ETag is based on the object's content and, for multipart ETags, the part size can be found.
+ */
+public class RangedDownloader {
+    private static final long INITIAL_RETRY_DELAY_MILLIS = 100;
+    private final S3Client s3Client;
+    private final RangedDownloadPolicy rangedDownloadPolicy;
+
+    public RangedDownloader(S3Client s3Client, RangedDownloadPolicy rangedDownloadPolicy) {
+        this.s3Client = s3Client;
+        this.rangedDownloadPolicy = rangedDownloadPolicy;
+    }
+
+    public DownloadResult download(S3Bucket s3Bucket, S3Key s3Key, Path destination) {
+        HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
+                .bucket(s3Bucket.bucket())
+                .key(s3Key.key())
+                .build();
+
+        HeadObjectResponse headObjectResponse = s3Client.headObject(headObjectRequest);
+        long contentLength = headObjectResponse.contentLength();
+        String eTag = headObjectResponse.eTag();
+        AtomicInteger rangeRetryCount = new AtomicInteger();
+
+        try {
+            int rangeCount = downloadRanges(s3Bucket, s3Key, eTag, destination, contentLength, rangeRetryCount);
+            ETags.Comparison comparison = isETagBasedOnContent(headObjectResponse) ? ETags.compare(destination, eTag) : ETags.Comparison.UNVERIFIABLE;
+
+            // Only a definite mismatch fails the download, a multipart ETag with an unknown part size can't be checked
+            if (comparison == ETags.Comparison.DIFFERS) {
+                throw new IllegalStateException("The downloaded content of [" + s3Key.key() + "] does not match its ETag " + eTag);
+            }
+
+            return ImmutableDownloadResult.builder()
+                    .contentLength(contentLength)
+                    .rangeCount(rangeCount)
+                    .rangeRetryCount(rangeRetryCount.get())
+                    .eTagVerified(comparison == ETags.Comparison.MATCHES)
+                    .build();
+        } catch (IOException | RuntimeException e) {
+            // Don't leave a preallocated file that looks complete but isn't
+            Try.of(() -> Files.deleteIfExists(destination));
+
+            if (e instanceof IOException) {
+                throw new UncheckedIOException((IOException) e);
+            }
+
+            throw (RuntimeException) e;
+        }
+    }
+
+    private int downloadRanges(S3Bucket s3Bucket, S3Key s3Key, String eTag, Path destination, long contentLength, AtomicInteger rangeRetryCount) throws IOException {
+        long rangeSize = rangedDownloadPolicy.rangeSize();
+        int rangeCount = (int) ((contentLength + rangeSize - 1) / rangeSize);
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(destination.toFile(), "rw");
+             FileChannel fileChannel = randomAccessFile.getChannel()) {
+            // Set the final size up front so ranges can be written at their offsets in any order
+            randomAccessFile.setLength(contentLength);
+
+            Stream<ByteRange> byteRanges = LongStream.range(0, rangeCount)
+                    .mapToObj(rangeIndex -> new ByteRange(rangeIndex * rangeSize, Math.min(rangeSize, contentLength - rangeIndex * rangeSize)));
+
+            try (Stream<Long> writtenBytes = OrderedFanOutIterator.stream(byteRanges, byteRange -> downloadRange(s3Bucket, s3Key, eTag, fileChannel, byteRange, rangeRetryCount), rangedDownloadPolicy.fanOutPolicy())) {
+                writtenBytes.forEach(bytes -> {
+                });
+            }
+        }
+
+        return rangeCount;
+    }
+
+    private long downloadRange(S3Bucket s3Bucket, S3Key s3Key, String eTag, FileChannel fileChannel, ByteRange byteRange, AtomicInteger rangeRetryCount) {
+        long written = 0;
+        int attempt = 1;
+
+        while (true) {
+            long start = byteRange.offset + written;
+            long length = byteRange.length - written;
+
+            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                    .bucket(s3Bucket.bucket())
+                    .key(s3Key.key())
+                    .range("bytes=" + start + "-" + (start + length - 1))
+                    // Fail instead of mixing in bytes from a newer version of the object
+                    .ifMatch(eTag)
+                    .build();
+
+            try (ResponseInputStream<GetObjectResponse> responseInputStream = s3Client.getObject(getObjectRequest);
+                 ReadableByteChannel readableByteChannel = Channels.newChannel(responseInputStream)) {
+                if (!Long.valueOf(length).equals(responseInputStream.response().contentLength())) {
+                    throw new IllegalStateException("Requested " + length + " bytes at offset " + start + " but the response has " + responseInputStream.response().contentLength());
+                }
+
+                long transferred;
+
+                // Positional transfers don't move the channel's position so several ranges can be written at once
+                while ((written < byteRange.length) && ((transferred = fileChannel.transferFrom(readableByteChannel, byteRange.offset + written, byteRange.length - written)) > 0)) {
+                    written += transferred;
+                }
+
+                if (written == byteRange.length) {
+                    return written;
+                }
+
+                throw new IOException("The range at offset " + byteRange.offset + " ended after " + written + " of " + byteRange.length + " bytes");
+            } catch (IOException | RuntimeException e) {
+                if ((attempt >= rangedDownloadPolicy.maxRangeAttempts()) || !isRetryable(e)) {
+                    throw (e instanceof IOException) ? new UncheckedIOException((IOException) e) : (RuntimeException) e;
+                }
+
+                rangeRetryCount.incrementAndGet();
+                sleepBeforeRetry(attempt, e);
+                attempt++;
+            }
+        }
+    }
+
+    private boolean isRetryable(Exception exception) {
+        if (exception instanceof S3Exception) {
+            // Server side errors are usually transient, a failed If-Match (412) means the object changed
+            return ((S3Exception) exception).statusCode() >= 500;
+        }
+
+        return (exception instanceof IOException) || (exception instanceof SdkClientException);
+    }
+
+    private void sleepBeforeRetry(int attempt, Exception cause) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(INITIAL_RETRY_DELAY_MILLIS << (attempt - 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry a range", cause);
+        }
+    }
+
+    private boolean isETagBasedOnContent(HeadObjectResponse headObjectResponse) {
+        // Objects encrypted with SSE-KMS or SSE-C have ETags that are not an MD5 of their content
+        return !ServerSideEncryption.AWS_KMS.equals(headObjectResponse.serverSideEncryption()) &&
+                (headObjectResponse.sseCustomerAlgorithm() == null);
+    }
+
+    private static class ByteRange {
+        private final long offset;
+        private final long length;
+
+        private ByteRange(long offset, long length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -1,15 +1,27 @@
 package com.awslabs.s3.helpers.interfaces;
 
+import com.awslabs.resultsiterator.data.FanOutPolicy;
+import com.awslabs.s3.helpers.data.BucketRegionCacheMetrics;
+import com.awslabs.s3.helpers.data.DownloadResult;
+import com.awslabs.s3.helpers.data.ImmutableBucketRegionCacheMetrics;
+import com.awslabs.s3.helpers.data.MultipartUploadPolicy;
+import com.awslabs.s3.helpers.data.RangedDownloadPolicy;
 import com.awslabs.s3.helpers.data.S3Bucket;
 import com.awslabs.s3.helpers.data.S3Key;
 import com.awslabs.s3.helpers.data.S3Path;
+import com.awslabs.s3.helpers.data.SyncResult;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.Bucket;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 
 import java.io.File;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
-public interface V2S3Helper {
+public interface V2S3Helper extends AutoCloseable {
     boolean bucketExists(Bucket bucket);
 
     boolean bucketExists(S3Client s3Client, Bucket bucket);
@@ -18,9 +30,69 @@ public interface V2S3Helper {
 
     boolean objectExists(S3Client s3Client, Bucket bucket, String key);
 
+    // Returns whether each key exists in the order of the keys, keys that share a prefix are checked with as few
+    //   listings as possible. Implementations that can't list check each key on its own.
+    default Map<String, Boolean> objectsExist(Bucket bucket, Collection<String> keys) {
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        keys.forEach(key -> results.put(key, objectExists(bucket, key)));
+
+        return results;
+    }
+
     S3Client getRegionSpecificClientForBucket(Bucket bucket);
 
+    // Implementations that don't cache bucket regions report no lookups
+    default BucketRegionCacheMetrics getBucketRegionCacheMetrics() {
+        return ImmutableBucketRegionCacheMetrics.builder()
+                .hitCount(0)
+                .missCount(0)
+                .lookupFailureCount(0)
+                .regionClientCount(0)
+                .build();
+    }
+
     PutObjectResponse copyToS3(S3Bucket s3Bucket, S3Path s3Path, File file);
 
     PutObjectResponse copyToS3(S3Bucket s3Bucket, S3Key s3Key, File file);
+
+    // Uploads the file in parts in parallel, failures throw a MultipartUploadException with the upload ID.
+    //   Implementations that can't upload in parts throw an UnsupportedOperationException.
+    default CompleteMultipartUploadResponse copyToS3(S3Bucket s3Bucket, S3Key s3Key, File file, MultipartUploadPolicy multipartUploadPolicy) {
+        throw new UnsupportedOperationException(String.join(" ", getClass().getName(), "does not support multipart uploads"));
+    }
+
+    // Continues a multipart upload that was not aborted, parts that were already uploaded are not sent again.
+    //   Implementations that can't upload in parts throw an UnsupportedOperationException.
+    default CompleteMultipartUploadResponse resumeCopyToS3(S3Bucket s3Bucket, S3Key s3Key, File file, MultipartUploadPolicy multipartUploadPolicy, String uploadId) {
+        throw new UnsupportedOperationException(String.join(" ", getClass().getName(), "does not support multipart uploads"));
+    }
+
+    // Uploads the files in the directory that are missing or different in S3, one at a time. Implementations that
+    //   can't sync directories throw an UnsupportedOperationException.
+    default SyncResult syncDirectory(S3Bucket s3Bucket, S3Path s3Path, Path directory) {
+        throw new UnsupportedOperationException(String.join(" ", getClass().getName(), "does not support syncing directories"));
+    }
+
+    // Uploads the files in the directory that are missing or different in S3, several at a time. Implementations
+    //   that can't sync directories throw an UnsupportedOperationException.
+    default SyncResult syncDirectory(S3Bucket s3Bucket, S3Path s3Path, Path directory, FanOutPolicy fanOutPolicy) {
+        throw new UnsupportedOperationException(String.join(" ", getClass().getName(), "does not support syncing directories"));
+    }
+
+    // Downloads the object one range at a time, failed ranges are retried without starting over. Implementations that
+    //   can't download in ranges throw an UnsupportedOperationException.
+    default DownloadResult downloadFromS3(S3Bucket s3Bucket, S3Key s3Key, Path destination) {
+        throw new UnsupportedOperationException(String.join(" ", getClass().getName(), "does not support ranged downloads"));
+    }
+
+    // Downloads several ranges of the object at a time straight to their offsets in the destination file.
+    //   Implementations that can't download in ranges throw an UnsupportedOperationException.
+    default DownloadResult downloadFromS3(S3Bucket s3Bucket, S3Key s3Key, Path destination, RangedDownloadPolicy rangedDownloadPolicy) {
+        throw new UnsupportedOperationException(String.join(" ", getClass().getName(), "does not support ranged downloads"));
+    }
+
+    // Closes the clients that this helper has created, implementations that don't create any have nothing to close
+    @Override
+    default void close() {
+    }
 }
@@ -1,5 +1,6 @@
 package com.awslabs.sqs.helpers.implementations;
 
+import com.awslabs.resultsiterator.v2.implementations.RegionalClientCache;
 import com.awslabs.resultsiterator.v2.implementations.V2ResultsIterator;
 import com.awslabs.sqs.data.*;
 import com.awslabs.sqs.helpers.interfaces.V2SqsHelper;
@@ -15,10 +16,17 @@ import javax.inject.Inject;
 import javax.inject.Provider;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Stream;
 
 public class BasicV2SqsHelper implements V2SqsHelper {
     private final Logger log = LoggerFactory.getLogger(BasicV2SqsHelper.class);
+    // Building a client creates a new connection pool so clients are reused for the lifetime of this helper
+    private final RegionalClientCache<SqsClient> sqsClientCache = new RegionalClientCache<>(this::buildSqsClient);
+    private final ConcurrentMap<String, Region> queueRegions = new ConcurrentHashMap<>();
+    // NOTE: This is initialized to null so we can determine if we have looked up the default region already
+    private volatile Region defaultRegion = null;
 
     @Inject
     Provider<SqsClientBuilder> sqsClientBuilderProvider;
@@ -84,31 +92,50 @@ public class BasicV2SqsHelper implements V2SqsHelper {
         return ImmutableQueueUrl.builder().url(getDefaultSqsClient().createQueue(createQueueRequest).queueUrl()).build();
     }
 
+    @Override
+    public void close() {
+        sqsClientCache.close();
+    }
+
     private SqsClient getRegionSpecificClientForQueue(QueueUrl queueUrl) {
-        Region currentRegion = awsRegionProviderChain.getRegion();
+        return sqsClientCache.get(queueRegions.computeIfAbsent(queueUrl.getUrl(), this::getQueueRegion));
+    }
 
+    private Region getQueueRegion(String queueUrlString) {
         // SQS queue URLs look like this: "https://sqs.REGION.amazonaws.com/xxxxxxxxxxxx/yyyyyyyyyy
-        String url = queueUrl.getUrl();
+        String url = queueUrlString;
 
         url = url.replace("https://", "");
         String[] urlComponents = url.split("\\.");
 
         if (urlComponents.length < 4) {
-            throw new RuntimeException("Could not parse the region out of the queue URL [" + queueUrl.getUrl() + "]");
+            throw new RuntimeException("Could not parse the region out of the queue URL [" + queueUrlString + "]");
         }
 
         String queueRegionString = urlComponents[1];
 
-        Region queueRegion = Region.of(queueRegionString);
+        return Region.of(queueRegionString);
+    }
+
+    private SqsClient getDefaultSqsClient() {
+        return sqsClientCache.get(getDefaultRegion());
+    }
 
-        if (!queueRegion.equals(currentRegion)) {
-            return sqsClientBuilderProvider.get().region(queueRegion).build();
-        } else {
-            return getDefaultSqsClient();
+    private Region getDefaultRegion() {
+        if (defaultRegion == null) {
+            // The region provider chain may read environment variables, system properties, and profile files so it is only checked once
+            defaultRegion = awsRegionProviderChain.getRegion();
         }
+
+        return defaultRegion;
     }
 
-    private SqsClient getDefaultSqsClient() {
-        return sqsClientBuilderProvider.get().build();
+    private SqsClient buildSqsClient(Region region) {
+        if (region.equals(getDefaultRegion())) {
+            // Use the builder's default configuration for the current region
+            return sqsClientBuilderProvider.get().build();
+        }
+
+        return sqsClientBuilderProvider.get().region(region).build();
     }
-}
\ No newline at end of file
+}
@@ -7,7 +7,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
-public interface V2SqsHelper {
+public interface V2SqsHelper extends AutoCloseable {
     List<Message> receiveMessage(QueueUrl queueUrl, VisibilityTimeout visibilityTimeout);
 
     List<Message> receiveMessages(QueueUrl queueUrl, VisibilityTimeout visibilityTimeout, MaxNumberOfMessages maxNumberOfMessages);
@@ -21,4 +21,9 @@ public interface V2SqsHelper {
     void deleteQueue(QueueUrl queueUrl);
 
     QueueUrl createQueue(QueueName queueName);
+
+    // Closes the clients that this helper has created, implementations that don't create any have nothing to close
+    @Override
+    default void close() {
+    }
 }
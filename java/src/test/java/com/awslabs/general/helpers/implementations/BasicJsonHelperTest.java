@@ -0,0 +1,96 @@
+package com.awslabs.general.helpers.implementations;
+
+import com.awslabs.general.helpers.interfaces.JsonHelper;
+import com.awslabs.iot.data.ImmutableIotCredentialsProviderCredentials;
+import com.awslabs.iot.data.ImmutableSessionCredentials;
+import com.awslabs.iot.data.IotCredentialsProviderCredentials;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.StringContains.containsString;
+
+public class BasicJsonHelperTest {
+    private BasicJsonHelper basicJsonHelper;
+    private ImmutableIotCredentialsProviderCredentials credentials;
+
+    @Before
+    public void setup() {
+        basicJsonHelper = new BasicJsonHelper();
+        credentials = ImmutableIotCredentialsProviderCredentials.builder()
+                .credentials(ImmutableSessionCredentials.builder()
+                        .accessKeyId("accessKeyId")
+                        // Not ASCII so the charset handling is checked
+                        .secretAccessKey("sécret")
+                        .sessionToken("<sessionToken>")
+                        .build())
+                .build();
+    }
+
+    @Test
+    public void shouldWriteTheSameJsonToStringsWritersAndStreams() {
+        StringWriter stringWriter = new StringWriter();
+        basicJsonHelper.toJson(credentials, stringWriter);
+
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        basicJsonHelper.toJson(credentials, byteArrayOutputStream);
+
+        String json = basicJsonHelper.toJson(credentials);
+
+        assertThat(stringWriter.toString(), is(json));
+        assertThat(new String(byteArrayOutputStream.toByteArray(), StandardCharsets.UTF_8), is(json));
+        // HTML escaping is disabled
+        assertThat(json, containsString("<sessionToken>"));
+    }
+
+    @Test
+    public void shouldWriteCompactJsonOnOneLine() {
+        StringWriter stringWriter = new StringWriter();
+        basicJsonHelper.toCompactJson(credentials, stringWriter);
+
+        assertThat(stringWriter.toString(), is(basicJsonHelper.toCompactJson(credentials)));
+        assertThat(stringWriter.toString(), not(containsString("\n")));
+    }
+
+    @Test
+    public void shouldReadUtf8FromBytesAndStreams() {
+        byte[] jsonBytes = basicJsonHelper.toCompactJson(credentials).getBytes(StandardCharsets.UTF_8);
+
+        assertThat(basicJsonHelper.fromJson(IotCredentialsProviderCredentials.class, jsonBytes), is(credentials));
+        assertThat(basicJsonHelper.fromJson(IotCredentialsProviderCredentials.class, new ByteArrayInputStream(jsonBytes)), is(credentials));
+    }
+
+    @Test
+    public void shouldWriteAndReadTheSameJsonWithTheDefaultOverloads() {
+        // Only implements the methods that existed before the overloads were added
+        JsonHelper minimalJsonHelper = new JsonHelper() {
+            @Override
+            public String toJson(Object object) {
+                return basicJsonHelper.toJson(object);
+            }
+
+            @Override
+            public <T> T fromJson(Class<T> clazz, byte[] json) {
+                return basicJsonHelper.fromJson(clazz, json);
+            }
+        };
+
+        StringWriter stringWriter = new StringWriter();
+        minimalJsonHelper.toCompactJson(credentials, stringWriter);
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        minimalJsonHelper.toJson(credentials, byteArrayOutputStream);
+
+        assertThat(stringWriter.toString(), is(basicJsonHelper.toCompactJson(credentials)));
+        assertThat(byteArrayOutputStream.toByteArray(), is(basicJsonHelper.toJson(credentials).getBytes(StandardCharsets.UTF_8)));
+        assertThat(minimalJsonHelper.fromJson(IotCredentialsProviderCredentials.class, new StringReader(stringWriter.toString())), is(credentials));
+        assertThat(minimalJsonHelper.fromJson(IotCredentialsProviderCredentials.class, new ByteArrayInputStream(byteArrayOutputStream.toByteArray())), is(credentials));
+    }
+}
@@ -0,0 +1,91 @@
+package com.awslabs.general.helpers.implementations;
+
+import com.awslabs.iot.data.ImmutableSessionCredentials;
+import com.awslabs.iot.data.SessionCredentials;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BasicNdjsonHelperTest {
+    private static final int COUNT = 10_000;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private BasicJsonHelper basicJsonHelper;
+    private BasicNdjsonHelper basicNdjsonHelper;
+
+    @Before
+    public void setup() {
+        basicJsonHelper = new BasicJsonHelper();
+        basicNdjsonHelper = new BasicNdjsonHelper();
+        basicNdjsonHelper.jsonHelper = basicJsonHelper;
+    }
+
+    private Stream<SessionCredentials> sessionCredentials() {
+        return IntStream.range(0, COUNT)
+                .mapToObj(index -> ImmutableSessionCredentials.builder()
+                        .accessKeyId("accessKeyId" + index)
+                        .secretAccessKey("secretAccessKey")
+                        .sessionToken("sessionToken")
+                        .build());
+    }
+
+    private List<String> readLines(InputStream inputStream) throws IOException {
+        try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            return bufferedReader.lines().collect(Collectors.toList());
+        }
+    }
+
+    private void assertLinesMatch(List<String> lines) {
+        assertThat(lines.size(), is(COUNT));
+
+        for (int index = 0; index < COUNT; index++) {
+            SessionCredentials sessionCredentials = basicJsonHelper.fromJson(SessionCredentials.class, lines.get(index).getBytes(StandardCharsets.UTF_8));
+            assertThat(sessionCredentials.getAccessKeyId(), is("accessKeyId" + index));
+        }
+    }
+
+    @Test
+    public void shouldWriteOneJsonDocumentPerLine() throws IOException {
+        Path path = temporaryFolder.getRoot().toPath().resolve("credentials.ndjson");
+
+        assertThat(basicNdjsonHelper.export(sessionCredentials(), path), is((long) COUNT));
+        assertLinesMatch(readLines(Files.newInputStream(path)));
+    }
+
+    @Test
+    public void shouldGzipFilesEndingWithGz() throws IOException {
+        Path path = temporaryFolder.getRoot().toPath().resolve("credentials.ndjson.gz");
+
+        assertThat(basicNdjsonHelper.export(sessionCredentials(), path), is((long) COUNT));
+        assertLinesMatch(readLines(new GZIPInputStream(Files.newInputStream(path))));
+    }
+
+    @Test
+    public void shouldCloseTheStreamAndLeaveTheOutputStreamOpen() throws IOException {
+        AtomicBoolean streamClosed = new AtomicBoolean(false);
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+        basicNdjsonHelper.export(sessionCredentials().onClose(() -> streamClosed.set(true)), byteArrayOutputStream);
+        byteArrayOutputStream.write('x');
+
+        assertThat(streamClosed.get(), is(true));
+        assertLinesMatch(readLines(new ByteArrayInputStream(byteArrayOutputStream.toByteArray(), 0, byteArrayOutputStream.size() - 1)));
+    }
+}
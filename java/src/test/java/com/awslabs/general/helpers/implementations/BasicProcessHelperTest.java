@@ -0,0 +1,81 @@
+package com.awslabs.general.helpers.implementations;
+
+import com.awslabs.general.helpers.data.ImmutableProcessOutputOptions;
+import com.awslabs.general.helpers.data.ProcessOutput;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertThrows;
+
+public class BasicProcessHelperTest {
+    private BasicProcessHelper basicProcessHelper;
+
+    @Before
+    public void setup() {
+        basicProcessHelper = new BasicProcessHelper();
+    }
+
+    private ProcessBuilder shell(String command) {
+        return new ProcessBuilder("sh", "-c", command);
+    }
+
+    @Test
+    public void shouldNotStallWhenTheOutputIsLargerThanThePipeBuffer() {
+        // About 1 MB on each stream, far more than a pipe holds
+        ProcessOutput processOutput = basicProcessHelper.getOutputFromProcess(shell("seq 1 150000; seq 1 150000 >&2")).get();
+
+        assertThat(processOutput.getExitCode(), is(0));
+        assertThat(processOutput.getStandardOutStrings().size(), is(150000));
+        assertThat(processOutput.getStandardErrorStrings().last(), is("150000"));
+    }
+
+    @Test
+    public void shouldPassEveryLineToTheConsumerAndKeepOnlyTheLastLines() throws Exception {
+        AtomicInteger lineCount = new AtomicInteger();
+
+        ProcessOutput processOutput = basicProcessHelper.runProcess(shell("seq 1 1000; exit 3"), ImmutableProcessOutputOptions.builder()
+                .standardOutConsumer(line -> lineCount.incrementAndGet())
+                .maxCapturedLines(10)
+                .build())
+                .get(30, TimeUnit.SECONDS);
+
+        assertThat(processOutput.getExitCode(), is(3));
+        assertThat(lineCount.get(), is(1000));
+        assertThat(processOutput.getStandardOutStrings().toJavaList(), is(IntStream.rangeClosed(991, 1000).mapToObj(String::valueOf).collect(Collectors.toList())));
+    }
+
+    @Test
+    public void shouldDestroyTheProcessAfterTheTimeout() {
+        CompletableFuture<ProcessOutput> result = basicProcessHelper.runProcess(shell("sleep 30"), ImmutableProcessOutputOptions.builder()
+                .timeout(Duration.ofMillis(200))
+                .build());
+
+        ExecutionException executionException = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+
+        assertThat(executionException.getCause(), instanceOf(TimeoutException.class));
+    }
+
+    @Test
+    public void shouldRunManyProcessesAtTheSameTime() {
+        List<CompletableFuture<ProcessOutput>> results = IntStream.range(0, 50)
+                .mapToObj(index -> basicProcessHelper.runProcess(shell("sleep 0.2; echo " + index), ImmutableProcessOutputOptions.builder().build()))
+                .collect(Collectors.toList());
+
+        for (int index = 0; index < results.size(); index++) {
+            assertThat(results.get(index).join().getStandardOutStrings().single(), is(String.valueOf(index)));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.awslabs.resultsiterator.implementations;
+
+import com.awslabs.resultsiterator.data.FanOutPolicy;
+import com.awslabs.resultsiterator.data.ImmutableFanOutPolicy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThrows;
+
+public class OrderedFanOutIteratorTest {
+    private ExecutorService executorService;
+
+    @Before
+    public void setup() {
+        executorService = Executors.newFixedThreadPool(8);
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void shouldReturnResultsInInputOrderWithoutExceedingThePermits() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        FanOutPolicy fanOutPolicy = ImmutableFanOutPolicy.builder().executor(executorService).permits(3).build();
+
+        List<Integer> results = OrderedFanOutIterator.stream(IntStream.range(0, 50).boxed(), value -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            sleep(ThreadLocalRandom.current().nextInt(5));
+            inFlight.decrementAndGet();
+            return value * 2;
+        }, fanOutPolicy).collect(Collectors.toList());
+
+        assertThat(results, is(IntStream.range(0, 50).map(value -> value * 2).boxed().collect(Collectors.toList())));
+        assertThat(maxInFlight.get(), lessThanOrEqualTo(3));
+    }
+
+    @Test
+    public void shouldThrowTheOriginalException() {
+        FanOutPolicy fanOutPolicy = ImmutableFanOutPolicy.builder().executor(executorService).build();
+
+        assertThrows(IllegalStateException.class, () -> OrderedFanOutIterator.stream(IntStream.range(0, 10).boxed(), value -> {
+            if (value == 5) {
+                throw new IllegalStateException("test");
+            }
+
+            return value;
+        }, fanOutPolicy).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldRejectFewerThanOnePermit() {
+        assertThrows(IllegalArgumentException.class, () -> ImmutableFanOutPolicy.builder().executor(executorService).permits(0).build());
+    }
+
+    private void sleep(int milliseconds) {
+        try {
+            Thread.sleep(milliseconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.awslabs.resultsiterator.implementations;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class PageSpliteratorTest {
+    private List<List<Integer>> getPages(int pageSize, int pageCount) {
+        List<List<Integer>> pages = new ArrayList<>();
+
+        for (int pageNumber = 0; pageNumber < pageCount; pageNumber++) {
+            int start = pageNumber * pageSize;
+            pages.add(IntStream.range(start, start + pageSize).boxed().collect(Collectors.toList()));
+        }
+
+        return pages;
+    }
+
+    @Test
+    public void shouldReturnTheSameOrderedResultsInParallel() {
+        List<Integer> results = StreamSupport.stream(new PageSpliterator<>(getPages(10, 50).iterator(), true), true)
+                .map(value -> value * 2)
+                .collect(Collectors.toList());
+
+        assertThat(results, is(IntStream.range(0, 500).map(value -> value * 2).boxed().collect(Collectors.toList())));
+    }
+
+    @Test
+    public void shouldHandOffTheRestOfTheCurrentPageAsASizedBatch() {
+        PageSpliterator<Integer> pageSpliterator = new PageSpliterator<>(getPages(10, 3).iterator(), true);
+        pageSpliterator.tryAdvance(value -> assertThat(value, is(0)));
+
+        Spliterator<Integer> batch = pageSpliterator.trySplit();
+
+        assertThat(batch.hasCharacteristics(Spliterator.SIZED), is(true));
+        assertThat(batch.hasCharacteristics(Spliterator.ORDERED), is(true));
+        assertThat(batch.estimateSize(), is(9L));
+        assertThat(pageSpliterator.hasCharacteristics(Spliterator.SIZED), is(false));
+
+        // The original spliterator continues with the next page
+        pageSpliterator.tryAdvance(value -> assertThat(value, is(10)));
+    }
+
+    @Test
+    public void shouldOnlyReportOrderedWhenRequested() {
+        PageSpliterator<Integer> pageSpliterator = new PageSpliterator<>(Arrays.asList(Arrays.asList(1, 2)).iterator(), false);
+
+        assertThat(pageSpliterator.hasCharacteristics(Spliterator.ORDERED), is(false));
+        assertThat(pageSpliterator.trySplit().hasCharacteristics(Spliterator.ORDERED), is(false));
+    }
+}
@@ -0,0 +1,28 @@
+package com.awslabs.resultsiterator.implementations;
+
+import org.junit.Test;
+
+import java.util.SortedMap;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class PaginationHistogramTest {
+    @Test
+    public void shouldCountValuesInPowerOfTwoBuckets() {
+        PaginationHistogram paginationHistogram = new PaginationHistogram();
+        paginationHistogram.record(1);
+        paginationHistogram.record(3);
+        paginationHistogram.record(4);
+        paginationHistogram.record(1000);
+
+        SortedMap<Long, Long> buckets = paginationHistogram.getBuckets();
+
+        assertThat(buckets.get(1L), is(1L));
+        assertThat(buckets.get(4L), is(2L));
+        assertThat(buckets.get(1024L), is(1L));
+        assertThat(paginationHistogram.getCount(), is(4L));
+        assertThat(paginationHistogram.getSum(), is(1008L));
+        assertThat(paginationHistogram.getMax(), is(1000L));
+    }
+}
@@ -0,0 +1,83 @@
+package com.awslabs.resultsiterator.implementations;
+
+import com.awslabs.resultsiterator.data.FileIdentity;
+import com.awslabs.resultsiterator.data.ImmutableSslContextKey;
+import com.awslabs.resultsiterator.data.Password;
+import com.awslabs.resultsiterator.data.SslContextKey;
+import io.vavr.control.Try;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class SslContextCacheTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final AtomicInteger createdCount = new AtomicInteger();
+    private SslContextCache sslContextCache;
+    private Path caCertPath;
+    private Path clientCertPath;
+    private Path clientPrivateKeyPath;
+
+    @Before
+    public void setup() throws IOException {
+        sslContextCache = new SslContextCache();
+        caCertPath = temporaryFolder.newFile("root.ca.pem").toPath();
+        clientCertPath = temporaryFolder.newFile("certificate.pem").toPath();
+        clientPrivateKeyPath = temporaryFolder.newFile("private.key").toPath();
+    }
+
+    private SslContextKey currentKey() {
+        return ImmutableSslContextKey.builder()
+                .caCertFile(FileIdentity.of(caCertPath))
+                .clientCertFile(FileIdentity.of(clientCertPath))
+                .clientPrivateKeyFile(FileIdentity.of(clientPrivateKeyPath))
+                .password(Password.BLANK_PASSWORD)
+                .build();
+    }
+
+    private SSLContext createSslContext(SslContextKey sslContextKey) {
+        createdCount.incrementAndGet();
+
+        return Try.of(SSLContext::getDefault).get();
+    }
+
+    @Test
+    public void shouldBuildOneContextForUnchangedFiles() {
+        sslContextCache.get(currentKey(), this::createSslContext);
+        sslContextCache.get(currentKey(), this::createSslContext);
+
+        assertThat(createdCount.get(), is(1));
+        assertThat(sslContextCache.size(), is(1));
+    }
+
+    @Test
+    public void shouldBuildANewContextWhenAFileIsRotated() throws IOException {
+        sslContextCache.get(currentKey(), this::createSslContext);
+
+        Files.write(clientCertPath, "rotated".getBytes());
+        Files.setLastModifiedTime(clientCertPath, FileTime.fromMillis(1000));
+        sslContextCache.get(currentKey(), this::createSslContext);
+
+        assertThat(createdCount.get(), is(2));
+    }
+
+    @Test
+    public void shouldEvictEntriesForFilesInAnInvalidatedDirectory() {
+        sslContextCache.get(currentKey(), this::createSslContext);
+        sslContextCache.invalidateDirectory(temporaryFolder.getRoot().toPath());
+
+        assertThat(sslContextCache.size(), is(0));
+    }
+}
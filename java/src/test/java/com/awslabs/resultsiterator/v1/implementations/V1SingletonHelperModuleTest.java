@@ -0,0 +1,63 @@
+package com.awslabs.resultsiterator.v1.implementations;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.SDKGlobalConfiguration;
+import com.amazonaws.services.iot.AWSIotClient;
+import com.awslabs.resultsiterator.data.ImmutableV1ClientConfigurationSettings;
+import com.awslabs.resultsiterator.v1.V1SingletonHelperModule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class V1SingletonHelperModuleTest {
+    private String previousRegion;
+    private V1SingletonTestInjector v1SingletonTestInjector;
+
+    @Before
+    public void setup() {
+        // Building clients requires a region but these tests never call AWS
+        previousRegion = System.getProperty(SDKGlobalConfiguration.AWS_REGION_SYSTEM_PROPERTY);
+        System.setProperty(SDKGlobalConfiguration.AWS_REGION_SYSTEM_PROPERTY, "us-east-1");
+
+        v1SingletonTestInjector = DaggerV1SingletonTestInjector.builder()
+                .v1SingletonHelperModule(new V1SingletonHelperModule(ImmutableV1ClientConfigurationSettings.builder()
+                        .maxConnections(200)
+                        .socketSendBufferSizeHint(65536)
+                        .socketReceiveBufferSizeHint(65536)
+                        .build()))
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        v1SingletonTestInjector.v1ClientLifecycle().close();
+
+        if (previousRegion == null) {
+            System.clearProperty(SDKGlobalConfiguration.AWS_REGION_SYSTEM_PROPERTY);
+        } else {
+            System.setProperty(SDKGlobalConfiguration.AWS_REGION_SYSTEM_PROPERTY, previousRegion);
+        }
+    }
+
+    @Test
+    public void shouldReuseClients() {
+        AWSIotClient awsIotClient = v1SingletonTestInjector.awsIotClient();
+
+        assertThat(v1SingletonTestInjector.awsIotClient(), sameInstance(awsIotClient));
+        assertThat(v1SingletonTestInjector.amazonS3Client(), sameInstance(v1SingletonTestInjector.amazonS3Client()));
+    }
+
+    @Test
+    public void shouldApplyTheConfiguredSettings() {
+        ClientConfiguration clientConfiguration = v1SingletonTestInjector.clientConfiguration();
+
+        assertThat(clientConfiguration.getMaxConnections(), is(200));
+        assertThat(clientConfiguration.useTcpKeepAlive(), is(true));
+        assertThat(clientConfiguration.getSocketBufferSizeHints()[0], is(65536));
+        assertThat(clientConfiguration.getSocketBufferSizeHints()[1], is(65536));
+    }
+}
@@ -0,0 +1,33 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import software.amazon.awssdk.services.iot.IotAsyncClient;
+import software.amazon.awssdk.services.iot.model.ListThingsRequest;
+import software.amazon.awssdk.services.iot.model.ListThingsResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+// Wraps the synchronous fake so the same pages can be returned from futures completed on the supplied executor
+public class FakeV2IotAsyncClient implements IotAsyncClient {
+    private final FakeV2IotClient fakeV2IotClient;
+    private final Executor executor;
+
+    public FakeV2IotAsyncClient(FakeV2IotClient fakeV2IotClient, Executor executor) {
+        this.fakeV2IotClient = fakeV2IotClient;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<ListThingsResponse> listThings(ListThingsRequest listThingsRequest) {
+        return CompletableFuture.supplyAsync(() -> fakeV2IotClient.listThings(listThingsRequest), executor);
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,58 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import software.amazon.awssdk.services.iot.IotClient;
+import software.amazon.awssdk.services.iot.model.ListThingsRequest;
+import software.amazon.awssdk.services.iot.model.ListThingsResponse;
+import software.amazon.awssdk.services.iot.model.ThingAttribute;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// An in-process IoT client that returns synthetic ListThings pages so the iterators can be tested without AWS
+public class FakeV2IotClient implements IotClient {
+    private final int pageSize;
+    private final int pageCount;
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    public FakeV2IotClient(int pageSize, int pageCount) {
+        this.pageSize = pageSize;
+        this.pageCount = pageCount;
+    }
+
+    public static String thingName(int pageNumber, int thingNumber) {
+        return String.join("-", "thing", String.valueOf(pageNumber), String.valueOf(thingNumber));
+    }
+
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    @Override
+    public ListThingsResponse listThings(ListThingsRequest listThingsRequest) {
+        requestCount.incrementAndGet();
+
+        int pageNumber = (listThingsRequest.nextToken() == null) ? 0 : Integer.parseInt(listThingsRequest.nextToken());
+        List<ThingAttribute> things = new ArrayList<>();
+
+        for (int thingNumber = 0; thingNumber < pageSize; thingNumber++) {
+            things.add(ThingAttribute.builder().thingName(thingName(pageNumber, thingNumber)).build());
+        }
+
+        String nextToken = (pageNumber + 1 < pageCount) ? String.valueOf(pageNumber + 1) : null;
+
+        return ListThingsResponse.builder()
+                .things(things)
+                .nextToken(nextToken)
+                .build();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,62 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import com.awslabs.resultsiterator.v2.interfaces.V2PaginationBinder;
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.services.iot.IotClient;
+import software.amazon.awssdk.services.iot.model.ListThingsRequest;
+import software.amazon.awssdk.services.iot.model.ListThingsResponse;
+import software.amazon.awssdk.services.iot.model.ResourceNotFoundException;
+
+import java.lang.reflect.Method;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThrows;
+
+public class LambdaMetafactoryV2PaginationBinderTest {
+    private V2PaginationBinder v2PaginationBinder;
+
+    @Before
+    public void setup() {
+        v2PaginationBinder = new LambdaMetafactoryV2PaginationBinder();
+    }
+
+    @Test
+    public void shouldBindMethodsOnNonPublicBuilderClasses() throws NoSuchMethodException {
+        ListThingsRequest.Builder builder = ListThingsRequest.builder();
+        // The builder implementation class is package private in the SDK
+        Method nextTokenMethod = builder.getClass().getMethod("nextToken", String.class);
+
+        BiFunction<AwsRequest.Builder, String, AwsRequest.Builder> setNextToken = v2PaginationBinder.bindBiFunction(nextTokenMethod);
+        ListThingsRequest listThingsRequest = (ListThingsRequest) setNextToken.apply(builder, "token").build();
+
+        assertThat(listThingsRequest.nextToken(), is("token"));
+    }
+
+    @Test
+    public void shouldBindMethodsOnResponses() throws NoSuchMethodException {
+        Function<ListThingsResponse, String> getNextToken = v2PaginationBinder.bindFunction(ListThingsResponse.class.getMethod("nextToken"));
+
+        assertThat(getNextToken.apply(ListThingsResponse.builder().nextToken("token").build()), is("token"));
+    }
+
+    @Test
+    public void shouldRethrowExceptionsWithoutWrappingThem() throws NoSuchMethodException {
+        IotClient iotClient = new FakeV2IotClient(1, 1) {
+            @Override
+            public ListThingsResponse listThings(ListThingsRequest listThingsRequest) {
+                throw ResourceNotFoundException.builder().message("junk").build();
+            }
+        };
+
+        // The anonymous client class is not public so the binder has to fall back to the public interface
+        Method listThingsMethod = iotClient.getClass().getMethod("listThings", ListThingsRequest.class);
+        BiFunction<IotClient, ListThingsRequest, ListThingsResponse> listThings = v2PaginationBinder.bindBiFunction(listThingsMethod);
+
+        assertThrows(ResourceNotFoundException.class, () -> listThings.apply(iotClient, ListThingsRequest.builder().build()));
+    }
+}
@@ -0,0 +1,170 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import com.sun.net.httpserver.*;
+import io.vavr.control.Try;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.openssl.jcajce.JcaPEMWriter;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * A local stand-in for the IoT credentials provider endpoint. It requires a client certificate like the real endpoint
+ * and counts requests, TCP connections, and full TLS handshakes. A resumed TLS session keeps its session ID so the
+ * number of distinct session IDs is the number of full handshakes.
+ */
+public class LocalIotCredentialsEndpoint implements AutoCloseable {
+    private final Path caCertPath;
+    private final Path clientCertPath;
+    private final Path clientPrivateKeyPath;
+    private final HttpsServer httpsServer;
+    private final ExecutorService executorService;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final Set<InetSocketAddress> remoteAddresses = ConcurrentHashMap.newKeySet();
+    private final Set<String> sessionIds = ConcurrentHashMap.newKeySet();
+
+    // The SSLContext function builds a context from the CA certificate, client certificate, and private key paths
+    public LocalIotCredentialsEndpoint(Path directory, Function<LocalIotCredentialsEndpoint, SSLContext> sslContextFunction) throws IOException {
+        // Without this the server writes the headers and the body separately and Nagle's algorithm delays the body
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+
+        // One self-signed certificate is used as the CA, the server certificate, and the client certificate
+        KeyPair keyPair = Try.of(() -> KeyPairGenerator.getInstance("RSA"))
+                .peek(keyPairGenerator -> keyPairGenerator.initialize(2048))
+                .map(KeyPairGenerator::generateKeyPair)
+                .get();
+        X509CertificateHolder certificateHolder = selfSignedCertificate(keyPair);
+
+        caCertPath = directory.resolve("root.ca.pem");
+        clientCertPath = directory.resolve("certificate.pem");
+        clientPrivateKeyPath = directory.resolve("private.key");
+
+        writePem(caCertPath, certificateHolder);
+        writePem(clientCertPath, certificateHolder);
+        writePem(clientPrivateKeyPath, keyPair);
+
+        SSLContext serverSslContext = sslContextFunction.apply(this);
+
+        httpsServer = HttpsServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        httpsServer.setHttpsConfigurator(new HttpsConfigurator(serverSslContext) {
+            @Override
+            public void configure(HttpsParameters httpsParameters) {
+                SSLParameters sslParameters = getSSLContext().getDefaultSSLParameters();
+                sslParameters.setNeedClientAuth(true);
+                httpsParameters.setSSLParameters(sslParameters);
+            }
+        });
+        executorService = Executors.newCachedThreadPool();
+        httpsServer.setExecutor(executorService);
+        httpsServer.createContext("/role-aliases/", this::handle);
+        httpsServer.start();
+    }
+
+    private X509CertificateHolder selfSignedCertificate(KeyPair keyPair) {
+        X500Name subject = new X500Name("CN=localhost");
+        Instant now = Instant.now();
+
+        return Try.of(() -> new JcaX509v3CertificateBuilder(subject,
+                BigInteger.ONE,
+                Date.from(now.minus(Duration.ofDays(1))),
+                Date.from(now.plus(Duration.ofDays(1))),
+                subject,
+                keyPair.getPublic())
+                // The client verifies that the server certificate matches the host name
+                .addExtension(Extension.subjectAlternativeName, false, new GeneralNames(new GeneralName[]{
+                        new GeneralName(GeneralName.dNSName, "localhost"),
+                        new GeneralName(GeneralName.iPAddress, "127.0.0.1")}))
+                .build(new JcaContentSignerBuilder("SHA256withRSA").build(keyPair.getPrivate())))
+                .get();
+    }
+
+    private void writePem(Path path, Object object) {
+        Try.withResources(() -> new JcaPEMWriter(Files.newBufferedWriter(path)))
+                .of(jcaPEMWriter -> {
+                    jcaPEMWriter.writeObject(object);
+                    return jcaPEMWriter;
+                })
+                .get();
+    }
+
+    private void handle(HttpExchange httpExchange) throws IOException {
+        requestCount.incrementAndGet();
+        remoteAddresses.add(httpExchange.getRemoteAddress());
+        sessionIds.add(new BigInteger(1, ((HttpsExchange) httpExchange).getSSLSession().getId()).toString(16));
+
+        String expiration = Instant.now().plus(Duration.ofHours(1)).toString();
+        byte[] response = String.join("",
+                "{\"credentials\":{",
+                "\"accessKeyId\":\"access-key-", String.valueOf(requestCount.get()), "\",",
+                "\"secretAccessKey\":\"secret-key\",",
+                "\"sessionToken\":\"session-token\",",
+                "\"expiration\":\"", expiration, "\"}}").getBytes(StandardCharsets.UTF_8);
+
+        httpExchange.getResponseHeaders().add("Content-Type", "application/json");
+        httpExchange.sendResponseHeaders(200, response.length);
+
+        try (OutputStream outputStream = httpExchange.getResponseBody()) {
+            outputStream.write(response);
+        }
+    }
+
+    // Host and port without a scheme, like the value returned by V2IotHelper.getCredentialProviderUrl()
+    public String getCredentialProviderUrl() {
+        return String.join(":", "localhost", String.valueOf(httpsServer.getAddress().getPort()));
+    }
+
+    public Path getCaCertPath() {
+        return caCertPath;
+    }
+
+    public Path getClientCertPath() {
+        return clientCertPath;
+    }
+
+    public Path getClientPrivateKeyPath() {
+        return clientPrivateKeyPath;
+    }
+
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    public int getConnectionCount() {
+        return remoteAddresses.size();
+    }
+
+    public int getFullHandshakeCount() {
+        return sessionIds.size();
+    }
+
+    @Override
+    public void close() {
+        httpsServer.stop(0);
+        executorService.shutdownNow();
+    }
+}
@@ -0,0 +1,77 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import com.awslabs.general.helpers.implementations.BasicJsonHelper;
+import com.awslabs.iot.data.*;
+import com.awslabs.resultsiterator.data.ImmutablePassword;
+import com.awslabs.resultsiterator.implementations.BasicSslContextHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+
+import java.io.IOException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class PooledCredentialsHttpClientTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private BasicSslContextHelper basicSslContextHelper;
+    private LocalIotCredentialsEndpoint localIotCredentialsEndpoint;
+    private BouncyCastleV2CertificateCredentialsProvider bouncyCastleV2CertificateCredentialsProvider;
+
+    @Before
+    public void setup() throws IOException {
+        basicSslContextHelper = new BasicSslContextHelper();
+        localIotCredentialsEndpoint = new LocalIotCredentialsEndpoint(temporaryFolder.getRoot().toPath(), endpoint -> basicSslContextHelper.getSslContext(
+                caCertFilename(endpoint), clientCertFilename(endpoint), clientPrivateKeyFilename(endpoint), ImmutablePassword.builder().build()));
+
+        bouncyCastleV2CertificateCredentialsProvider = new BouncyCastleV2CertificateCredentialsProvider();
+        bouncyCastleV2CertificateCredentialsProvider.jsonHelper = new BasicJsonHelper();
+        bouncyCastleV2CertificateCredentialsProvider.sslContextHelper = basicSslContextHelper;
+    }
+
+    @After
+    public void tearDown() {
+        localIotCredentialsEndpoint.close();
+    }
+
+    private ImmutableCaCertFilename caCertFilename(LocalIotCredentialsEndpoint endpoint) {
+        return ImmutableCaCertFilename.builder().caCertFilename(endpoint.getCaCertPath().toString()).build();
+    }
+
+    private ImmutableClientCertFilename clientCertFilename(LocalIotCredentialsEndpoint endpoint) {
+        return ImmutableClientCertFilename.builder().clientCertFilename(endpoint.getClientCertPath().toString()).build();
+    }
+
+    private ImmutableClientPrivateKeyFilename clientPrivateKeyFilename(LocalIotCredentialsEndpoint endpoint) {
+        return ImmutableClientPrivateKeyFilename.builder().clientPrivateKeyFilename(endpoint.getClientPrivateKeyPath().toString()).build();
+    }
+
+    private AwsCredentials fetch() {
+        // This skips the credentials cache so every call goes to the endpoint
+        return bouncyCastleV2CertificateCredentialsProvider.resolveCredentials(
+                ImmutableCredentialProviderUrl.builder().credentialProviderUrl(localIotCredentialsEndpoint.getCredentialProviderUrl()).build(),
+                ImmutableThingName.builder().name("thing").build(),
+                ImmutableRoleAlias.builder().name("role-alias").build(),
+                caCertFilename(localIotCredentialsEndpoint),
+                clientCertFilename(localIotCredentialsEndpoint),
+                clientPrivateKeyFilename(localIotCredentialsEndpoint),
+                ImmutablePassword.builder().build());
+    }
+
+    @Test
+    public void shouldReuseOneConnectionAndHandshakeForRepeatedFetches() {
+        for (int loop = 0; loop < 5; loop++) {
+            assertThat(fetch().accessKeyId(), is("access-key-" + (loop + 1)));
+        }
+
+        assertThat(localIotCredentialsEndpoint.getRequestCount(), is(5));
+        assertThat(localIotCredentialsEndpoint.getConnectionCount(), is(1));
+        assertThat(localIotCredentialsEndpoint.getFullHandshakeCount(), is(1));
+    }
+}
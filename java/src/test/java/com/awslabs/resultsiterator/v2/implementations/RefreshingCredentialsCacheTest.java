@@ -0,0 +1,97 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import com.awslabs.resultsiterator.data.ExpiringCredentials;
+import com.awslabs.resultsiterator.data.ImmutableExpiringCredentials;
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class RefreshingCredentialsCacheTest {
+    private static final Instant START = Instant.parse("2020-10-18T00:00:00Z");
+    private static final Duration LIFETIME = Duration.ofHours(1);
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(START);
+    private final AtomicInteger fetchCount = new AtomicInteger();
+    private final List<Runnable> pendingTasks = new ArrayList<>();
+    private RefreshingCredentialsCache refreshingCredentialsCache;
+
+    @Before
+    public void setup() {
+        // Background refreshes are queued and only run when the test runs them
+        refreshingCredentialsCache = new RefreshingCredentialsCache(this::fetch, pendingTasks::add, now::get, Duration.ofMinutes(5), Duration.ofMinutes(1));
+    }
+
+    private ExpiringCredentials fetch() {
+        int count = fetchCount.incrementAndGet();
+
+        return ImmutableExpiringCredentials.builder()
+                .awsCredentials(AwsBasicCredentials.create("access-key-" + count, "secret-key"))
+                .expiration(now.get().plus(LIFETIME))
+                .build();
+    }
+
+    private void runPendingTasks() {
+        new ArrayList<>(pendingTasks).forEach(Runnable::run);
+        pendingTasks.clear();
+    }
+
+    @Test
+    public void shouldFetchOnceWhileTheCredentialsAreFresh() {
+        AwsCredentials first = refreshingCredentialsCache.get();
+        now.set(START.plus(Duration.ofMinutes(30)));
+        AwsCredentials second = refreshingCredentialsCache.get();
+
+        assertThat(second.accessKeyId(), is(first.accessKeyId()));
+        assertThat(fetchCount.get(), is(1));
+        assertThat(pendingTasks.size(), is(0));
+    }
+
+    @Test
+    public void shouldRefreshOnceInTheBackgroundInThePrefetchWindow() {
+        refreshingCredentialsCache.get();
+        now.set(START.plus(LIFETIME).minus(Duration.ofMinutes(3)));
+
+        // Callers get the current credentials right away and only one refresh is started
+        assertThat(refreshingCredentialsCache.get().accessKeyId(), is("access-key-1"));
+        assertThat(refreshingCredentialsCache.get().accessKeyId(), is("access-key-1"));
+        assertThat(pendingTasks.size(), is(1));
+        assertThat(fetchCount.get(), is(1));
+
+        runPendingTasks();
+
+        assertThat(refreshingCredentialsCache.get().accessKeyId(), is("access-key-2"));
+        assertThat(fetchCount.get(), is(2));
+    }
+
+    @Test
+    public void shouldRefreshSynchronouslyWhenTheCredentialsAreStale() {
+        refreshingCredentialsCache.get();
+        now.set(START.plus(LIFETIME).minus(Duration.ofSeconds(30)));
+
+        assertThat(refreshingCredentialsCache.get().accessKeyId(), is("access-key-2"));
+        assertThat(pendingTasks.size(), is(0));
+    }
+
+    @Test
+    public void shouldNotCacheCredentialsWithoutAnExpiration() {
+        RefreshingCredentialsCache uncachedCredentialsCache = new RefreshingCredentialsCache(() -> ImmutableExpiringCredentials.builder()
+                .awsCredentials(AwsBasicCredentials.create("access-key-" + fetchCount.incrementAndGet(), "secret-key"))
+                .build(), pendingTasks::add);
+
+        uncachedCredentialsCache.get();
+        uncachedCredentialsCache.get();
+
+        assertThat(fetchCount.get(), is(2));
+    }
+}
@@ -0,0 +1,58 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import org.junit.Test;
+import software.amazon.awssdk.core.SdkClient;
+import software.amazon.awssdk.regions.Region;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertThrows;
+
+public class RegionalClientCacheTest {
+    private final AtomicInteger createdCount = new AtomicInteger();
+    private final AtomicInteger closedCount = new AtomicInteger();
+
+    private SdkClient createClient(Region region) {
+        createdCount.incrementAndGet();
+
+        return new SdkClient() {
+            @Override
+            public String serviceName() {
+                return "test";
+            }
+
+            @Override
+            public void close() {
+                closedCount.incrementAndGet();
+            }
+        };
+    }
+
+    @Test
+    public void shouldReuseOneClientPerRegion() {
+        RegionalClientCache<SdkClient> regionalClientCache = new RegionalClientCache<>(this::createClient);
+
+        SdkClient usEast1 = regionalClientCache.get(Region.US_EAST_1);
+
+        assertThat(regionalClientCache.get(Region.US_EAST_1), is(sameInstance(usEast1)));
+        assertThat(regionalClientCache.get(Region.EU_WEST_1), is(not(sameInstance(usEast1))));
+        assertThat(createdCount.get(), is(2));
+    }
+
+    @Test
+    public void shouldCloseEveryClientAndRejectLaterCalls() {
+        RegionalClientCache<SdkClient> regionalClientCache = new RegionalClientCache<>(this::createClient);
+        regionalClientCache.get(Region.US_EAST_1);
+        regionalClientCache.get(Region.EU_WEST_1);
+
+        regionalClientCache.close();
+
+        assertThat(closedCount.get(), is(2));
+        assertThat(regionalClientCache.size(), is(0));
+        assertThrows(IllegalStateException.class, () -> regionalClientCache.get(Region.US_EAST_1));
+    }
+}
@@ -0,0 +1,120 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.services.iot.model.ListThingsRequest;
+import software.amazon.awssdk.services.iot.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.iot.model.ThingAttribute;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertThrows;
+
+public class V2AsyncResultsIteratorTest {
+    private ExecutorService executorService;
+
+    @Before
+    public void setup() {
+        executorService = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void shouldReturnTheSameElementsAsTheSynchronousIterator() {
+        FakeV2IotClient fakeV2IotClient = new FakeV2IotClient(7, 5);
+
+        List<String> expected = new V2ResultsIterator<ThingAttribute>(fakeV2IotClient, ListThingsRequest.class).stream()
+                .map(ThingAttribute::thingName)
+                .collect(Collectors.toList());
+        List<String> actual = new V2AsyncResultsIterator<ThingAttribute>(new FakeV2IotAsyncClient(fakeV2IotClient, executorService), ListThingsRequest.class).list().join().stream()
+                .map(ThingAttribute::thingName)
+                .collect(Collectors.toList());
+
+        assertThat(actual.size(), is(35));
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void shouldOnlyFetchPagesWhenThereIsDemand() throws InterruptedException {
+        FakeV2IotClient fakeV2IotClient = new FakeV2IotClient(10, 20);
+        BlockingQueue<ThingAttribute> received = new LinkedBlockingQueue<>();
+        CompletableFuture<Subscription> subscriptionFuture = new CompletableFuture<>();
+
+        new V2AsyncResultsIterator<ThingAttribute>(new FakeV2IotAsyncClient(fakeV2IotClient, executorService), ListThingsRequest.class).publisher()
+                .subscribe(new CollectingSubscriber(subscriptionFuture, received));
+
+        Subscription subscription = subscriptionFuture.join();
+        assertThat(fakeV2IotClient.getRequestCount(), is(0));
+
+        subscription.request(15);
+
+        for (int loop = 0; loop < 15; loop++) {
+            received.poll(5, TimeUnit.SECONDS);
+        }
+
+        // Give any extra requests a chance to show up before checking
+        Thread.sleep(100);
+        assertThat(received.isEmpty(), is(true));
+        assertThat(fakeV2IotClient.getRequestCount(), is(2));
+
+        subscription.cancel();
+    }
+
+    @Test
+    public void shouldCompleteExceptionallyWithTheOriginalException() {
+        ResourceNotFoundException resourceNotFoundException = ResourceNotFoundException.builder().message("test").build();
+        FakeV2IotAsyncClient failingClient = new FakeV2IotAsyncClient(new FakeV2IotClient(1, 1), executorService) {
+            @Override
+            public CompletableFuture<software.amazon.awssdk.services.iot.model.ListThingsResponse> listThings(ListThingsRequest listThingsRequest) {
+                CompletableFuture<software.amazon.awssdk.services.iot.model.ListThingsResponse> future = new CompletableFuture<>();
+                future.completeExceptionally(resourceNotFoundException);
+                return future;
+            }
+        };
+
+        CompletableFuture<List<ThingAttribute>> result = new V2AsyncResultsIterator<ThingAttribute>(failingClient, ListThingsRequest.class).list();
+
+        ExecutionException executionException = assertThrows(ExecutionException.class, result::get);
+        assertThat(executionException.getCause(), is(instanceOf(ResourceNotFoundException.class)));
+    }
+
+    private static class CollectingSubscriber implements Subscriber<ThingAttribute> {
+        private final CompletableFuture<Subscription> subscriptionFuture;
+        private final BlockingQueue<ThingAttribute> received;
+
+        private CollectingSubscriber(CompletableFuture<Subscription> subscriptionFuture, BlockingQueue<ThingAttribute> received) {
+            this.subscriptionFuture = subscriptionFuture;
+            this.received = received;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            subscriptionFuture.complete(subscription);
+        }
+
+        @Override
+        public void onNext(ThingAttribute thingAttribute) {
+            received.add(thingAttribute);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.awssdk.services.iot.model.ListThingsRequest;
+import software.amazon.awssdk.services.iot.model.ThingAttribute;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class V2PaginationMethodsCacheTest {
+    private FakeV2IotClient fakeV2IotClient;
+
+    @Before
+    public void setup() {
+        V2PaginationMethodsCache.clear();
+        fakeV2IotClient = new FakeV2IotClient(10, 3);
+    }
+
+    @Test
+    public void shouldOnlyResolveMethodsForTheFirstIterator() {
+        long firstCount = new V2ResultsIterator<ThingAttribute>(fakeV2IotClient, ListThingsRequest.class).stream().count();
+        long secondCount = new V2ResultsIterator<ThingAttribute>(fakeV2IotClient, ListThingsRequest.class).stream().count();
+
+        assertThat(firstCount, is(30L));
+        assertThat(secondCount, is(30L));
+        assertThat(V2PaginationMethodsCache.getMissCount(), is(1L));
+        assertThat(V2PaginationMethodsCache.getHitCount(), is(1L));
+        assertThat(V2PaginationMethodsCache.size(), is(1));
+    }
+
+    @Test
+    public void shouldReturnElementsInOrderWhenMethodsAreCached() {
+        new V2ResultsIterator<ThingAttribute>(fakeV2IotClient, ListThingsRequest.class).stream().count();
+
+        List<String> thingNames = new V2ResultsIterator<ThingAttribute>(fakeV2IotClient, ListThingsRequest.builder().build()).stream()
+                .map(ThingAttribute::thingName)
+                .collect(Collectors.toList());
+
+        assertThat(thingNames.size(), is(30));
+        assertThat(thingNames.get(0), is(FakeV2IotClient.thingName(0, 0)));
+        assertThat(thingNames.get(29), is(FakeV2IotClient.thingName(2, 9)));
+    }
+}
@@ -0,0 +1,133 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import com.awslabs.resultsiterator.data.CheckpointPolicy;
+import com.awslabs.resultsiterator.data.ImmutableCheckpointPolicy;
+import com.awslabs.resultsiterator.data.PaginationCheckpoint;
+import com.awslabs.resultsiterator.implementations.FileCheckpointStore;
+import com.awslabs.resultsiterator.implementations.InMemoryCheckpointStore;
+import com.awslabs.resultsiterator.interfaces.CheckpointStore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import software.amazon.awssdk.services.iot.model.ListThingsRequest;
+import software.amazon.awssdk.services.iot.model.ThingAttribute;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThrows;
+
+public class V2ResultsIteratorCheckpointTest {
+    private static final String CHECKPOINT_ID = "list-things";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private CheckpointPolicy getCheckpointPolicy(CheckpointStore checkpointStore, int elementInterval) {
+        return ImmutableCheckpointPolicy.builder()
+                .checkpointStore(checkpointStore)
+                .checkpointId(CHECKPOINT_ID)
+                .elementInterval(elementInterval)
+                .build();
+    }
+
+    private List<String> getAllThingNames(FakeV2IotClient fakeV2IotClient) {
+        return new V2ResultsIterator<ThingAttribute>(fakeV2IotClient, ListThingsRequest.class).stream()
+                .map(ThingAttribute::thingName)
+                .collect(Collectors.toList());
+    }
+
+    private void consumeUntilFailure(FakeV2IotClient fakeV2IotClient, CheckpointPolicy checkpointPolicy, List<String> consumed, int failAfter) {
+        RuntimeException runtimeException = assertThrows(RuntimeException.class, () ->
+                new V2ResultsIterator<ThingAttribute>(fakeV2IotClient, ListThingsRequest.class).stream(checkpointPolicy)
+                        .map(ThingAttribute::thingName)
+                        .forEach(thingName -> {
+                            if (consumed.size() == failAfter) {
+                                throw new RuntimeException("Simulated failure");
+                            }
+
+                            consumed.add(thingName);
+                        }));
+
+        assertThat(runtimeException.getMessage(), is("Simulated failure"));
+    }
+
+    @Test
+    public void shouldResumeFromThePageBoundaryAfterAFailure() {
+        FakeV2IotClient fakeV2IotClient = new FakeV2IotClient(10, 5);
+        List<String> expected = getAllThingNames(fakeV2IotClient);
+        CheckpointPolicy checkpointPolicy = getCheckpointPolicy(new FileCheckpointStore(temporaryFolder.getRoot().toPath()), CheckpointPolicy.PAGE_BOUNDARIES_ONLY);
+
+        List<String> consumed = new ArrayList<>();
+        consumeUntilFailure(fakeV2IotClient, checkpointPolicy, consumed, 23);
+
+        // The checkpoint is at the start of the third page so the elements of that page are delivered again
+        List<String> resumed = new V2ResultsIterator<ThingAttribute>(fakeV2IotClient, ListThingsRequest.class).stream(checkpointPolicy)
+                .map(ThingAttribute::thingName)
+                .collect(Collectors.toList());
+
+        assertThat(resumed, is(expected.subList(20, 50)));
+        assertThat(checkpointPolicy.getCheckpointStore().load(CHECKPOINT_ID).isPresent(), is(false));
+    }
+
+    @Test
+    public void shouldResumeFromTheLastElementIntervalAfterAFailure() {
+        FakeV2IotClient fakeV2IotClient = new FakeV2IotClient(10, 5);
+        List<String> expected = getAllThingNames(fakeV2IotClient);
+        CheckpointPolicy checkpointPolicy = getCheckpointPolicy(new InMemoryCheckpointStore(), 1);
+
+        List<String> consumed = new ArrayList<>();
+        consumeUntilFailure(fakeV2IotClient, checkpointPolicy, consumed, 23);
+
+        PaginationCheckpoint paginationCheckpoint = checkpointPolicy.getCheckpointStore().load(CHECKPOINT_ID).get();
+        assertThat(paginationCheckpoint.getPageToken(), is(Optional.of("2")));
+        assertThat(paginationCheckpoint.getPageOffset(), is(3L));
+        assertThat(paginationCheckpoint.getConsumedElements(), is(23L));
+
+        List<String> resumed = new V2ResultsIterator<ThingAttribute>(fakeV2IotClient, ListThingsRequest.class).stream(checkpointPolicy)
+                .map(ThingAttribute::thingName)
+                .collect(Collectors.toList());
+
+        consumed.addAll(resumed);
+        assertThat(consumed, is(expected));
+    }
+
+    @Test
+    public void shouldSaveThePositionWhenClosedEarly() {
+        FakeV2IotClient fakeV2IotClient = new FakeV2IotClient(10, 5);
+        CheckpointStore checkpointStore = new FileCheckpointStore(temporaryFolder.getRoot().toPath());
+        CheckpointPolicy checkpointPolicy = getCheckpointPolicy(checkpointStore, CheckpointPolicy.PAGE_BOUNDARIES_ONLY);
+
+        try (Stream<ThingAttribute> stream = new V2ResultsIterator<ThingAttribute>(fakeV2IotClient, ListThingsRequest.class).stream(checkpointPolicy)) {
+            Iterator<ThingAttribute> iterator = stream.iterator();
+
+            for (int loop = 0; loop < 15; loop++) {
+                iterator.next();
+            }
+        }
+
+        // The fifteenth element was handed out but not consumed so it is delivered again on resume
+        PaginationCheckpoint paginationCheckpoint = checkpointStore.load(CHECKPOINT_ID).get();
+        assertThat(paginationCheckpoint.getPageToken(), is(Optional.of("1")));
+        assertThat(paginationCheckpoint.getPageOffset(), is(4L));
+        assertThat(paginationCheckpoint.getConsumedElements(), is(14L));
+    }
+
+    @Test
+    public void shouldNotResumeACheckpointForADifferentRequest() {
+        FakeV2IotClient fakeV2IotClient = new FakeV2IotClient(10, 5);
+        CheckpointPolicy checkpointPolicy = getCheckpointPolicy(new InMemoryCheckpointStore(), CheckpointPolicy.PAGE_BOUNDARIES_ONLY);
+
+        consumeUntilFailure(fakeV2IotClient, checkpointPolicy, new ArrayList<>(), 5);
+
+        ListThingsRequest differentRequest = ListThingsRequest.builder().thingTypeName("other").build();
+
+        assertThrows(IllegalStateException.class, () -> new V2ResultsIterator<ThingAttribute>(fakeV2IotClient, differentRequest).stream(checkpointPolicy).count());
+    }
+}
@@ -0,0 +1,83 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import com.awslabs.resultsiterator.data.CheckpointPolicy;
+import com.awslabs.resultsiterator.data.ImmutableCheckpointPolicy;
+import com.awslabs.resultsiterator.data.ImmutablePaginationOperation;
+import com.awslabs.resultsiterator.data.PaginationOperation;
+import com.awslabs.resultsiterator.implementations.InMemoryCheckpointStore;
+import com.awslabs.resultsiterator.implementations.InMemoryPaginationMetricsListener;
+import com.awslabs.resultsiterator.interfaces.PaginationMetricsListener;
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.awssdk.services.iot.IotClient;
+import software.amazon.awssdk.services.iot.model.ListThingsRequest;
+import software.amazon.awssdk.services.iot.model.ListThingsResponse;
+import software.amazon.awssdk.services.iot.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.iot.model.ThingAttribute;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThrows;
+
+public class V2ResultsIteratorMetricsTest {
+    private final PaginationOperation listThings = ImmutablePaginationOperation.builder()
+            .serviceName(IotClient.SERVICE_NAME)
+            .operationName("ListThings")
+            .build();
+    private InMemoryPaginationMetricsListener inMemoryPaginationMetricsListener;
+
+    @Before
+    public void setup() {
+        inMemoryPaginationMetricsListener = new InMemoryPaginationMetricsListener();
+    }
+
+    private V2ResultsIterator<ThingAttribute> getV2ResultsIterator(FakeV2IotClient fakeV2IotClient) {
+        return new V2ResultsIterator<ThingAttribute>(fakeV2IotClient, ListThingsRequest.class) {
+            @Override
+            protected PaginationMetricsListener getPaginationMetricsListener() {
+                return inMemoryPaginationMetricsListener;
+            }
+        };
+    }
+
+    @Test
+    public void shouldReportPagesElementsAndStreamsByOperation() {
+        long count = getV2ResultsIterator(new FakeV2IotClient(7, 5)).stream().count();
+
+        assertThat(count, is(35L));
+        assertThat(inMemoryPaginationMetricsListener.getPageLatencyNanos(listThings).getCount(), is(5L));
+        assertThat(inMemoryPaginationMetricsListener.getElementsPerPage(listThings).getSum(), is(35L));
+        assertThat(inMemoryPaginationMetricsListener.getPagesPerStream(listThings).getCount(), is(1L));
+        assertThat(inMemoryPaginationMetricsListener.getPagesPerStream(listThings).getMax(), is(5L));
+        assertThat(inMemoryPaginationMetricsListener.getErrorCount(listThings), is(0L));
+    }
+
+    @Test
+    public void shouldCountErrors() {
+        FakeV2IotClient failingClient = new FakeV2IotClient(1, 1) {
+            @Override
+            public ListThingsResponse listThings(ListThingsRequest listThingsRequest) {
+                throw ResourceNotFoundException.builder().message("test").build();
+            }
+        };
+
+        assertThrows(UnsupportedOperationException.class, () -> getV2ResultsIterator(failingClient).stream().count());
+        assertThat(inMemoryPaginationMetricsListener.getErrorCount(listThings), is(1L));
+        assertThat(inMemoryPaginationMetricsListener.getPagesPerStream(listThings).getCount(), is(0L));
+    }
+
+    @Test
+    public void shouldReportCheckpointedStreams() {
+        CheckpointPolicy checkpointPolicy = ImmutableCheckpointPolicy.builder()
+                .checkpointStore(new InMemoryCheckpointStore())
+                .checkpointId("list-things")
+                .build();
+
+        long count = getV2ResultsIterator(new FakeV2IotClient(7, 5)).stream(checkpointPolicy).count();
+
+        assertThat(count, is(35L));
+        assertThat(inMemoryPaginationMetricsListener.getPagesPerStream(listThings).getCount(), is(1L));
+        assertThat(inMemoryPaginationMetricsListener.getPagesPerStream(listThings).getMax(), is(5L));
+        assertThat(inMemoryPaginationMetricsListener.getRetriesPerStream(listThings).getCount(), is(1L));
+    }
+}
@@ -0,0 +1,95 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import com.awslabs.resultsiterator.data.ImmutablePrefetchPolicy;
+import com.awslabs.resultsiterator.data.PrefetchPolicy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.awssdk.services.iot.model.ListThingsRequest;
+import software.amazon.awssdk.services.iot.model.ListThingsResponse;
+import software.amazon.awssdk.services.iot.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.iot.model.ThingAttribute;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThrows;
+
+public class V2ResultsIteratorPrefetchTest {
+    private ExecutorService executorService;
+
+    @Before
+    public void setup() {
+        executorService = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void shouldReturnTheSameElementsInOrderWhenPrefetching() {
+        FakeV2IotClient fakeV2IotClient = new FakeV2IotClient(7, 5);
+        PrefetchPolicy prefetchPolicy = ImmutablePrefetchPolicy.builder().executor(executorService).lookAheadDepth(2).build();
+
+        List<String> expected = new V2ResultsIterator<ThingAttribute>(fakeV2IotClient, ListThingsRequest.class).stream()
+                .map(ThingAttribute::thingName)
+                .collect(Collectors.toList());
+        List<String> actual = new V2ResultsIterator<ThingAttribute>(fakeV2IotClient, ListThingsRequest.class).stream(prefetchPolicy)
+                .map(ThingAttribute::thingName)
+                .collect(Collectors.toList());
+
+        assertThat(actual.size(), is(35));
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void shouldNotFetchMoreThanTheLookAheadDepth() throws InterruptedException {
+        FakeV2IotClient fakeV2IotClient = new FakeV2IotClient(10, 20);
+        PrefetchPolicy prefetchPolicy = ImmutablePrefetchPolicy.builder().executor(executorService).lookAheadDepth(2).build();
+
+        Iterator<ThingAttribute> iterator = new V2ResultsIterator<ThingAttribute>(fakeV2IotClient, ListThingsRequest.class).stream(prefetchPolicy).iterator();
+        iterator.next();
+
+        // Let any requests that were already scheduled finish
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+
+        // The page being consumed plus two pages of look ahead
+        assertThat(fakeV2IotClient.getRequestCount(), lessThanOrEqualTo(3));
+    }
+
+    @Test
+    public void shouldThrowTheOriginalExceptionWhenAPrefetchedPageFails() {
+        FakeV2IotClient fakeV2IotClient = new FakeV2IotClient(10, 3) {
+            @Override
+            public ListThingsResponse listThings(ListThingsRequest listThingsRequest) {
+                if ("2".equals(listThingsRequest.nextToken())) {
+                    throw ResourceNotFoundException.builder().message("junk").build();
+                }
+
+                return super.listThings(listThingsRequest);
+            }
+        };
+        PrefetchPolicy prefetchPolicy = ImmutablePrefetchPolicy.builder().executor(executorService).build();
+
+        Stream<ThingAttribute> stream = new V2ResultsIterator<ThingAttribute>(fakeV2IotClient, ListThingsRequest.class).stream(prefetchPolicy);
+
+        UnsupportedOperationException exception = assertThrows(UnsupportedOperationException.class, stream::count);
+        assertThat(exception.getCause() instanceof ResourceNotFoundException, is(true));
+    }
+
+    @Test
+    public void shouldRejectALookAheadDepthOfZero() {
+        assertThrows(IllegalArgumentException.class, () -> ImmutablePrefetchPolicy.builder().executor(executorService).lookAheadDepth(0).build());
+    }
+}
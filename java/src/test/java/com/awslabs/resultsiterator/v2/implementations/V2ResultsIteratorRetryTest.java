@@ -0,0 +1,149 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import com.awslabs.resultsiterator.data.ImmutablePageRetryPolicy;
+import com.awslabs.resultsiterator.data.ImmutablePaginationOperation;
+import com.awslabs.resultsiterator.data.PageRetryPolicy;
+import com.awslabs.resultsiterator.data.PaginationOperation;
+import com.awslabs.resultsiterator.implementations.InMemoryPaginationMetricsListener;
+import com.awslabs.resultsiterator.interfaces.PaginationMetricsListener;
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.iot.IotClient;
+import software.amazon.awssdk.services.iot.model.InternalFailureException;
+import software.amazon.awssdk.services.iot.model.IotException;
+import software.amazon.awssdk.services.iot.model.ListThingsRequest;
+import software.amazon.awssdk.services.iot.model.ListThingsResponse;
+import software.amazon.awssdk.services.iot.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.iot.model.ThingAttribute;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertThrows;
+
+public class V2ResultsIteratorRetryTest {
+    private final PaginationOperation listThings = ImmutablePaginationOperation.builder()
+            .serviceName(IotClient.SERVICE_NAME)
+            .operationName("ListThings")
+            .build();
+    private final PageRetryPolicy pageRetryPolicy = ImmutablePageRetryPolicy.builder()
+            .maxAttempts(4)
+            .baseDelay(Duration.ofMillis(1))
+            .maxDelay(Duration.ofMillis(5))
+            .build();
+    private InMemoryPaginationMetricsListener inMemoryPaginationMetricsListener;
+
+    @Before
+    public void setup() {
+        inMemoryPaginationMetricsListener = new InMemoryPaginationMetricsListener();
+    }
+
+    private V2ResultsIterator<ThingAttribute> getV2ResultsIterator(FakeV2IotClient fakeV2IotClient) {
+        return new V2ResultsIterator<ThingAttribute>(fakeV2IotClient, ListThingsRequest.class) {
+            @Override
+            protected PageRetryPolicy getPageRetryPolicy() {
+                return pageRetryPolicy;
+            }
+
+            @Override
+            protected PaginationMetricsListener getPaginationMetricsListener() {
+                return inMemoryPaginationMetricsListener;
+            }
+        };
+    }
+
+    // Fails the first requests for the second page with the supplied exception and records every token requested
+    private FakeV2IotClient getFailingClient(int failures, List<String> requestedTokens, Supplier<RuntimeException> exceptionSupplier) {
+        AtomicInteger remainingFailures = new AtomicInteger(failures);
+
+        return new FakeV2IotClient(10, 3) {
+            @Override
+            public ListThingsResponse listThings(ListThingsRequest listThingsRequest) {
+                requestedTokens.add(String.valueOf(listThingsRequest.nextToken()));
+
+                if (Objects.equals(listThingsRequest.nextToken(), "1") && (remainingFailures.getAndDecrement() > 0)) {
+                    throw exceptionSupplier.get();
+                }
+
+                return super.listThings(listThingsRequest);
+            }
+        };
+    }
+
+    private RuntimeException throttlingException() {
+        return IotException.builder()
+                .statusCode(429)
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("ThrottlingException").build())
+                .build();
+    }
+
+    @Test
+    public void shouldRetryThrottledPagesWithTheSameToken() {
+        List<String> requestedTokens = Collections.synchronizedList(new ArrayList<>());
+
+        long count = getV2ResultsIterator(getFailingClient(2, requestedTokens, this::throttlingException)).stream().count();
+
+        assertThat(count, is(30L));
+        assertThat(requestedTokens, is(Arrays.asList("null", "1", "1", "1", "2")));
+        assertThat(inMemoryPaginationMetricsListener.getRetryCount(listThings), is(2L));
+        assertThat(inMemoryPaginationMetricsListener.getRetriesPerStream(listThings).getMax(), is(2L));
+        assertThat(inMemoryPaginationMetricsListener.getThrottlesPerStream(listThings).getMax(), is(2L));
+        assertThat(inMemoryPaginationMetricsListener.getErrorCount(listThings), is(0L));
+    }
+
+    @Test
+    public void shouldRetryServerErrors() {
+        List<String> requestedTokens = Collections.synchronizedList(new ArrayList<>());
+
+        long count = getV2ResultsIterator(getFailingClient(1, requestedTokens, () -> InternalFailureException.builder().statusCode(500).build())).stream().count();
+
+        assertThat(count, is(30L));
+        assertThat(inMemoryPaginationMetricsListener.getRetriesPerStream(listThings).getMax(), is(1L));
+        assertThat(inMemoryPaginationMetricsListener.getThrottlesPerStream(listThings).getMax(), is(0L));
+    }
+
+    @Test
+    public void shouldNotRetryClientErrors() {
+        List<String> requestedTokens = Collections.synchronizedList(new ArrayList<>());
+        FakeV2IotClient failingClient = getFailingClient(1, requestedTokens, () -> ResourceNotFoundException.builder().statusCode(404).build());
+
+        UnsupportedOperationException unsupportedOperationException = assertThrows(UnsupportedOperationException.class, () -> getV2ResultsIterator(failingClient).stream().count());
+
+        assertThat(unsupportedOperationException.getCause(), instanceOf(ResourceNotFoundException.class));
+        assertThat(requestedTokens.size(), is(2));
+        assertThat(inMemoryPaginationMetricsListener.getRetryCount(listThings), is(0L));
+    }
+
+    @Test
+    public void shouldGiveUpAfterTheMaximumNumberOfAttempts() {
+        List<String> requestedTokens = Collections.synchronizedList(new ArrayList<>());
+        FakeV2IotClient failingClient = getFailingClient(Integer.MAX_VALUE, requestedTokens, this::throttlingException);
+
+        assertThrows(UnsupportedOperationException.class, () -> getV2ResultsIterator(failingClient).stream().count());
+
+        // One request for the first page and four attempts for the second page
+        assertThat(requestedTokens.size(), is(5));
+        assertThat(inMemoryPaginationMetricsListener.getRetryCount(listThings), is(3L));
+        assertThat(inMemoryPaginationMetricsListener.getErrorCount(listThings), is(1L));
+    }
+
+    @Test
+    public void shouldLeaveRetriesToTheSdkByDefault() {
+        List<String> requestedTokens = Collections.synchronizedList(new ArrayList<>());
+        FakeV2IotClient failingClient = getFailingClient(1, requestedTokens, this::throttlingException);
+
+        assertThrows(UnsupportedOperationException.class, () -> new V2ResultsIterator<ThingAttribute>(failingClient, ListThingsRequest.class).stream().count());
+
+        assertThat(requestedTokens.size(), is(2));
+    }
+}
@@ -0,0 +1,53 @@
+package com.awslabs.resultsiterator.v2.implementations;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.awssdk.core.SdkSystemSetting;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class V2SingletonHelperModuleTest {
+    private String previousRegion;
+    private V2SingletonTestInjector v2SingletonTestInjector;
+
+    @Before
+    public void setup() {
+        // Building clients requires a region but these tests never call AWS
+        previousRegion = System.getProperty(SdkSystemSetting.AWS_REGION.property());
+        System.setProperty(SdkSystemSetting.AWS_REGION.property(), "us-east-1");
+
+        v2SingletonTestInjector = DaggerV2SingletonTestInjector.create();
+    }
+
+    @After
+    public void tearDown() {
+        v2SingletonTestInjector.v2ClientLifecycle().close();
+
+        if (previousRegion == null) {
+            System.clearProperty(SdkSystemSetting.AWS_REGION.property());
+        } else {
+            System.setProperty(SdkSystemSetting.AWS_REGION.property(), previousRegion);
+        }
+    }
+
+    @Test
+    public void shouldReuseClientsAndSharedDependencies() {
+        S3Client s3Client = v2SingletonTestInjector.s3Client();
+
+        assertThat(v2SingletonTestInjector.s3Client(), sameInstance(s3Client));
+        assertThat(v2SingletonTestInjector.iotClient(), sameInstance(v2SingletonTestInjector.iotClient()));
+        assertThat(v2SingletonTestInjector.sdkHttpClient(), sameInstance(v2SingletonTestInjector.sdkHttpClient()));
+        assertThat(v2SingletonTestInjector.awsCredentialsProvider(), sameInstance(v2SingletonTestInjector.awsCredentialsProvider()));
+        assertThat(v2SingletonTestInjector.v2SqsHelper(), sameInstance(v2SingletonTestInjector.v2SqsHelper()));
+        assertThat(v2SingletonTestInjector.v2S3Helper(), sameInstance(v2SingletonTestInjector.v2S3Helper()));
+    }
+
+    @Test
+    public void shouldCloseClientsMoreThanOnceWithoutFailing() {
+        v2SingletonTestInjector.sqsClient();
+        v2SingletonTestInjector.v2ClientLifecycle().close();
+    }
+}
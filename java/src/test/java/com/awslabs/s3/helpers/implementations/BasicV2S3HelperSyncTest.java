@@ -0,0 +1,234 @@
+package com.awslabs.s3.helpers.implementations;
+
+import com.awslabs.resultsiterator.data.ImmutableFanOutPolicy;
+import com.awslabs.s3.helpers.data.ImmutableS3Bucket;
+import com.awslabs.s3.helpers.data.ImmutableS3Path;
+import com.awslabs.s3.helpers.data.S3Bucket;
+import com.awslabs.s3.helpers.data.S3Path;
+import com.awslabs.s3.helpers.data.SyncResult;
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
+import io.vavr.control.Try;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.regions.providers.AwsRegionProviderChain;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class BasicV2S3HelperSyncTest {
+    private static final int MEBIBYTE = 1024 * 1024;
+    private final S3Bucket s3Bucket = ImmutableS3Bucket.builder().bucket("deploy-bucket").build();
+    private final S3Path s3Path = ImmutableS3Path.builder().path("releases/current").build();
+    private final Map<String, byte[]> remoteContents = new ConcurrentSkipListMap<>();
+    private final Map<String, String> remoteETags = new ConcurrentHashMap<>();
+    private final Map<String, Instant> remoteLastModified = new ConcurrentHashMap<>();
+    private final AtomicInteger listRequestCount = new AtomicInteger();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ExecutorService executorService;
+    private BasicV2S3Helper basicV2S3Helper;
+    private Path directory;
+
+    @Before
+    public void setup() throws Exception {
+        executorService = Executors.newFixedThreadPool(4);
+        directory = temporaryFolder.newFolder("site").toPath();
+
+        S3Client s3Client = new S3Client() {
+            @Override
+            public GetBucketLocationResponse getBucketLocation(GetBucketLocationRequest getBucketLocationRequest) {
+                return GetBucketLocationResponse.builder().build();
+            }
+
+            @Override
+            public ListObjectsV2Response listObjectsV2(ListObjectsV2Request listObjectsV2Request) {
+                listRequestCount.incrementAndGet();
+
+                return ListObjectsV2Response.builder()
+                        .contents(remoteContents.entrySet().stream()
+                                .filter(entry -> entry.getKey().startsWith(listObjectsV2Request.prefix()))
+                                .map(entry -> S3Object.builder().key(entry.getKey()).size((long) entry.getValue().length).eTag(remoteETags.get(entry.getKey())).lastModified(remoteLastModified.get(entry.getKey())).build())
+                                .collect(Collectors.toList()))
+                        .build();
+            }
+
+            @Override
+            public PutObjectResponse putObject(PutObjectRequest putObjectRequest, RequestBody requestBody) {
+                byte[] content = Try.withResources(() -> requestBody.contentStreamProvider().newStream())
+                        .of(ByteStreams::toByteArray)
+                        .get();
+                putRemoteObject(putObjectRequest.key(), content, md5ETag(content));
+
+                return PutObjectResponse.builder().build();
+            }
+
+            @Override
+            public String serviceName() {
+                return SERVICE_NAME;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        basicV2S3Helper = new BasicV2S3Helper() {
+            private final BucketRegionCache bucketRegionCache = new BucketRegionCache();
+
+            @Override
+            protected BucketRegionCache getBucketRegionCache() {
+                return bucketRegionCache;
+            }
+        };
+        basicV2S3Helper.s3ClientProvider = () -> s3Client;
+        basicV2S3Helper.awsRegionProviderChain = new AwsRegionProviderChain(() -> Region.US_EAST_1);
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    private void putRemoteObject(String key, byte[] content, String eTag) {
+        remoteContents.put(key, content);
+        remoteETags.put(key, eTag);
+        remoteLastModified.put(key, Instant.now());
+    }
+
+    private static byte[] md5(byte[] content) {
+        return Try.of(() -> MessageDigest.getInstance("MD5").digest(content)).get();
+    }
+
+    private static String md5ETag(byte[] content) {
+        return "\"" + BaseEncoding.base16().lowerCase().encode(md5(content)) + "\"";
+    }
+
+    private Path writeLocalFile(String relativePath, byte[] content) throws Exception {
+        Path path = directory.resolve(relativePath);
+        Files.createDirectories(path.getParent());
+
+        return Files.write(path, content);
+    }
+
+    private SyncResult sync() {
+        return basicV2S3Helper.syncDirectory(s3Bucket, s3Path, directory, ImmutableFanOutPolicy.builder().executor(executorService).permits(3).build());
+    }
+
+    @Test
+    public void shouldOnlyUploadNewAndChangedFiles() throws Exception {
+        writeLocalFile("index.html", "index".getBytes(StandardCharsets.UTF_8));
+        writeLocalFile("css/site.css", "body {}".getBytes(StandardCharsets.UTF_8));
+        writeLocalFile("js/app.js", "v2".getBytes(StandardCharsets.UTF_8));
+
+        // The same content is already in S3 for the first file and the second file has the same size but different content
+        putRemoteObject("releases/current/index.html", "index".getBytes(StandardCharsets.UTF_8), md5ETag("index".getBytes(StandardCharsets.UTF_8)));
+        putRemoteObject("releases/current/js/app.js", "v1".getBytes(StandardCharsets.UTF_8), md5ETag("v1".getBytes(StandardCharsets.UTF_8)));
+
+        SyncResult syncResult = sync();
+
+        assertThat(syncResult.objectsSkipped(), is(1L));
+        assertThat(syncResult.bytesSkipped(), is(5L));
+        assertThat(syncResult.objectsTransferred(), is(2L));
+        assertThat(syncResult.bytesTransferred(), is(9L));
+        assertThat(new String(remoteContents.get("releases/current/js/app.js"), StandardCharsets.UTF_8), is("v2"));
+        assertThat(remoteContents.containsKey("releases/current/css/site.css"), is(true));
+        assertThat(listRequestCount.get(), is(1));
+
+        // Nothing is uploaded the second time
+        SyncResult secondSyncResult = sync();
+
+        assertThat(secondSyncResult.objectsSkipped(), is(3L));
+        assertThat(secondSyncResult.objectsTransferred(), is(0L));
+    }
+
+    private static String multipartETag(byte[] content, int partSize) {
+        int partCount = (content.length + partSize - 1) / partSize;
+        byte[] partMd5s = new byte[16 * partCount];
+
+        for (int part = 0; part < partCount; part++) {
+            System.arraycopy(md5(Arrays.copyOfRange(content, part * partSize, Math.min(content.length, (part + 1) * partSize))), 0, partMd5s, 16 * part, 16);
+        }
+
+        return "\"" + BaseEncoding.base16().lowerCase().encode(md5(partMd5s)) + "-" + partCount + "\"";
+    }
+
+    @Test
+    public void shouldSkipFilesThatWereUploadedInParts() throws Exception {
+        byte[] content = new byte[12 * MEBIBYTE];
+        new Random(12).nextBytes(content);
+        writeLocalFile("bundle.zip", content);
+
+        // The ETag of an object uploaded in 8 MiB parts, which is the CLI default
+        putRemoteObject("releases/current/bundle.zip", content, multipartETag(content, 8 * MEBIBYTE));
+
+        SyncResult syncResult = sync();
+
+        assertThat(syncResult.objectsSkipped(), is(1L));
+        assertThat(syncResult.objectsUnverified(), is(0L));
+        assertThat(syncResult.objectsTransferred(), is(0L));
+    }
+
+    @Test
+    public void shouldSkipAndCountFilesWithETagsThatCanNotBeChecked() throws Exception {
+        byte[] content = new byte[20 * MEBIBYTE];
+        new Random(20).nextBytes(content);
+        writeLocalFile("bundle.zip", content);
+
+        // 6 MiB parts aren't a size that is tried, dividing the file into four parts gives 5 MiB
+        putRemoteObject("releases/current/bundle.zip", content, multipartETag(content, 6 * MEBIBYTE));
+
+        // The object was stored after the file was written so it isn't uploaded again on later syncs
+        for (int loop = 0; loop < 2; loop++) {
+            SyncResult syncResult = sync();
+
+            assertThat(syncResult.objectsSkipped(), is(1L));
+            assertThat(syncResult.objectsUnverified(), is(1L));
+            assertThat(syncResult.objectsTransferred(), is(0L));
+        }
+    }
+
+    @Test
+    public void shouldUploadFilesWithETagsThatCanNotBeCheckedWhenTheyChangedAfterTheObject() throws Exception {
+        byte[] remoteContent = new byte[20 * MEBIBYTE];
+        new Random(20).nextBytes(remoteContent);
+        putRemoteObject("releases/current/bundle.zip", remoteContent, multipartETag(remoteContent, 6 * MEBIBYTE));
+
+        // Same size, different content and changed after the object was stored
+        byte[] content = new byte[20 * MEBIBYTE];
+        new Random(21).nextBytes(content);
+        Path localFile = writeLocalFile("bundle.zip", content);
+        Files.setLastModifiedTime(localFile, FileTime.from(Instant.now().plusSeconds(60)));
+
+        SyncResult syncResult = sync();
+
+        assertThat(syncResult.objectsTransferred(), is(1L));
+        assertThat(syncResult.objectsUnverified(), is(0L));
+        assertThat(remoteContents.get("releases/current/bundle.zip"), is(content));
+    }
+}
@@ -0,0 +1,287 @@
+package com.awslabs.s3.helpers.implementations;
+
+import com.awslabs.s3.helpers.data.BucketRegionCacheMetrics;
+import com.google.common.base.Ticker;
+import org.junit.Before;
+import org.junit.Test;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.regions.providers.AwsRegionProviderChain;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.Bucket;
+import software.amazon.awssdk.services.s3.model.BucketLocationConstraint;
+import software.amazon.awssdk.services.s3.model.GetBucketLocationRequest;
+import software.amazon.awssdk.services.s3.model.GetBucketLocationResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class BasicV2S3HelperTest {
+    private static final Bucket HOME_BUCKET = Bucket.builder().name("home-bucket").build();
+    private static final Bucket REMOTE_BUCKET = Bucket.builder().name("remote-bucket").build();
+    private static final Bucket MISSING_BUCKET = Bucket.builder().name("missing-bucket").build();
+    private static final Bucket WEST_BUCKET = Bucket.builder().name("west-bucket").build();
+    private static final int LIST_PAGE_SIZE = 3;
+    private static final TreeSet<String> OBJECT_KEYS = IntStream.range(0, 100)
+            .mapToObj(value -> String.format("data/file-%03d", value))
+            .collect(Collectors.toCollection(TreeSet::new));
+    // Keys that share a character after the directory but have a hundred objects between them
+    private static final TreeSet<String> SPARSE_KEYS = IntStream.rangeClosed(0, 100)
+            .mapToObj(value -> String.format("data/a%07d", Math.max(1, Math.min(9_999_999, value * 100_000))))
+            .collect(Collectors.toCollection(TreeSet::new));
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger headObjectRequestCount = new AtomicInteger();
+    private final AtomicInteger listObjectsV2RequestCount = new AtomicInteger();
+    private final AtomicInteger bucketLocationRequestCount = new AtomicInteger();
+    private final List<Region> builtRegions = new ArrayList<>();
+    private final Set<String> deletedBucketNames = new HashSet<>();
+    private S3Client defaultS3Client;
+    private BucketRegionCache bucketRegionCache;
+    private BasicV2S3Helper basicV2S3Helper;
+
+    @Before
+    public void setup() {
+        defaultS3Client = new S3Client() {
+            @Override
+            public GetBucketLocationResponse getBucketLocation(GetBucketLocationRequest getBucketLocationRequest) {
+                bucketLocationRequestCount.incrementAndGet();
+
+                if (getBucketLocationRequest.bucket().equals(REMOTE_BUCKET.name())) {
+                    throw S3Exception.builder().message("The authorization header is malformed; the region 'us-east-1' is wrong; expecting 'eu-west-1'").build();
+                }
+
+                if (getBucketLocationRequest.bucket().equals(MISSING_BUCKET.name()) || deletedBucketNames.contains(getBucketLocationRequest.bucket())) {
+                    throw NoSuchBucketException.builder().message("The specified bucket does not exist").build();
+                }
+
+                if (getBucketLocationRequest.bucket().equals(WEST_BUCKET.name())) {
+                    return GetBucketLocationResponse.builder().locationConstraint(BucketLocationConstraint.US_WEST_2).build();
+                }
+
+                // Buckets in us-east-1 have no location constraint
+                return GetBucketLocationResponse.builder().build();
+            }
+
+            @Override
+            public HeadObjectResponse headObject(HeadObjectRequest headObjectRequest) {
+                headObjectRequestCount.incrementAndGet();
+
+                if (!OBJECT_KEYS.contains(headObjectRequest.key()) && !SPARSE_KEYS.contains(headObjectRequest.key())) {
+                    throw S3Exception.builder().statusCode(404).build();
+                }
+
+                return HeadObjectResponse.builder().build();
+            }
+
+            @Override
+            public ListObjectsV2Response listObjectsV2(ListObjectsV2Request listObjectsV2Request) {
+                listObjectsV2RequestCount.incrementAndGet();
+
+                // Return small pages in key order like S3 does
+                String startAfter = Optional.ofNullable(listObjectsV2Request.continuationToken())
+                        .orElse(Optional.ofNullable(listObjectsV2Request.startAfter()).orElse(""));
+                TreeSet<String> keys = new TreeSet<>(OBJECT_KEYS);
+                keys.addAll(SPARSE_KEYS);
+                List<S3Object> contents = keys.tailSet(startAfter, false).stream()
+                        .filter(key -> key.startsWith(Optional.ofNullable(listObjectsV2Request.prefix()).orElse("")))
+                        .limit(LIST_PAGE_SIZE)
+                        .map(key -> S3Object.builder().key(key).build())
+                        .collect(Collectors.toList());
+                boolean truncated = contents.size() == LIST_PAGE_SIZE;
+
+                return ListObjectsV2Response.builder()
+                        .contents(contents)
+                        .isTruncated(truncated)
+                        .nextContinuationToken(truncated ? contents.get(contents.size() - 1).key() : null)
+                        .build();
+            }
+
+            @Override
+            public String serviceName() {
+                return SERVICE_NAME;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        bucketRegionCache = new BucketRegionCache(Duration.ofMinutes(10), new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        });
+
+        basicV2S3Helper = getBasicV2S3Helper(defaultS3Client, Region.US_EAST_1);
+    }
+
+    private BasicV2S3Helper getBasicV2S3Helper(S3Client s3Client, Region defaultRegion) {
+        BasicV2S3Helper basicV2S3Helper = new BasicV2S3Helper() {
+            @Override
+            protected BucketRegionCache getBucketRegionCache() {
+                return bucketRegionCache;
+            }
+
+            @Override
+            protected S3Client buildS3Client(Region region) {
+                builtRegions.add(region);
+
+                return defaultS3Client;
+            }
+
+            @Override
+            protected long getMaxListedObjectsPerKey() {
+                return LIST_PAGE_SIZE;
+            }
+        };
+        basicV2S3Helper.s3ClientProvider = () -> s3Client;
+        basicV2S3Helper.awsRegionProviderChain = new AwsRegionProviderChain(() -> defaultRegion);
+
+        return basicV2S3Helper;
+    }
+
+    @Test
+    public void shouldLookUpEachBucketOnce() {
+        for (int loop = 0; loop < 5; loop++) {
+            assertThat(basicV2S3Helper.getRegionSpecificClientForBucket(HOME_BUCKET), sameInstance(defaultS3Client));
+            basicV2S3Helper.getRegionSpecificClientForBucket(REMOTE_BUCKET);
+        }
+
+        assertThat(bucketLocationRequestCount.get(), is(2));
+
+        // Only one client is built for the remote region and it is reused, the default client is used for the home region
+        assertThat(builtRegions, is(Collections.singletonList(Region.EU_WEST_1)));
+
+        BucketRegionCacheMetrics bucketRegionCacheMetrics = basicV2S3Helper.getBucketRegionCacheMetrics();
+        assertThat(bucketRegionCacheMetrics.missCount(), is(2L));
+        assertThat(bucketRegionCacheMetrics.hitCount(), is(8L));
+        assertThat(bucketRegionCacheMetrics.regionClientCount(), is(1));
+    }
+
+    @Test
+    public void shouldShareTheBucketRegionWithHelpersInOtherRegions() {
+        basicV2S3Helper.getRegionSpecificClientForBucket(WEST_BUCKET);
+
+        // This helper's default client can't be used for anything, the region comes from the shared cache
+        BasicV2S3Helper otherBasicV2S3Helper = getBasicV2S3Helper(null, Region.US_EAST_2);
+        otherBasicV2S3Helper.getRegionSpecificClientForBucket(WEST_BUCKET);
+
+        assertThat(bucketLocationRequestCount.get(), is(1));
+        assertThat(builtRegions, is(Arrays.asList(Region.US_WEST_2, Region.US_WEST_2)));
+    }
+
+    @Test
+    public void shouldLookUpTheRegionAgainAfterTheTtl() {
+        basicV2S3Helper.getRegionSpecificClientForBucket(REMOTE_BUCKET);
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+        basicV2S3Helper.getRegionSpecificClientForBucket(REMOTE_BUCKET);
+
+        assertThat(bucketLocationRequestCount.get(), is(2));
+        assertThat(builtRegions.size(), is(1));
+    }
+
+    @Test
+    public void shouldNotCacheBucketsThatDoNotExist() {
+        assertThat(basicV2S3Helper.objectExists(MISSING_BUCKET, "data/file-000"), is(false));
+        assertThat(basicV2S3Helper.objectExists(MISSING_BUCKET, "data/file-000"), is(false));
+
+        assertThat(bucketLocationRequestCount.get(), is(2));
+        assertThat(basicV2S3Helper.getBucketRegionCacheMetrics().lookupFailureCount(), is(2L));
+    }
+
+    @Test
+    public void shouldNotUseTheCachedRegionToCheckThatABucketExists() {
+        basicV2S3Helper.getRegionSpecificClientForBucket(HOME_BUCKET);
+        assertThat(basicV2S3Helper.bucketExists(HOME_BUCKET), is(true));
+
+        deletedBucketNames.add(HOME_BUCKET.name());
+
+        assertThat(basicV2S3Helper.bucketExists(HOME_BUCKET), is(false));
+        assertThat(bucketLocationRequestCount.get(), is(3));
+    }
+
+    @Test
+    public void shouldCheckASingleKeyWithHeadObject() {
+        assertThat(basicV2S3Helper.objectExists(HOME_BUCKET, "data/file-010"), is(true));
+        // A prefix of existing keys is not an object
+        assertThat(basicV2S3Helper.objectExists(HOME_BUCKET, "data/file-01"), is(false));
+
+        assertThat(headObjectRequestCount.get(), is(2));
+        assertThat(listObjectsV2RequestCount.get(), is(0));
+    }
+
+    @Test
+    public void shouldCheckKeysWithACommonPrefixWithOneListing() {
+        List<String> keys = Arrays.asList("data/file-042", "data/file-040", "data/file-041", "data/missing", "other/file-000");
+
+        Map<String, Boolean> results = basicV2S3Helper.objectsExist(HOME_BUCKET, keys);
+
+        assertThat(new ArrayList<>(results.keySet()), is(keys));
+        assertThat(results.get("data/file-040"), is(true));
+        assertThat(results.get("data/file-041"), is(true));
+        assertThat(results.get("data/file-042"), is(true));
+        assertThat(results.get("data/missing"), is(false));
+        assertThat(results.get("other/file-000"), is(false));
+
+        // One page covers the three keys with a common prefix instead of reading the whole directory, the other keys
+        //   are checked on their own
+        assertThat(listObjectsV2RequestCount.get(), is(1));
+        assertThat(headObjectRequestCount.get(), is(2));
+    }
+
+    @Test
+    public void shouldStopListingAfterTheLastKey() {
+        Map<String, Boolean> results = basicV2S3Helper.objectsExist(HOME_BUCKET, Arrays.asList("data/file-050", "data/file-053", "data/file-054x"));
+
+        assertThat(results.get("data/file-050"), is(true));
+        assertThat(results.get("data/file-053"), is(true));
+        assertThat(results.get("data/file-054x"), is(false));
+        // Keys 050 to 055 are two pages of three and key 055 is after the last key
+        assertThat(listObjectsV2RequestCount.get(), is(2));
+        assertThat(headObjectRequestCount.get(), is(0));
+    }
+
+    @Test
+    public void shouldReportNoKeysForAMissingBucket() {
+        Map<String, Boolean> results = basicV2S3Helper.objectsExist(MISSING_BUCKET, Arrays.asList("data/file-000", "data/file-001"));
+
+        assertThat(results.values().contains(true), is(false));
+        assertThat(listObjectsV2RequestCount.get(), is(0));
+    }
+
+    @Test
+    public void shouldCheckSparseKeysOnTheirOwnAfterListingOnePagePerKey() {
+        Map<String, Boolean> results = basicV2S3Helper.objectsExist(HOME_BUCKET, Arrays.asList("data/a0000001", "data/a9999999", "data/a9999998"));
+
+        assertThat(results.get("data/a0000001"), is(true));
+        assertThat(results.get("data/a9999999"), is(true));
+        assertThat(results.get("data/a9999998"), is(false));
+        // Three pages are listed for the three keys instead of every object in between, then the two keys that weren't
+        //   reached are checked with HEAD requests
+        assertThat(listObjectsV2RequestCount.get(), is(3));
+        assertThat(headObjectRequestCount.get(), is(2));
+    }
+}
@@ -0,0 +1,261 @@
+package com.awslabs.s3.helpers.implementations;
+
+import com.awslabs.resultsiterator.data.ImmutableFanOutPolicy;
+import com.awslabs.s3.exceptions.MultipartUploadException;
+import com.awslabs.s3.helpers.data.ImmutableMultipartUploadPolicy;
+import com.awslabs.s3.helpers.data.ImmutableS3Bucket;
+import com.awslabs.s3.helpers.data.ImmutableS3Key;
+import com.awslabs.s3.helpers.data.MultipartUploadPolicy;
+import com.awslabs.s3.helpers.data.S3Bucket;
+import com.awslabs.s3.helpers.data.S3Key;
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
+import io.vavr.control.Try;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThrows;
+
+public class MultipartUploaderTest {
+    private static final String UPLOAD_ID = "upload-1";
+    private static final int PART_SIZE = (int) MultipartUploadPolicy.MIN_PART_SIZE;
+    private final S3Bucket s3Bucket = ImmutableS3Bucket.builder().bucket("bucket").build();
+    private final S3Key s3Key = ImmutableS3Key.builder().key("artifacts/bundle.zip").build();
+    private final Map<Integer, byte[]> uploadedParts = new ConcurrentHashMap<>();
+    private final AtomicInteger uploadPartRequestCount = new AtomicInteger();
+    private final AtomicInteger abortCount = new AtomicInteger();
+    private final AtomicInteger runningUploadCount = new AtomicInteger();
+    private volatile int failingPartNumber = -1;
+    // This part takes a while to upload so it is still being sent when another part fails
+    private volatile int slowPartNumber = -1;
+    private volatile int runningUploadCountAtAbort = -1;
+    private volatile byte[] completedObject;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ExecutorService executorService;
+    private S3Client s3Client;
+
+    @Before
+    public void setup() {
+        executorService = Executors.newFixedThreadPool(4);
+
+        // Keeps the parts of a single upload in memory like S3 does
+        s3Client = new S3Client() {
+            @Override
+            public CreateMultipartUploadResponse createMultipartUpload(CreateMultipartUploadRequest createMultipartUploadRequest) {
+                return CreateMultipartUploadResponse.builder().uploadId(UPLOAD_ID).build();
+            }
+
+            @Override
+            public UploadPartResponse uploadPart(UploadPartRequest uploadPartRequest, RequestBody requestBody) {
+                uploadPartRequestCount.incrementAndGet();
+
+                if (uploadPartRequest.partNumber() == failingPartNumber) {
+                    throw S3Exception.builder().statusCode(500).message("Simulated failure").build();
+                }
+
+                runningUploadCount.incrementAndGet();
+
+                try {
+                    if (uploadPartRequest.partNumber() == slowPartNumber) {
+                        Try.run(() -> Thread.sleep(200));
+                    }
+
+                    byte[] content = Try.withResources(() -> requestBody.contentStreamProvider().newStream())
+                            .of(ByteStreams::toByteArray)
+                            .get();
+                    uploadedParts.put(uploadPartRequest.partNumber(), content);
+
+                    return UploadPartResponse.builder().eTag(eTag(content)).build();
+                } finally {
+                    runningUploadCount.decrementAndGet();
+                }
+            }
+
+            @Override
+            public ListPartsResponse listParts(ListPartsRequest listPartsRequest) {
+                return ListPartsResponse.builder()
+                        .parts(uploadedParts.entrySet().stream()
+                                .map(entry -> Part.builder().partNumber(entry.getKey()).size((long) entry.getValue().length).eTag(eTag(entry.getValue())).build())
+                                .collect(Collectors.toList()))
+                        .isTruncated(false)
+                        .build();
+            }
+
+            @Override
+            public CompleteMultipartUploadResponse completeMultipartUpload(CompleteMultipartUploadRequest completeMultipartUploadRequest) {
+                ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+                completeMultipartUploadRequest.multipartUpload().parts().forEach(completedPart -> {
+                    byte[] content = uploadedParts.get(completedPart.partNumber());
+                    assertThat(completedPart.eTag(), is(eTag(content)));
+                    byteArrayOutputStream.write(content, 0, content.length);
+                });
+
+                completedObject = byteArrayOutputStream.toByteArray();
+
+                return CompleteMultipartUploadResponse.builder().eTag("complete").build();
+            }
+
+            @Override
+            public AbortMultipartUploadResponse abortMultipartUpload(AbortMultipartUploadRequest abortMultipartUploadRequest) {
+                abortCount.incrementAndGet();
+                runningUploadCountAtAbort = runningUploadCount.get();
+                uploadedParts.clear();
+
+                return AbortMultipartUploadResponse.builder().build();
+            }
+
+            @Override
+            public String serviceName() {
+                return SERVICE_NAME;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    private static String eTag(byte[] content) {
+        byte[] md5 = Try.of(() -> MessageDigest.getInstance("MD5").digest(content)).get();
+
+        return "\"" + BaseEncoding.base16().lowerCase().encode(md5) + "\"";
+    }
+
+    private MultipartUploadPolicy getMultipartUploadPolicy(boolean abortOnFailure) {
+        return getMultipartUploadPolicy(executorService, abortOnFailure);
+    }
+
+    private MultipartUploadPolicy getMultipartUploadPolicy(Executor executor, boolean abortOnFailure) {
+        return ImmutableMultipartUploadPolicy.builder()
+                .fanOutPolicy(ImmutableFanOutPolicy.builder().executor(executor).permits(3).build())
+                .partSize(PART_SIZE)
+                .abortOnFailure(abortOnFailure)
+                .build();
+    }
+
+    private byte[] writeFile(File file, int length) throws Exception {
+        byte[] content = new byte[length];
+        new Random(length).nextBytes(content);
+        Files.write(file.toPath(), content);
+
+        return content;
+    }
+
+    @Test
+    public void shouldUploadAllPartsInOrder() throws Exception {
+        File file = temporaryFolder.newFile();
+        byte[] content = writeFile(file, PART_SIZE * 3 + 1234);
+
+        new MultipartUploader(s3Client, getMultipartUploadPolicy(true)).upload(s3Bucket, s3Key, file);
+
+        assertThat(uploadedParts.size(), is(4));
+        assertThat(uploadedParts.get(4).length, is(1234));
+        assertThat(completedObject, is(content));
+    }
+
+    @Test
+    public void shouldUploadAnEmptyFileAsOnePart() throws Exception {
+        File file = temporaryFolder.newFile();
+
+        new MultipartUploader(s3Client, getMultipartUploadPolicy(true)).upload(s3Bucket, s3Key, file);
+
+        assertThat(uploadedParts.size(), is(1));
+        assertThat(completedObject.length, is(0));
+    }
+
+    @Test
+    public void shouldAbortTheUploadWhenAPartFails() throws Exception {
+        File file = temporaryFolder.newFile();
+        writeFile(file, PART_SIZE * 3);
+        failingPartNumber = 2;
+
+        MultipartUploadException multipartUploadException = assertThrows(MultipartUploadException.class, () -> new MultipartUploader(s3Client, getMultipartUploadPolicy(true)).upload(s3Bucket, s3Key, file));
+
+        assertThat(multipartUploadException.getUploadId(), is(UPLOAD_ID));
+        assertThat(multipartUploadException.isAborted(), is(true));
+        assertThat(abortCount.get(), is(1));
+    }
+
+    @Test
+    public void shouldWaitForPartsThatAreBeingSentBeforeAborting() throws Exception {
+        File file = temporaryFolder.newFile();
+        writeFile(file, PART_SIZE * 3);
+        failingPartNumber = 2;
+        slowPartNumber = 3;
+
+        MultipartUploadException multipartUploadException = assertThrows(MultipartUploadException.class, () -> new MultipartUploader(s3Client, getMultipartUploadPolicy(true)).upload(s3Bucket, s3Key, file));
+
+        assertThat(multipartUploadException.isAborted(), is(true));
+        assertThat(runningUploadCountAtAbort, is(0));
+        // No part was stored after the abort
+        assertThat(uploadedParts.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldOnlyUploadTheMissingPartsWhenResuming() throws Exception {
+        File file = temporaryFolder.newFile();
+        byte[] content = writeFile(file, PART_SIZE * 4);
+        failingPartNumber = 3;
+
+        // Upload the parts on this thread so the same parts are always uploaded, every part except the third one
+        MultipartUploadException multipartUploadException = assertThrows(MultipartUploadException.class, () -> new MultipartUploader(s3Client, getMultipartUploadPolicy(Runnable::run, false)).upload(s3Bucket, s3Key, file));
+        assertThat(multipartUploadException.isAborted(), is(false));
+        assertThat(abortCount.get(), is(0));
+        assertThat(uploadedParts.keySet(), is(new HashSet<>(Arrays.asList(1, 2, 4))));
+
+        uploadPartRequestCount.set(0);
+        failingPartNumber = -1;
+
+        new MultipartUploader(s3Client, getMultipartUploadPolicy(false)).resume(s3Bucket, s3Key, file, multipartUploadException.getUploadId());
+
+        assertThat(uploadPartRequestCount.get(), is(1));
+        assertThat(completedObject, is(content));
+    }
+
+    @Test
+    public void shouldReadOnlyTheRequestedPartOfTheFile() throws Exception {
+        File file = temporaryFolder.newFile();
+        byte[] content = writeFile(file, 1000);
+
+        try (FileChannel fileChannel = FileChannel.open(file.toPath());
+             InputStream inputStream = new FileChannelPartInputStream(fileChannel, 100, 250)) {
+            byte[] part = ByteStreams.toByteArray(inputStream);
+
+            assertThat(part, is(Arrays.copyOfRange(content, 100, 350)));
+        }
+    }
+}
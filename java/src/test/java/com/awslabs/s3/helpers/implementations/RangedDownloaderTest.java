@@ -0,0 +1,212 @@
+package com.awslabs.s3.helpers.implementations;
+
+import com.awslabs.resultsiterator.data.ImmutableFanOutPolicy;
+import com.awslabs.s3.helpers.data.DownloadResult;
+import com.awslabs.s3.helpers.data.ImmutableRangedDownloadPolicy;
+import com.awslabs.s3.helpers.data.ImmutableS3Bucket;
+import com.awslabs.s3.helpers.data.ImmutableS3Key;
+import com.awslabs.s3.helpers.data.RangedDownloadPolicy;
+import com.awslabs.s3.helpers.data.S3Bucket;
+import com.awslabs.s3.helpers.data.S3Key;
+import com.google.common.io.BaseEncoding;
+import io.vavr.control.Try;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThrows;
+
+public class RangedDownloaderTest {
+    private static final int RANGE_SIZE = (int) RangedDownloadPolicy.MIN_RANGE_SIZE;
+    private final S3Bucket s3Bucket = ImmutableS3Bucket.builder().bucket("bucket").build();
+    private final S3Key s3Key = ImmutableS3Key.builder().key("artifacts/bundle.zip").build();
+    private final List<String> requestedRanges = new CopyOnWriteArrayList<>();
+    private volatile byte[] content;
+    private volatile String eTag;
+    // A range starting at this offset only returns half of its bytes the first time it is requested
+    private volatile long truncatedOffset = -1;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ExecutorService executorService;
+    private S3Client s3Client;
+
+    @Before
+    public void setup() {
+        executorService = Executors.newFixedThreadPool(4);
+
+        // Serves byte ranges of a single object held in memory
+        s3Client = new S3Client() {
+            @Override
+            public HeadObjectResponse headObject(HeadObjectRequest headObjectRequest) {
+                return HeadObjectResponse.builder().contentLength((long) content.length).eTag(eTag).build();
+            }
+
+            @Override
+            public ResponseInputStream<GetObjectResponse> getObject(GetObjectRequest getObjectRequest) {
+                requestedRanges.add(getObjectRequest.range());
+
+                if (!getObjectRequest.ifMatch().equals(eTag)) {
+                    throw S3Exception.builder().statusCode(412).message("Precondition failed").build();
+                }
+
+                String[] range = getObjectRequest.range().replace("bytes=", "").split("-");
+                int start = Integer.parseInt(range[0]);
+                int length = Integer.parseInt(range[1]) - start + 1;
+                int returnedLength = length;
+
+                if (start == truncatedOffset) {
+                    truncatedOffset = -1;
+                    returnedLength = length / 2;
+                }
+
+                GetObjectResponse getObjectResponse = GetObjectResponse.builder().contentLength((long) length).eTag(eTag).build();
+
+                return new ResponseInputStream<>(getObjectResponse, AbortableInputStream.create(new ByteArrayInputStream(content, start, returnedLength)));
+            }
+
+            @Override
+            public String serviceName() {
+                return SERVICE_NAME;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    private static byte[] md5(byte[] content) {
+        return Try.of(() -> MessageDigest.getInstance("MD5").digest(content)).get();
+    }
+
+    private static String eTag(byte[] content) {
+        return "\"" + BaseEncoding.base16().lowerCase().encode(md5(content)) + "\"";
+    }
+
+    private static String multipartETag(byte[] content, int partSize) {
+        int partCount = (content.length + partSize - 1) / partSize;
+        byte[] partMd5s = new byte[16 * partCount];
+
+        for (int part = 0; part < partCount; part++) {
+            System.arraycopy(md5(Arrays.copyOfRange(content, part * partSize, Math.min(content.length, (part + 1) * partSize))), 0, partMd5s, 16 * part, 16);
+        }
+
+        return "\"" + BaseEncoding.base16().lowerCase().encode(md5(partMd5s)) + "-" + partCount + "\"";
+    }
+
+    private void putObject(int length) {
+        content = new byte[length];
+        new Random(length).nextBytes(content);
+        eTag = eTag(content);
+    }
+
+    private RangedDownloader getRangedDownloader() {
+        RangedDownloadPolicy rangedDownloadPolicy = ImmutableRangedDownloadPolicy.builder()
+                .fanOutPolicy(ImmutableFanOutPolicy.builder().executor(executorService).permits(3).build())
+                .rangeSize(RANGE_SIZE)
+                .build();
+
+        return new RangedDownloader(s3Client, rangedDownloadPolicy);
+    }
+
+    @Test
+    public void shouldWriteEveryRangeToItsOffset() throws Exception {
+        putObject(RANGE_SIZE * 3 + 1234);
+        Path destination = temporaryFolder.getRoot().toPath().resolve("bundle.zip");
+
+        DownloadResult downloadResult = getRangedDownloader().download(s3Bucket, s3Key, destination);
+
+        assertThat(downloadResult.rangeCount(), is(4));
+        assertThat(downloadResult.rangeRetryCount(), is(0));
+        assertThat(downloadResult.eTagVerified(), is(true));
+        assertThat(Files.readAllBytes(destination), is(content));
+    }
+
+    @Test
+    public void shouldDownloadAnEmptyObjectWithoutRequestingRanges() throws Exception {
+        putObject(0);
+        Path destination = temporaryFolder.getRoot().toPath().resolve("empty");
+
+        DownloadResult downloadResult = getRangedDownloader().download(s3Bucket, s3Key, destination);
+
+        assertThat(downloadResult.rangeCount(), is(0));
+        assertThat(requestedRanges.size(), is(0));
+        assertThat(Files.size(destination), is(0L));
+    }
+
+    @Test
+    public void shouldOnlyRequestTheMissingBytesOfATruncatedRange() throws Exception {
+        putObject(RANGE_SIZE * 3);
+        truncatedOffset = RANGE_SIZE;
+        Path destination = temporaryFolder.getRoot().toPath().resolve("bundle.zip");
+
+        DownloadResult downloadResult = getRangedDownloader().download(s3Bucket, s3Key, destination);
+
+        assertThat(downloadResult.rangeRetryCount(), is(1));
+        assertThat(requestedRanges.size(), is(4));
+        assertThat(requestedRanges.contains("bytes=" + (RANGE_SIZE + RANGE_SIZE / 2) + "-" + (RANGE_SIZE * 2 - 1)), is(true));
+        assertThat(Files.readAllBytes(destination), is(content));
+    }
+
+    @Test
+    public void shouldDeleteTheFileWhenTheContentDoesNotMatchTheETag() {
+        putObject(RANGE_SIZE * 2);
+        eTag = eTag(new byte[1]);
+        Path destination = temporaryFolder.getRoot().toPath().resolve("bundle.zip");
+
+        assertThrows(IllegalStateException.class, () -> getRangedDownloader().download(s3Bucket, s3Key, destination));
+
+        assertThat(Files.exists(destination), is(false));
+    }
+
+    @Test
+    public void shouldKeepTheFileWhenAMultipartETagCanNotBeChecked() throws Exception {
+        int mebibyte = 1024 * 1024;
+        putObject(20 * mebibyte);
+        // 6 MiB parts aren't a size that is tried so the ETag can't be reproduced
+        eTag = multipartETag(content, 6 * mebibyte);
+        Path destination = temporaryFolder.getRoot().toPath().resolve("bundle.zip");
+
+        DownloadResult downloadResult = getRangedDownloader().download(s3Bucket, s3Key, destination);
+
+        assertThat(eTag.endsWith("-4\""), is(true));
+        assertThat(downloadResult.eTagVerified(), is(false));
+        assertThat(Files.readAllBytes(destination), is(content));
+    }
+
+    @Test
+    public void shouldVerifyAMultipartETagWithAKnownPartSize() throws Exception {
+        int mebibyte = 1024 * 1024;
+        putObject(20 * mebibyte);
+        eTag = multipartETag(content, 8 * mebibyte);
+        Path destination = temporaryFolder.getRoot().toPath().resolve("bundle.zip");
+
+        assertThat(getRangedDownloader().download(s3Bucket, s3Key, destination).eTagVerified(), is(true));
+    }
+}